@@ -0,0 +1,50 @@
+package pl.s32832.library.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pl.s32832.library.exception.NotFoundException;
+import pl.s32832.library.service.BookService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Odczyty książek przez BookService na bazie H2 z danymi z LibraryState.
+ *
+ * - getAll: cały katalog jednym zapytaniem z EntityGraph (autorzy w tym samym SELECT),
+ * - getById: findById + kolekcja autorów — ścieżka, która zastąpiła zapytanie
+ *   findWithAuthorsById; po rozgrzaniu obsługiwana z cache 2. poziomu.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookServiceBenchmark {
+
+    private BookService bookService;
+
+    @Setup
+    public void setUp(LibraryState library) {
+        bookService = library.bean(BookService.class);
+    }
+
+    @Benchmark
+    public void getAll(Blackhole bh) {
+        bh.consume(bookService.getAll());
+    }
+
+    @Benchmark
+    public void getById(LibraryState library, Blackhole bh) throws NotFoundException {
+        bh.consume(bookService.getById(library.randomBookId()));
+    }
+}
@@ -0,0 +1,138 @@
+package pl.s32832.library.jmh;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.s32832.library.LibraryApplication;
+import pl.s32832.library.entity.Author;
+import pl.s32832.library.entity.Book;
+import pl.s32832.library.entity.Loan;
+import pl.s32832.library.entity.User;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Kontekst Springa z bazą H2 (profil "test") i danymi o zadanej wielkości — wspólny
+ * dla benchmarków serwisów i repozytoriów.
+ *
+ * Wielkość danych: parametry JMH books / loans (w Maven: -Djmh.books, -Djmh.loans).
+ * - authors = books / 10, każda książka ma 1–2 autorów,
+ * - loans historycznych (oddanych) wypożyczeń rozłożonych na 100 użytkowników.
+ * Książki mają dużą liczbę egzemplarzy, żeby wypożyczanie w pętli benchmarku nie wyczerpało zapasu.
+ */
+@State(Scope.Benchmark)
+public class LibraryState {
+
+    private static final int USERS = 100;
+    private static final int CHUNK = 1_000;
+    private static final int COPIES = 1_000_000;
+
+    @Param("1000")
+    public int books;
+
+    @Param("10000")
+    public int loans;
+
+    public ConfigurableApplicationContext context;
+    public List<Long> bookIds;
+    public List<Long> userIds;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(LibraryApplication.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=WARN")
+                .run();
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public Long randomBookId() {
+        return bookIds.get(ThreadLocalRandom.current().nextInt(bookIds.size()));
+    }
+
+    public Long randomUserId() {
+        return userIds.get(ThreadLocalRandom.current().nextInt(userIds.size()));
+    }
+
+    /**
+     * Dane wstawiane przez EntityManager w transakcjach po CHUNK wierszy
+     * (JDBC batch wg hibernate.jdbc.batch_size), jak w LoanBulkInsertBenchmarkTest.
+     */
+    private void seed() {
+        EntityManager em = SharedEntityManagerCreator.createSharedEntityManager(bean(EntityManagerFactory.class));
+        TransactionTemplate tx = bean(TransactionTemplate.class);
+
+        List<Author> authors = new ArrayList<>();
+        userIds = new ArrayList<>();
+        tx.executeWithoutResult(status -> {
+            for (int i = 0; i < Math.max(1, books / 10); i++) {
+                Author author = new Author("Author " + i);
+                em.persist(author);
+                authors.add(author);
+            }
+            for (int i = 0; i < USERS; i++) {
+                User user = new User(UUID.randomUUID() + "@jmh.test", "User " + i);
+                em.persist(user);
+                userIds.add(user.getId());
+            }
+        });
+
+        bookIds = new ArrayList<>();
+        for (int from = 0; from < books; from += CHUNK) {
+            int start = from;
+            tx.executeWithoutResult(status -> {
+                for (int i = start; i < Math.min(books, start + CHUNK); i++) {
+                    Book book = new Book("Book " + i, "jmh-" + i, COPIES);
+                    book.getAuthors().add(em.getReference(Author.class, authors.get(i % authors.size()).getId()));
+                    if (i % 3 == 0) {
+                        book.getAuthors().add(em.getReference(Author.class,
+                                authors.get((i + 1) % authors.size()).getId()));
+                    }
+                    em.persist(book);
+                    bookIds.add(book.getId());
+                }
+            });
+        }
+
+        LocalDate today = LocalDate.now();
+        for (int from = 0; from < loans; from += CHUNK) {
+            int start = from;
+            tx.executeWithoutResult(status -> {
+                for (int i = start; i < Math.min(loans, start + CHUNK); i++) {
+                    Loan loan = new Loan(
+                            em.getReference(User.class, userIds.get(i % USERS)),
+                            em.getReference(Book.class, bookIds.get(i % bookIds.size())),
+                            today.minusDays(30), today.minusDays(16));
+                    loan.setReturnDate(today.minusDays(20));
+                    em.persist(loan);
+                }
+                em.flush();
+                em.clear();
+            });
+        }
+    }
+}
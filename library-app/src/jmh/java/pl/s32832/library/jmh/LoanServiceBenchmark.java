@@ -0,0 +1,69 @@
+package pl.s32832.library.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pl.s32832.library.dto.request.CreateLoanRequest;
+import pl.s32832.library.service.LoanService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Zapis wypożyczeń przez LoanService na bazie H2 z danymi z LibraryState.
+ *
+ * - create: walidacja użytkownika, warunkowy UPDATE availableCopies, INSERT wypożyczenia,
+ * - returnLoan: zwrot wypożyczenia utworzonego w setupie tego wywołania (Level.Invocation —
+ *   koszt setupu nie wchodzi do pomiaru; przy operacjach rzędu setek µs narzut JMH jest pomijalny).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoanServiceBenchmark {
+
+    private LoanService loanService;
+
+    @Setup
+    public void setUp(LibraryState library) {
+        loanService = library.bean(LoanService.class);
+    }
+
+    @State(Scope.Thread)
+    public static class ActiveLoan {
+
+        Long loanId;
+
+        @Setup(Level.Invocation)
+        public void borrow(LibraryState library) throws Exception {
+            loanId = library.bean(LoanService.class).create(request(library)).getId();
+        }
+    }
+
+    @Benchmark
+    public void create(LibraryState library, Blackhole bh) throws Exception {
+        bh.consume(loanService.create(request(library)));
+    }
+
+    @Benchmark
+    public void returnLoan(LibraryState library, ActiveLoan active, Blackhole bh) throws Exception {
+        bh.consume(loanService.returnLoan(active.loanId));
+    }
+
+    private static CreateLoanRequest request(LibraryState library) {
+        CreateLoanRequest req = new CreateLoanRequest();
+        req.setUserId(library.randomUserId());
+        req.setBookId(library.randomBookId());
+        return req;
+    }
+}
@@ -0,0 +1,68 @@
+package pl.s32832.library.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+import pl.s32832.library.entity.Author;
+import pl.s32832.library.entity.Book;
+import pl.s32832.library.entity.Loan;
+import pl.s32832.library.entity.User;
+import pl.s32832.library.mapper.BookMapper;
+import pl.s32832.library.mapper.LoanMapper;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Konwersja encji -> DTO (BookMapper, LoanMapper) bez bazy danych.
+ * authors = liczba autorów książki (BookMapper buduje z nich zbiór ID).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"1", "5"})
+    public int authors;
+
+    private Book book;
+    private Loan loan;
+
+    @Setup
+    public void setUp() {
+        book = withId(new Book("Benchmark", "978-0-00-000000-0", 3), 1L);
+        for (int i = 0; i < authors; i++) {
+            book.getAuthors().add(withId(new Author("Author " + i), 10L + i));
+        }
+        User user = withId(new User("jmh@example.com", "JMH"), 2L);
+        loan = withId(new Loan(user, book, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 15)), 3L);
+    }
+
+    @Benchmark
+    public void bookToResponse(Blackhole bh) {
+        bh.consume(BookMapper.toResponse(book));
+    }
+
+    @Benchmark
+    public void loanToResponse(Blackhole bh) {
+        bh.consume(LoanMapper.toResponse(loan));
+    }
+
+    private static <T> T withId(T entity, Long id) {
+        ReflectionTestUtils.setField(entity, "id", id);
+        return entity;
+    }
+}
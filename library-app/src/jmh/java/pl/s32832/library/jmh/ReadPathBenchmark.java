@@ -0,0 +1,82 @@
+package pl.s32832.library.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pl.s32832.library.dto.response.CursorPage;
+import pl.s32832.library.mapper.BookMapper;
+import pl.s32832.library.mapper.LoanMapper;
+import pl.s32832.library.mapper.UserMapper;
+import pl.s32832.library.service.BookService;
+import pl.s32832.library.service.LoanService;
+import pl.s32832.library.service.UserService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ścieżki odczytu REST: encje + mapper (dawna ścieżka kontrolerów) vs projekcja DTO z repozytorium.
+ *
+ * - entity*: getPage, encje w kontekście persystencji, potem XMapper.toResponse,
+ * - projection*: getResponsePage, rekordy XResponse budowane wprost z wiersza.
+ *
+ * Strona = CursorPage.DEFAULT_LIMIT pozycji (książki od losowego miejsca). Alokację na operację
+ * (gc.alloc.rate.norm) pokazuje profiler gc, włączony domyślnie w profilu Maven jmh.
+ * Pojedyncza książka: BookServiceBenchmark.getById (cache 2. poziomu).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadPathBenchmark {
+
+    private BookService bookService;
+    private LoanService loanService;
+    private UserService userService;
+
+    @Setup
+    public void setUp(LibraryState library) {
+        bookService = library.bean(BookService.class);
+        loanService = library.bean(LoanService.class);
+        userService = library.bean(UserService.class);
+    }
+
+    @Benchmark
+    public void bookEntityPage(LibraryState library, Blackhole bh) {
+        bh.consume(bookService.getPage(library.randomBookId(), CursorPage.DEFAULT_LIMIT).map(BookMapper::toResponse));
+    }
+
+    @Benchmark
+    public void bookProjectionPage(LibraryState library, Blackhole bh) {
+        bh.consume(bookService.getResponsePage(library.randomBookId(), CursorPage.DEFAULT_LIMIT));
+    }
+
+    @Benchmark
+    public void loanEntityPage(Blackhole bh) {
+        bh.consume(loanService.getPage(null, CursorPage.DEFAULT_LIMIT).map(LoanMapper::toResponse));
+    }
+
+    @Benchmark
+    public void loanProjectionPage(Blackhole bh) {
+        bh.consume(loanService.getResponsePage(null, CursorPage.DEFAULT_LIMIT));
+    }
+
+    @Benchmark
+    public void userEntityPage(Blackhole bh) {
+        bh.consume(userService.getPage(null, CursorPage.DEFAULT_LIMIT).map(UserMapper::toResponse));
+    }
+
+    @Benchmark
+    public void userProjectionPage(Blackhole bh) {
+        bh.consume(userService.getResponsePage(null, CursorPage.DEFAULT_LIMIT));
+    }
+}
@@ -2,10 +2,25 @@ package pl.s32832.library;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import pl.s32832.library.config.LibraryRuntimeHints;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@ImportRuntimeHints(LibraryRuntimeHints.class)
 public class LibraryApplication {
+
+    /** Liczba zapamiętanych kroków startu (/actuator/startup), gdy -Dlibrary.startup.steps=true. */
+    private static final int STARTUP_STEPS = 4096;
+
     public static void main(String[] args) {
-        SpringApplication.run(LibraryApplication.class, args);
+        SpringApplication application = new SpringApplication(LibraryApplication.class);
+        if (Boolean.getBoolean("library.startup.steps")) {
+            // czas tworzenia beanów i kroków odświeżania kontekstu: GET /actuator/startup
+            application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+        }
+        application.run(args);
     }
 }
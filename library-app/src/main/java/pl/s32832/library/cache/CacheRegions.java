@@ -0,0 +1,24 @@
+package pl.s32832.library.cache;
+
+/**
+ * Nazwy regionów cache 2. poziomu Hibernate.
+ *
+ * Te same nazwy są używane w @Cache na encjach, w konfiguracji Caffeine
+ * (src/main/resources/application.conf) i w metrykach trafień.
+ */
+public final class CacheRegions {
+
+    /** Encje Book. */
+    public static final String BOOKS = "books";
+
+    /** Encje Author. */
+    public static final String AUTHORS = "authors";
+
+    /** Kolekcja Book.authors (ID autorów danej książki). */
+    public static final String BOOK_AUTHORS = "book-authors";
+
+    /** Rola kolekcji Book.authors w Hibernate (potrzebna do ręcznego usuwania wpisów). */
+    public static final String BOOK_AUTHORS_ROLE = "pl.s32832.library.entity.Book.authors";
+
+    private CacheRegions() {}
+}
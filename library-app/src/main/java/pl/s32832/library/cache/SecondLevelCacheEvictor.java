@@ -0,0 +1,70 @@
+package pl.s32832.library.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pl.s32832.library.entity.Author;
+import pl.s32832.library.entity.Book;
+
+/**
+ * Jawne usuwanie wpisów z cache 2. poziomu po zmianach książek i autorów.
+ *
+ * Hibernate (strategia READ_WRITE) sam aktualizuje cache przy zapisie encji,
+ * ale nie widzi wszystkiego: np. natywny UPDATE liczników egzemplarzy czy usunięcie autora,
+ * którego ID zostaje w zapamiętanych kolekcjach Book.authors innych książek.
+ * Dlatego serwisy po takich zmianach wołają ten komponent.
+ *
+ * Usunięcie następuje dopiero po commicie — gdyby nastąpiło wcześniej, równoległy
+ * odczyt mógłby zapisać do cache jeszcze stary stan z bazy.
+ */
+@Component
+public class SecondLevelCacheEvictor {
+
+    private final Cache cache;
+
+    public SecondLevelCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    /**
+     * Książka i lista jej autorów (update, addAuthor, removeAuthor).
+     */
+    public void evictBook(Long bookId) {
+        afterCommit(() -> {
+            cache.evictEntityData(Book.class, bookId);
+            cache.evictCollectionData(CacheRegions.BOOK_AUTHORS_ROLE, bookId);
+        });
+    }
+
+    /**
+     * Tylko encja książki — po natywnym UPDATE liczników egzemplarzy (wypożyczenie, zwrot).
+     * Lista autorów się nie zmienia, więc zostaje w cache.
+     */
+    public void evictBookEntity(Long bookId) {
+        afterCommit(() -> cache.evictEntityData(Book.class, bookId));
+    }
+
+    /**
+     * Autor (zmiana nazwiska). Zapamiętane listy Book.authors przechowują tylko ID autorów,
+     * a zmiana nazwiska nie zmienia przynależności do żadnej z nich.
+     */
+    public void evictAuthor(Long authorId) {
+        afterCommit(() -> cache.evictEntityData(Author.class, authorId));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,52 @@
+package pl.s32832.library.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Współczynnik trafień cache 2. poziomu jako metryka Actuatora:
+ * library.cache.hit.ratio{region} = hits / (hits + misses), 0 gdy brak odczytów.
+ *
+ * Surowe liczniki (hibernate.second.level.cache.requests{result=hit|miss})
+ * publikuje hibernate-micrometer — ta miara to gotowy stosunek do dashboardów.
+ * Wymaga hibernate.generate_statistics=true.
+ */
+@Component
+public class SecondLevelCacheMetrics implements MeterBinder {
+
+    private static final List<String> REGIONS = List.of(
+            CacheRegions.BOOKS, CacheRegions.AUTHORS, CacheRegions.BOOK_AUTHORS);
+
+    private final Statistics statistics;
+
+    public SecondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String region : REGIONS) {
+            Gauge.builder("library.cache.hit.ratio", statistics, s -> hitRatio(s, region))
+                    .tag("region", region)
+                    .description("Second-level cache hit ratio")
+                    .register(registry);
+        }
+    }
+
+    static double hitRatio(Statistics statistics, String region) {
+        CacheRegionStatistics stats = statistics.getDomainDataRegionStatistics(region);
+        if (stats == null) {
+            return 0.0;
+        }
+        long requests = stats.getHitCount() + stats.getMissCount();
+        return requests == 0 ? 0.0 : (double) stats.getHitCount() / requests;
+    }
+}
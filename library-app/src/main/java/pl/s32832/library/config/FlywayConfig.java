@@ -0,0 +1,31 @@
+package pl.s32832.library.config;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import pl.s32832.library.entity.IdGeneration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Placeholdery migracji Flyway wyliczane z kodu, żeby schemat i mapowania encji
+ * nie rozjechały się przy zmianie jednej strony.
+ *
+ * - ${id_allocation_size}: INCREMENT BY sekwencji = IdGeneration.ALLOCATION_SIZE
+ *   (allocationSize w @SequenceGenerator encji).
+ */
+@Configuration
+public class FlywayConfig {
+
+    static final String ID_ALLOCATION_SIZE = "id_allocation_size";
+
+    @Bean
+    public FlywayConfigurationCustomizer idAllocationSizePlaceholder() {
+        return configuration -> {
+            Map<String, String> placeholders = new HashMap<>(configuration.getPlaceholders());
+            placeholders.put(ID_ALLOCATION_SIZE, String.valueOf(IdGeneration.ALLOCATION_SIZE));
+            configuration.placeholders(placeholders);
+        };
+    }
+}
@@ -0,0 +1,107 @@
+package pl.s32832.library.config;
+
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import pl.s32832.library.dto.request.BatchLoanRequest;
+import pl.s32832.library.dto.request.BatchReturnRequest;
+import pl.s32832.library.dto.request.CreateAuthorRequest;
+import pl.s32832.library.dto.request.CreateBookRequest;
+import pl.s32832.library.dto.request.CreateLoanRequest;
+import pl.s32832.library.dto.request.CreateProfileRequest;
+import pl.s32832.library.dto.request.CreateUserRequest;
+import pl.s32832.library.dto.request.ReturnLoanRequest;
+import pl.s32832.library.dto.request.UpdateAuthorRequest;
+import pl.s32832.library.dto.request.UpdateBookRequest;
+import pl.s32832.library.dto.request.UpdateProfileRequest;
+import pl.s32832.library.dto.request.UpdateUserRequest;
+import pl.s32832.library.dto.response.AuthorResponse;
+import pl.s32832.library.dto.response.BatchLoanItemResponse;
+import pl.s32832.library.dto.response.BatchLoanResponse;
+import pl.s32832.library.dto.response.BatchReturnResponse;
+import pl.s32832.library.dto.response.BookLookupResponse;
+import pl.s32832.library.dto.response.BookResponse;
+import pl.s32832.library.dto.response.BookSearchHit;
+import pl.s32832.library.dto.response.BookSearchResponse;
+import pl.s32832.library.dto.response.CatalogHit;
+import pl.s32832.library.dto.response.CatalogIndexStatus;
+import pl.s32832.library.dto.response.Completion;
+import pl.s32832.library.dto.response.CursorPage;
+import pl.s32832.library.dto.response.LoanListItem;
+import pl.s32832.library.dto.response.LoanResponse;
+import pl.s32832.library.dto.response.ProfileResponse;
+import pl.s32832.library.dto.response.UserResponse;
+import pl.s32832.library.entity.Author;
+import pl.s32832.library.entity.Book;
+import pl.s32832.library.entity.Loan;
+import pl.s32832.library.entity.User;
+import pl.s32832.library.entity.UserProfile;
+import pl.s32832.library.exception.ErrorResponse;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Podpowiedzi dla obrazu natywnego GraalVM (profil Maven "native").
+ *
+ * Spring AOT sam rejestruje beany, repozytoria Spring Data i typy z sygnatur kontrolerów REST;
+ * tutaj jest to, czego nie widać w kodzie statycznie:
+ * - encje Hibernate — pola i konstruktory czytane refleksją (uzupełnia hinty z PersistenceManagedTypes),
+ * - DTO — Jackson i wiązanie formularzy Thymeleaf (th:object / th:field) na getterach i setterach,
+ * - szablony Thymeleaf, konfiguracja Caffeine (application.conf) i zasoby Swagger UI (springdoc),
+ * - proxy JDK tworzone przez datasource-proxy dla Connection / Statement / ResultSet (MetricsConfig).
+ */
+public class LibraryRuntimeHints implements RuntimeHintsRegistrar {
+
+    static final Class<?>[] ENTITIES = {Author.class, Book.class, Loan.class, User.class, UserProfile.class};
+
+    static final Class<?>[] DTOS = {
+            BatchLoanRequest.class, BatchReturnRequest.class, CreateAuthorRequest.class, CreateBookRequest.class,
+            CreateLoanRequest.class, CreateProfileRequest.class, CreateUserRequest.class, ReturnLoanRequest.class,
+            UpdateAuthorRequest.class, UpdateBookRequest.class, UpdateProfileRequest.class, UpdateUserRequest.class,
+            AuthorResponse.class, BatchLoanItemResponse.class, BatchLoanResponse.class, BatchReturnResponse.class,
+            BookLookupResponse.class, BookResponse.class, BookSearchHit.class, BookSearchResponse.class,
+            CatalogHit.class, CatalogIndexStatus.class, Completion.class, CursorPage.class, LoanListItem.class,
+            LoanResponse.class, ProfileResponse.class, UserResponse.class, ErrorResponse.class
+    };
+
+    static final Class<?>[] JDBC_PROXIES = {
+            Connection.class, Statement.class, PreparedStatement.class, CallableStatement.class, ResultSet.class
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> entity : ENTITIES) {
+            hints.reflection().registerType(entity,
+                    MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), DTOS);
+
+        hints.resources()
+                .registerPattern("templates/*.html")
+                .registerPattern("templates/*/*.html")
+                .registerPattern("application.conf")
+                .registerPattern("META-INF/resources/webjars/swagger-ui/*")
+                .registerPattern("META-INF/resources/webjars/swagger-ui/*/*")
+                .registerPattern("META-INF/maven/org.webjars/swagger-ui/pom.properties");
+
+        // dostawca JCache podany nazwą klasy w application.yml (hibernate.javax.cache.provider)
+        hints.reflection().registerType(
+                TypeReference.of("com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider"),
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        // kolejność interfejsów jak w JdkJdbcProxyFactory (datasource-proxy)
+        for (Class<?> jdbcType : JDBC_PROXIES) {
+            hints.proxies().registerJdkProxy(ProxyJdbcObject.class, jdbcType);
+        }
+    }
+}
@@ -6,11 +6,12 @@ import org.springframework.web.bind.annotation.*;
 import pl.s32832.library.dto.request.CreateAuthorRequest;
 import pl.s32832.library.dto.request.UpdateAuthorRequest;
 import pl.s32832.library.dto.response.AuthorResponse;
+import pl.s32832.library.dto.response.CursorPage;
 import pl.s32832.library.exception.NotFoundException;
+import pl.s32832.library.exception.ValidationException;
 import pl.s32832.library.mapper.AuthorMapper;
 import pl.s32832.library.service.AuthorService;
-
-import java.util.List;
+import pl.s32832.library.util.CursorCodec;
 
 /**
  * REST Controller dla encji Author.
@@ -46,13 +47,14 @@ public class AuthorController {
     }
 
     /**
-     * Pobranie listy wszystkich autorów.
+     * Pobranie strony autorów (paginacja kursorowa, ?after=<nextCursor>&limit=).
      */
     @GetMapping
-    public List<AuthorResponse> getAll() {
-        return authorService.getAll().stream()
-                .map(AuthorMapper::toResponse)
-                .toList();
+    public CursorPage<AuthorResponse> getPage(@RequestParam(required = false) String after,
+                                              @RequestParam(defaultValue = "" + CursorPage.DEFAULT_LIMIT) int limit)
+            throws ValidationException {
+        return authorService.getPage(CursorCodec.decode(after), limit)
+                .map(AuthorMapper::toResponse);
     }
 
     /**
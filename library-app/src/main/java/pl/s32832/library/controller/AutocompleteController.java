@@ -0,0 +1,40 @@
+package pl.s32832.library.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import pl.s32832.library.dto.response.Completion;
+import pl.s32832.library.exception.ValidationException;
+import pl.s32832.library.search.AutocompleteIndex;
+import pl.s32832.library.search.AutocompleteService;
+
+import java.util.List;
+
+/**
+ * REST Controller podpowiedzi (autocomplete) z indeksu w pamięci.
+ */
+@RestController
+@RequestMapping("/api/autocomplete")
+@ConditionalOnProperty(prefix = "library.search.autocomplete", name = "enabled", havingValue = "true")
+public class AutocompleteController {
+
+    private final AutocompleteService autocompleteService;
+
+    public AutocompleteController(AutocompleteService autocompleteService) {
+        this.autocompleteService = autocompleteService;
+    }
+
+    /**
+     * Najczęściej wypożyczane tytuły / ISBN / autorzy zaczynający się od prefix.
+     * Endpoint: GET /api/autocomplete?prefix=hob&type=title&limit=10 (type opcjonalny, limit max 10)
+     */
+    @GetMapping
+    public List<Completion> complete(@RequestParam String prefix,
+                                     @RequestParam(required = false) String type,
+                                     @RequestParam(defaultValue = "" + AutocompleteIndex.MAX_LIMIT) int limit)
+            throws ValidationException {
+        return autocompleteService.complete(prefix, type, limit);
+    }
+}
@@ -5,12 +5,18 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import pl.s32832.library.dto.request.CreateBookRequest;
 import pl.s32832.library.dto.request.UpdateBookRequest;
+import pl.s32832.library.dto.response.BookLookupResponse;
 import pl.s32832.library.dto.response.BookResponse;
+import pl.s32832.library.dto.response.BookSearchResponse;
+import pl.s32832.library.dto.response.CursorPage;
 import pl.s32832.library.exception.BusinessRuleException;
 import pl.s32832.library.exception.NotFoundException;
 import pl.s32832.library.exception.ValidationException;
 import pl.s32832.library.mapper.BookMapper;
+import pl.s32832.library.service.BookSearchService;
 import pl.s32832.library.service.BookService;
+import pl.s32832.library.util.CursorCodec;
+import pl.s32832.library.util.Lookups;
 
 import java.util.List;
 
@@ -23,9 +29,11 @@ import java.util.List;
 public class BookController {
 
     private final BookService bookService;
+    private final BookSearchService bookSearchService;
 
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService, BookSearchService bookSearchService) {
         this.bookService = bookService;
+        this.bookSearchService = bookSearchService;
     }
 
     /**
@@ -49,13 +57,37 @@ public class BookController {
     }
 
     /**
-     * Pobranie listy wszystkich książek.
+     * Pobranie strony książek (paginacja kursorowa).
+     * Kolejną stronę pobiera się przez ?after=<nextCursor z poprzedniej odpowiedzi>.
+     * Niepoprawny kursor -> ValidationException (400).
      */
     @GetMapping
-    public List<BookResponse> getAll() {
-        return bookService.getAll().stream()
-                .map(BookMapper::toResponse)
-                .toList();
+    public CursorPage<BookResponse> getPage(@RequestParam(required = false) String after,
+                                            @RequestParam(defaultValue = "" + CursorPage.DEFAULT_LIMIT) int limit)
+            throws ValidationException {
+        return bookService.getResponsePage(CursorCodec.decode(after), limit);
+    }
+
+    /**
+     * Podpowiedzi książek po prefiksie tytułu lub ISBN (formularz wypożyczenia).
+     * Endpoint: GET /api/books/lookup?q=wiedz&limit=10
+     */
+    @GetMapping("/lookup")
+    public List<BookLookupResponse> lookup(@RequestParam String q,
+                                           @RequestParam(defaultValue = "" + Lookups.DEFAULT_LIMIT) int limit) {
+        return bookService.lookup(q, limit);
+    }
+
+    /**
+     * Wyszukiwanie pełnotekstowe po tytule, ISBN i autorach, wyniki od najtrafniejszych.
+     * Endpoint: GET /api/books/search?q=pan tadeusz&page=0&size=20
+     */
+    @GetMapping("/search")
+    public BookSearchResponse search(@RequestParam String q,
+                                     @RequestParam(defaultValue = "0") int page,
+                                     @RequestParam(defaultValue = "" + BookSearchService.DEFAULT_SIZE) int size)
+            throws ValidationException {
+        return bookSearchService.search(q, page, size);
     }
 
     /**
@@ -0,0 +1,47 @@
+package pl.s32832.library.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import pl.s32832.library.dto.response.CatalogHit;
+import pl.s32832.library.dto.response.CatalogIndexStatus;
+import pl.s32832.library.search.CatalogSearchService;
+
+import java.util.List;
+
+/**
+ * REST Controller wyszukiwania w indeksie katalogu w pamięci.
+ * Dostępny tylko przy library.search.in-memory.enabled=true.
+ */
+@RestController
+@RequestMapping("/api/catalog")
+@ConditionalOnProperty(prefix = "library.search.in-memory", name = "enabled", havingValue = "true")
+public class CatalogSearchController {
+
+    private final CatalogSearchService catalogSearchService;
+
+    public CatalogSearchController(CatalogSearchService catalogSearchService) {
+        this.catalogSearchService = catalogSearchService;
+    }
+
+    /**
+     * Wyszukiwanie po tytule, ISBN i nazwiskach autorów (słowa jako prefiksy, wszystkie muszą pasować).
+     * Endpoint: GET /api/catalog/search?q=tolk+hobbit&limit=20
+     */
+    @GetMapping("/search")
+    public List<CatalogHit> search(@RequestParam String q,
+                                   @RequestParam(defaultValue = "" + CatalogSearchService.DEFAULT_LIMIT) int limit) {
+        return catalogSearchService.search(q, limit);
+    }
+
+    /**
+     * Stan indeksu (czy zbudowany, czas budowy, liczba książek / termów).
+     * Endpoint: GET /api/catalog/index
+     */
+    @GetMapping("/index")
+    public CatalogIndexStatus index() {
+        return catalogSearchService.status();
+    }
+}
@@ -0,0 +1,60 @@
+package pl.s32832.library.controller;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import pl.s32832.library.service.ExportService;
+
+import java.time.LocalDate;
+
+/**
+ * REST Controller eksportu danych do systemu raportowego.
+ *
+ * Odpowiedzi w formacie NDJSON (application/x-ndjson) są zapisywane strumieniowo
+ * (StreamingResponseBody), wiersz po wierszu w trakcie czytania z bazy —
+ * klient dostaje pierwsze dane od razu, a serwer nie trzyma całej tabeli w pamięci.
+ */
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    /**
+     * Eksport całego katalogu: jedna książka (BookResponse) na linię.
+     * Endpoint: GET /api/export/books
+     */
+    @GetMapping(value = "/books", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> books() {
+        return ndjson(exportService::exportBooks);
+    }
+
+    /**
+     * Eksport wypożyczeń: jedno wypożyczenie (LoanResponse) na linię.
+     * Endpoint: GET /api/export/loans?since=2025-01-01 (since opcjonalne, filtr loanDate >= since)
+     */
+    @GetMapping(value = "/loans", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> loans(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate since) {
+        return ndjson(out -> exportService.exportLoans(since, out));
+    }
+
+    /**
+     * Ciało odpowiedzi wykonuje się już po wyjściu z kontrolera (wątek async MVC),
+     * dlatego transakcja jest otwierana dopiero w metodzie ExportService.
+     */
+    private static ResponseEntity<StreamingResponseBody> ndjson(StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+}
@@ -3,15 +3,19 @@ package pl.s32832.library.controller;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import pl.s32832.library.dto.request.BatchLoanRequest;
+import pl.s32832.library.dto.request.BatchReturnRequest;
 import pl.s32832.library.dto.request.CreateLoanRequest;
+import pl.s32832.library.dto.response.BatchLoanResponse;
+import pl.s32832.library.dto.response.BatchReturnResponse;
+import pl.s32832.library.dto.response.CursorPage;
 import pl.s32832.library.dto.response.LoanResponse;
 import pl.s32832.library.exception.BusinessRuleException;
 import pl.s32832.library.exception.NotFoundException;
 import pl.s32832.library.exception.ValidationException;
 import pl.s32832.library.mapper.LoanMapper;
 import pl.s32832.library.service.LoanService;
-
-import java.util.List;
+import pl.s32832.library.util.CursorCodec;
 
 /**
  * REST Controller dla encji wypożyczenia.
@@ -43,22 +47,37 @@ public class LoanController {
         return LoanMapper.toResponse(loanService.create(req));
     }
 
+    /**
+     * Wypożyczenie wielu książek naraz (np. obsługa w okienku: 5–15 książek na czytelnika).
+     * Przykład: POST /api/loans/batch z JSON { "userId": 1, "bookIds": [2, 5, 7] }
+     *
+     * Odpowiedź zawiera wynik dla każdej pozycji (sukces + loanId albo opis błędu).
+     * Może rzucić:
+     * - NotFoundException (brak użytkownika)
+     * - ValidationException (dane użytkownika niepoprawne)
+     */
+    @PostMapping("/batch")
+    public BatchLoanResponse createBatch(@Valid @RequestBody BatchLoanRequest req)
+            throws NotFoundException, ValidationException {
+        return loanService.createBatch(req);
+    }
+
     /**
      * Pobranie wypożyczenia po ID.
      */
     @GetMapping("/{id}")
     public LoanResponse get(@PathVariable Long id) throws NotFoundException {
-        return LoanMapper.toResponse(loanService.getById(id));
+        return loanService.getResponseById(id);
     }
 
     /**
-     * Pobranie listy wszystkich wypożyczeń.
+     * Pobranie strony wypożyczeń (paginacja kursorowa, ?after=<nextCursor>&limit=).
      */
     @GetMapping
-    public List<LoanResponse> getAll() {
-        return loanService.getAll().stream()
-                .map(LoanMapper::toResponse)
-                .toList();
+    public CursorPage<LoanResponse> getPage(@RequestParam(required = false) String after,
+                                            @RequestParam(defaultValue = "" + CursorPage.DEFAULT_LIMIT) int limit)
+            throws ValidationException {
+        return loanService.getResponsePage(CursorCodec.decode(after), limit);
     }
 
     /**
@@ -74,6 +93,18 @@ public class LoanController {
         return LoanMapper.toResponse(loanService.returnLoan(id));
     }
 
+    /**
+     * Zwrot wielu wypożyczeń naraz (np. poranne opróżnianie wrzutni).
+     * Przykład: POST /api/loans/batch/return z JSON { "loanIds": [1, 2], "isbns": ["978-83-..."] }
+     *
+     * Odpowiedź wskazuje, które wypożyczenia oddano, które były już oddane
+     * i których ID/ISBN nie udało się dopasować.
+     */
+    @PostMapping("/batch/return")
+    public BatchReturnResponse returnBatch(@Valid @RequestBody BatchReturnRequest req) throws ValidationException {
+        return loanService.returnBatch(req);
+    }
+
     /**
      * Usunięcie wypożyczenia.
      * Jeśli wypożyczenie nie było zwrócone, serwis przywraca dostępność książki.
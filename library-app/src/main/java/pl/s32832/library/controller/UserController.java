@@ -5,11 +5,14 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import pl.s32832.library.dto.request.CreateUserRequest;
 import pl.s32832.library.dto.request.UpdateUserRequest;
+import pl.s32832.library.dto.response.CursorPage;
 import pl.s32832.library.dto.response.UserResponse;
 import pl.s32832.library.exception.NotFoundException;
 import pl.s32832.library.exception.ValidationException;
 import pl.s32832.library.mapper.UserMapper;
 import pl.s32832.library.service.UserService;
+import pl.s32832.library.util.CursorCodec;
+import pl.s32832.library.util.Lookups;
 
 import java.util.List;
 
@@ -48,17 +51,27 @@ public class UserController {
      */
     @GetMapping("/{id}")
     public UserResponse get(@PathVariable Long id) throws NotFoundException {
-        return UserMapper.toResponse(userService.getById(id));
+        return userService.getResponseById(id);
     }
 
     /**
-     * Pobranie listy wszystkich użytkowników.
+     * Pobranie strony użytkowników (paginacja kursorowa, ?after=<nextCursor>&limit=).
      */
     @GetMapping
-    public List<UserResponse> getAll() {
-        return userService.getAll().stream()
-                .map(UserMapper::toResponse)
-                .toList();
+    public CursorPage<UserResponse> getPage(@RequestParam(required = false) String after,
+                                            @RequestParam(defaultValue = "" + CursorPage.DEFAULT_LIMIT) int limit)
+            throws ValidationException {
+        return userService.getResponsePage(CursorCodec.decode(after), limit);
+    }
+
+    /**
+     * Podpowiedzi użytkowników po prefiksie imienia i nazwiska lub emaila.
+     * Endpoint: GET /api/users/lookup?q=kow&limit=10
+     */
+    @GetMapping("/lookup")
+    public List<UserResponse> lookup(@RequestParam String q,
+                                     @RequestParam(defaultValue = "" + Lookups.DEFAULT_LIMIT) int limit) {
+        return userService.lookup(q, limit);
     }
 
     /**
@@ -10,14 +10,19 @@ import pl.s32832.library.dto.request.CreateBookRequest;
 import pl.s32832.library.dto.request.CreateLoanRequest;
 import pl.s32832.library.dto.request.CreateProfileRequest;
 import pl.s32832.library.dto.request.CreateUserRequest;
+import pl.s32832.library.dto.response.BookLookupResponse;
+import pl.s32832.library.dto.response.CursorPage;
+import pl.s32832.library.entity.Book;
 import pl.s32832.library.exception.BusinessRuleException;
 import pl.s32832.library.exception.NotFoundException;
 import pl.s32832.library.exception.ValidationException;
+import pl.s32832.library.mapper.UserMapper;
 import pl.s32832.library.service.AuthorService;
 import pl.s32832.library.service.BookService;
 import pl.s32832.library.service.LoanService;
 import pl.s32832.library.service.ProfileService;
 import pl.s32832.library.service.UserService;
+import pl.s32832.library.util.CursorCodec;
 
 /**
  * Kontroler dla GUI (Thymeleaf).
@@ -58,10 +63,11 @@ public class WebController {
     // BOOKS
     /**
      * Lista książek: templates/books/list.html
+     * Strony po CursorPage.DEFAULT_LIMIT pozycji, kolejna przez ?after=<kursor>.
      */
     @GetMapping("/books")
-    public String books(Model model) {
-        model.addAttribute("books", bookService.getAll());
+    public String books(@RequestParam(required = false) String after, Model model) throws ValidationException {
+        addPage(model, "books", bookService.getPage(CursorCodec.decode(after), CursorPage.DEFAULT_LIMIT));
         return "books/list";
     }
 
@@ -144,8 +150,8 @@ public class WebController {
      * Lista autorów: templates/authors/list.html
      */
     @GetMapping("/authors")
-    public String authors(Model model) {
-        model.addAttribute("authors", authorService.getAll());
+    public String authors(@RequestParam(required = false) String after, Model model) throws ValidationException {
+        addPage(model, "authors", authorService.getPage(CursorCodec.decode(after), CursorPage.DEFAULT_LIMIT));
         return "authors/list";
     }
 
@@ -177,22 +183,22 @@ public class WebController {
     // LOANS
     /**
      * Lista wypożyczeń: templates/loans/list.html
+     * Wiersze to projekcja LoanListItem (jedno zapytanie na stronę, bez N+1 na user/book).
      */
     @GetMapping("/loans")
-    public String loans(Model model) {
-        model.addAttribute("loans", loanService.getAll());
+    public String loans(@RequestParam(required = false) String after, Model model) throws ValidationException {
+        addPage(model, "loans", loanService.getListPage(CursorCodec.decode(after), CursorPage.DEFAULT_LIMIT));
         return "loans/list";
     }
 
     /**
      * Formularz nowego wypożyczenia: templates/loans/new.html
-     * Musimy przekazać listę userów i książek do selectów.
+     * Użytkownika i książkę wybiera się z podpowiedzi (GET /api/users/lookup, /api/books/lookup)
+     * — strona nie zawiera całych tabel, więc czas renderowania nie rośnie z ich rozmiarem.
      */
     @GetMapping("/loans/new")
     public String newLoan(Model model) {
         model.addAttribute("loan", new CreateLoanRequest());
-        model.addAttribute("users", userService.getAll());
-        model.addAttribute("books", bookService.getAll());
         return "loans/new";
     }
 
@@ -209,8 +215,7 @@ public class WebController {
                              Model model) {
 
         if (bindingResult.hasErrors()) {
-            model.addAttribute("users", userService.getAll());
-            model.addAttribute("books", bookService.getAll());
+            addLoanSelection(model, loan);
             return "loans/new";
         }
 
@@ -219,8 +224,7 @@ public class WebController {
             return "redirect:/web/loans";
         } catch (BusinessRuleException | ValidationException | NotFoundException ex) {
             model.addAttribute("errorMessage", ex.getMessage());
-            model.addAttribute("users", userService.getAll());
-            model.addAttribute("books", bookService.getAll());
+            addLoanSelection(model, loan);
             return "loans/new";
         }
     }
@@ -235,7 +239,7 @@ public class WebController {
             return "redirect:/web/loans";
         } catch (Exception ex) {
             model.addAttribute("errorMessage", ex.getMessage());
-            model.addAttribute("loans", loanService.getAll());
+            addPage(model, "loans", loanService.getListPage(null, CursorPage.DEFAULT_LIMIT));
             return "loans/list";
         }
     }
@@ -251,7 +255,7 @@ public class WebController {
             return "redirect:/web/loans";
         } catch (Exception ex) {
             model.addAttribute("errorMessage", ex.getMessage());
-            model.addAttribute("loans", loanService.getAll());
+            addPage(model, "loans", loanService.getListPage(null, CursorPage.DEFAULT_LIMIT));
             return "loans/list";
         }
     }
@@ -262,8 +266,8 @@ public class WebController {
      * Lista użytkowników: templates/users/list.html
      */
     @GetMapping("/users")
-    public String users(Model model) {
-        model.addAttribute("users", userService.getAll());
+    public String users(@RequestParam(required = false) String after, Model model) throws ValidationException {
+        addPage(model, "users", userService.getPage(CursorCodec.decode(after), CursorPage.DEFAULT_LIMIT));
         return "users/list";
     }
 
@@ -361,4 +365,36 @@ public class WebController {
         profileService.delete(profileId);
         return "redirect:/web/users/" + userId;
     }
+
+    /**
+     * Po błędzie formularza wypożyczenia pokazujemy z powrotem wybranego użytkownika i książkę
+     * (dwa odczyty po ID zamiast list wszystkich rekordów). Nieistniejące ID po prostu pomijamy.
+     */
+    private void addLoanSelection(Model model, CreateLoanRequest loan) {
+        if (loan.getUserId() != null) {
+            try {
+                model.addAttribute("selectedUser", UserMapper.toResponse(userService.getById(loan.getUserId())));
+            } catch (NotFoundException ignored) {
+                // błąd i tak jest już w errorMessage
+            }
+        }
+        if (loan.getBookId() != null) {
+            try {
+                Book book = bookService.getById(loan.getBookId());
+                model.addAttribute("selectedBook",
+                        new BookLookupResponse(book.getId(), book.getTitle(), book.getIsbn(), book.getAvailableCopies()));
+            } catch (NotFoundException ignored) {
+                // błąd i tak jest już w errorMessage
+            }
+        }
+    }
+
+    /**
+     * Wrzuca do modelu elementy strony (pod podaną nazwą) i kursor następnej strony
+     * (nextCursor == null -> link "Następna strona" się nie wyświetla).
+     */
+    private static void addPage(Model model, String name, CursorPage<?> page) {
+        model.addAttribute(name, page.items());
+        model.addAttribute("nextCursor", page.nextCursor());
+    }
 }
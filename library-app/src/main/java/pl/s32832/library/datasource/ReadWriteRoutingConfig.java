@@ -0,0 +1,76 @@
+package pl.s32832.library.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Dwie pule połączeń: "primary" (spring.datasource.*) i "replica" (library.datasource.replica.*),
+ * a nad nimi główny DataSource aplikacji kierujący transakcje readOnly do repliki
+ * (ReadWriteRoutingDataSource). Hibernate, Flyway i reszta aplikacji używają tego głównego beana.
+ *
+ * Metryki pul (hikaricp.connections.*{pool=primary|replica}) dodaje Spring Boot,
+ * metryki zapytań (datasource-proxy, MetricsConfig) są zbierane osobno dla każdej puli.
+ *
+ * Włączenie: library.datasource.replica.enabled=true (profil "replica").
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "library.datasource.replica", name = "enabled", havingValue = "true")
+public class ReadWriteRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("library.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(ReplicaProperties replica) {
+        if (replica.url() == null || replica.url().isBlank()) {
+            throw new IllegalStateException("library.datasource.replica.url is required when the replica is enabled");
+        }
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(replica.url())
+                .username(replica.username())
+                .password(replica.password())
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 MeterRegistry registry) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, registry));
+    }
+
+    /** Filtr okna read-your-writes; wyłączony, gdy library.datasource.replica.read-your-writes = 0. */
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReplicaProperties replica) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(replica.readYourWrites()));
+        // przed filtrami, które mogą już czytać z bazy
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+        registration.setEnabled(!replica.readYourWrites().isZero());
+        return registration;
+    }
+}
@@ -0,0 +1,66 @@
+package pl.s32832.library.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * DataSource kierujący połączenia do bazy głównej albo do repliki.
+ *
+ * - transakcja readOnly (@Transactional(readOnly = true)) -> replika,
+ * - transakcja zapisu i praca bez transakcji (Flyway, start aplikacji) -> baza główna,
+ * - transakcja readOnly klienta w oknie read-your-writes (ReadYourWrites.pinned()) -> baza główna.
+ *
+ * Decyzja zapada przy pobraniu połączenia, dlatego w ReadWriteRoutingConfig ten DataSource
+ * jest opakowany w LazyConnectionDataSourceProxy: połączenie jest pobierane dopiero przy pierwszym
+ * zapytaniu, gdy flaga readOnly transakcji jest już ustawiona.
+ *
+ * Metryka library.datasource.route{pool, reason} liczy pobrane połączenia
+ * (reason: read-only, read-your-writes, write).
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route { PRIMARY, REPLICA }
+
+    private final Counter readOnly;
+    private final Counter pinned;
+    private final Counter write;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, MeterRegistry registry) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.readOnly = counter(registry, "replica", "read-only");
+        this.pinned = counter(registry, "primary", "read-your-writes");
+        this.write = counter(registry, "primary", "write");
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (ReadYourWrites.pinned()) {
+                pinned.increment();
+                return Route.PRIMARY;
+            }
+            readOnly.increment();
+            return Route.REPLICA;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            ReadYourWrites.recordWrite();
+        }
+        write.increment();
+        return Route.PRIMARY;
+    }
+
+    private static Counter counter(MeterRegistry registry, String pool, String reason) {
+        return Counter.builder("library.datasource.route")
+                .description("Connections obtained through the read/write routing DataSource")
+                .tag("pool", pool)
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
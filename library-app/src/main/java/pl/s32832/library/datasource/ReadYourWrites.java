@@ -0,0 +1,52 @@
+package pl.s32832.library.datasource;
+
+/**
+ * Stan "read-your-writes" bieżącego żądania HTTP (ReadYourWritesFilter).
+ *
+ * - pinned: klient niedawno zapisywał — jego odczyty idą do bazy głównej, bo replika
+ *   mogłaby jeszcze nie mieć tych zmian,
+ * - onWrite: wywoływane przy pierwszej transakcji zapisu w żądaniu (filtr ustawia wtedy
+ *   ciasteczko z końcem okna, zanim odpowiedź zostanie wysłana).
+ *
+ * Poza begin() / end() (zadania w tle, start aplikacji) klient nie jest znany: nic nie jest przypięte.
+ */
+final class ReadYourWrites {
+
+    private static final ThreadLocal<State> CURRENT = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    static void begin(boolean pinned, Runnable onWrite) {
+        CURRENT.set(new State(pinned, onWrite));
+    }
+
+    static boolean pinned() {
+        State state = CURRENT.get();
+        return state != null && state.pinned;
+    }
+
+    static void recordWrite() {
+        State state = CURRENT.get();
+        if (state != null && !state.written) {
+            state.written = true;
+            state.onWrite.run();
+        }
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    private static final class State {
+
+        final boolean pinned;
+        final Runnable onWrite;
+        boolean written;
+
+        State(boolean pinned, Runnable onWrite) {
+            this.pinned = pinned;
+            this.onWrite = onWrite;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package pl.s32832.library.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Replika bazy do odczytu (ReadWriteRoutingConfig).
+ *
+ * application.yml / application-replica.yml:
+ * library.datasource.replica.enabled         -> kierowanie transakcji readOnly do repliki
+ * library.datasource.replica.url             -> JDBC URL repliki (baza główna: spring.datasource.*)
+ * library.datasource.replica.username / password
+ * library.datasource.replica.hikari.*        -> ustawienia puli repliki (jak spring.datasource.hikari.*)
+ * library.datasource.replica.read-your-writes -> okno po zapisie klienta, w którym jego odczyty
+ *                                                idą do bazy głównej (0 = wyłączone)
+ */
+@ConfigurationProperties(prefix = "library.datasource.replica")
+public record ReplicaProperties(
+        @DefaultValue("false") boolean enabled,
+        String url,
+        String username,
+        String password,
+        @DefaultValue("0s") Duration readYourWrites
+) {}
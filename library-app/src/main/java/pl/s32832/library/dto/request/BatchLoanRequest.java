@@ -0,0 +1,46 @@
+package pl.s32832.library.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * DTO do wypożyczenia wielu książek naraz przez jednego użytkownika.
+ * Używane w:
+ * - REST: POST /api/loans/batch
+ *
+ * Przykład: { "userId": 1, "bookIds": [2, 5, 7] }
+ */
+public class BatchLoanRequest {
+
+    /**
+     * ID użytkownika, który wypożycza książki.
+     */
+    @NotNull
+    private Long userId;
+
+    /**
+     * ID książek do wypożyczenia (kolejność = kolejność pozycji w odpowiedzi).
+     */
+    @NotEmpty
+    @Size(max = 100)
+    private List<@NotNull Long> bookIds;
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public List<Long> getBookIds() {
+        return bookIds;
+    }
+
+    public void setBookIds(List<Long> bookIds) {
+        this.bookIds = bookIds;
+    }
+}
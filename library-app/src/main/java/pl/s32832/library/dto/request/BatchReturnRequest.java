@@ -0,0 +1,42 @@
+package pl.s32832.library.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO do zwrotu wielu wypożyczeń naraz (np. poranne opróżnianie wrzutni).
+ * Używane w:
+ * - REST: POST /api/loans/batch/return
+ *
+ * Można podać ID wypożyczeń, ISBN-y zwróconych egzemplarzy albo oba naraz.
+ * Dla ISBN zwracane jest najstarsze aktywne wypożyczenie tej książki
+ * (ten sam ISBN podany dwa razy = dwa egzemplarze).
+ */
+public class BatchReturnRequest {
+
+    @Size(max = 10000)
+    private List<@NotNull Long> loanIds = new ArrayList<>();
+
+    @Size(max = 10000)
+    private List<@NotBlank String> isbns = new ArrayList<>();
+
+    public List<Long> getLoanIds() {
+        return loanIds;
+    }
+
+    public void setLoanIds(List<Long> loanIds) {
+        this.loanIds = loanIds;
+    }
+
+    public List<String> getIsbns() {
+        return isbns;
+    }
+
+    public void setIsbns(List<String> isbns) {
+        this.isbns = isbns;
+    }
+}
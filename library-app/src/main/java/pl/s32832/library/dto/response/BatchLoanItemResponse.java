@@ -0,0 +1,14 @@
+package pl.s32832.library.dto.response;
+
+/**
+ * Wynik jednej pozycji wypożyczenia wsadowego.
+ *
+ * success = true  -> loanId wskazuje utworzone wypożyczenie, error = null
+ * success = false -> loanId = null, error opisuje powód (brak książki / brak egzemplarzy)
+ */
+public record BatchLoanItemResponse(
+        Long bookId,
+        boolean success,
+        Long loanId,
+        String error
+) {}
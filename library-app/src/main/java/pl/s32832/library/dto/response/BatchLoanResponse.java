@@ -0,0 +1,12 @@
+package pl.s32832.library.dto.response;
+
+import java.util.List;
+
+/**
+ * Wynik wypożyczenia wielu książek naraz.
+ * Każda pozycja z requestu ma swój wpis w items (sukces albo powód odmowy).
+ */
+public record BatchLoanResponse(
+        Long userId,
+        List<BatchLoanItemResponse> items
+) {}
@@ -0,0 +1,18 @@
+package pl.s32832.library.dto.response;
+
+import java.util.List;
+
+/**
+ * Wynik zwrotu wsadowego.
+ *
+ * returnedLoanIds        -> wypożyczenia oddane w tym żądaniu
+ * alreadyReturnedLoanIds -> wypożyczenia, które były już wcześniej oddane
+ * notFoundLoanIds        -> ID, których nie ma w bazie
+ * unmatchedIsbns         -> ISBN-y bez aktywnego wypożyczenia
+ */
+public record BatchReturnResponse(
+        List<Long> returnedLoanIds,
+        List<Long> alreadyReturnedLoanIds,
+        List<Long> notFoundLoanIds,
+        List<String> unmatchedIsbns
+) {}
@@ -0,0 +1,11 @@
+package pl.s32832.library.dto.response;
+
+/**
+ * Podpowiedź książki (GET /api/books/lookup) — tylko pola potrzebne w formularzu wypożyczenia.
+ */
+public record BookLookupResponse(
+        Long id,
+        String title,
+        String isbn,
+        int availableCopies
+) {}
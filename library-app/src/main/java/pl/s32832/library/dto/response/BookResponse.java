@@ -1,5 +1,7 @@
 package pl.s32832.library.dto.response;
 
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 public record BookResponse(
@@ -9,4 +11,28 @@ public record BookResponse(
         int totalCopies,
         int availableCopies,
         Set<Long> authorIds
-) {}
+) {
+
+    /**
+     * Konstruktor dla projekcji HQL (BookRepository.findResponse*): ID autorów sklejone w bazie
+     * przez listagg, rosnąco, rozdzielone przecinkami; null -> książka bez autorów.
+     */
+    public BookResponse(Long id, String title, String isbn, int totalCopies, int availableCopies, String authorIds) {
+        this(id, title, isbn, totalCopies, availableCopies, parseIds(authorIds));
+    }
+
+    private static Set<Long> parseIds(String csv) {
+        if (csv == null || csv.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        int from = 0;
+        while (from < csv.length()) {
+            int comma = csv.indexOf(',', from);
+            int to = comma < 0 ? csv.length() : comma;
+            ids.add(Long.parseLong(csv, from, to, 10));
+            from = to + 1;
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,13 @@
+package pl.s32832.library.dto.response;
+
+/**
+ * Pojedynczy wynik wyszukiwania książek; rank = trafność (ts_rank_cd), im wyższa, tym lepiej.
+ */
+public record BookSearchHit(
+        Long id,
+        String title,
+        String isbn,
+        int totalCopies,
+        int availableCopies,
+        double rank
+) {}
@@ -0,0 +1,21 @@
+package pl.s32832.library.dto.response;
+
+import java.util.List;
+
+/**
+ * Strona wyników wyszukiwania (GET /api/books/search).
+ *
+ * Wyniki są posortowane po trafności, więc stronicowanie jest numerem strony (page, size),
+ * a nie kursorem po ID. hasNext = czy istnieje kolejna strona.
+ *
+ * truncated = zapytanie pasuje do więcej niż BookRepository.SEARCH_CANDIDATES książek: trafność
+ * policzono tylko dla części z nich, więc najlepsze trafienie mogło zostać pominięte —
+ * warto doprecyzować zapytanie.
+ */
+public record BookSearchResponse(
+        List<BookSearchHit> items,
+        int page,
+        int size,
+        boolean hasNext,
+        boolean truncated
+) {}
@@ -0,0 +1,14 @@
+package pl.s32832.library.dto.response;
+
+import java.util.List;
+
+/**
+ * Wynik wyszukiwania w indeksie katalogu w pamięci; score = 2 za słowo w tytule/ISBN, 1 za słowo w nazwisku autora.
+ */
+public record CatalogHit(
+        Long id,
+        String title,
+        String isbn,
+        List<String> authors,
+        int score
+) {}
@@ -0,0 +1,13 @@
+package pl.s32832.library.dto.response;
+
+/**
+ * Stan indeksu katalogu w pamięci: czy zbudowany, czas ostatniej budowy i rozmiar.
+ */
+public record CatalogIndexStatus(
+        boolean ready,
+        long buildMillis,
+        int books,
+        int authors,
+        int terms,
+        long postings
+) {}
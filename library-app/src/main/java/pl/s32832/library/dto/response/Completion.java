@@ -0,0 +1,12 @@
+package pl.s32832.library.dto.response;
+
+/**
+ * Jedna podpowiedź autocomplete: type = title / isbn / author, id = ID książki albo autora,
+ * loans = liczba wypożyczeń (ranking).
+ */
+public record Completion(
+        String type,
+        Long id,
+        String text,
+        long loans
+) {}
@@ -0,0 +1,52 @@
+package pl.s32832.library.dto.response;
+
+import pl.s32832.library.util.CursorCodec;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Strona wyników paginacji kursorowej (keyset).
+ *
+ * items      -> elementy strony (posortowane rosnąco po ID)
+ * nextCursor -> nieprzezroczysty kursor do pobrania kolejnej strony (?after=...),
+ *               null gdy to ostatnia strona
+ */
+public record CursorPage<T>(
+        List<T> items,
+        String nextCursor
+) {
+
+    /** Domyślny rozmiar strony, gdy klient nie poda ?limit=. */
+    public static final int DEFAULT_LIMIT = 50;
+
+    /** Maksymalny rozmiar strony (ochrona przed pobieraniem całej tabeli). */
+    public static final int MAX_LIMIT = 500;
+
+    /**
+     * Przycina rozmiar strony do zakresu [1, MAX_LIMIT].
+     */
+    public static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    /**
+     * Buduje stronę z wyniku zapytania pobierającego limit + 1 wierszy.
+     * Dodatkowy wiersz oznacza, że istnieje kolejna strona — nie jest zwracany,
+     * a kursor wskazuje ostatni element bieżącej strony.
+     */
+    public static <T> CursorPage<T> of(List<T> fetched, int limit, Function<T, Long> idOf) {
+        if (fetched.size() <= limit) {
+            return new CursorPage<>(fetched, null);
+        }
+        List<T> items = fetched.subList(0, limit);
+        return new CursorPage<>(items, CursorCodec.encode(idOf.apply(items.get(limit - 1))));
+    }
+
+    /**
+     * Zamienia elementy strony (np. encje -> DTO), zachowując kursor.
+     */
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(items.stream().map(mapper).toList(), nextCursor);
+    }
+}
@@ -0,0 +1,20 @@
+package pl.s32832.library.dto.response;
+
+import java.time.LocalDate;
+
+/**
+ * Wiersz listy wypożyczeń w GUI (templates/loans/list.html).
+ *
+ * Zawiera tylko kolumny wyświetlane w tabeli — jest budowany bezpośrednio
+ * w zapytaniu JPQL (select new ...), bez ładowania encji Loan/User/Book.
+ */
+public record LoanListItem(
+        Long id,
+        String userFullName,
+        String userEmail,
+        String bookTitle,
+        String bookIsbn,
+        LocalDate loanDate,
+        LocalDate dueDate,
+        LocalDate returnDate
+) {}
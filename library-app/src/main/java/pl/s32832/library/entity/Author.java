@@ -1,6 +1,9 @@
 package pl.s32832.library.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import pl.s32832.library.cache.CacheRegions;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -11,14 +14,19 @@ import java.util.Set;
  * Tabela: authors
  * Relacja:
  * - MANY-TO-MANY z Book
+ *
+ * Autorzy prawie się nie zmieniają, więc są trzymani w cache 2. poziomu.
  */
 @Entity
 @Table(name = "authors")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.AUTHORS)
 public class Author {
 
     /** Klucz główny autora. */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "authors_seq")
+    @SequenceGenerator(name = "authors_seq", sequenceName = "authors_seq", allocationSize = IdGeneration.ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
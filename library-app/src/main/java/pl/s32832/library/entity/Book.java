@@ -1,6 +1,10 @@
 package pl.s32832.library.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import pl.s32832.library.cache.CacheRegions;
 
 import java.util.*;
 
@@ -11,14 +15,21 @@ import java.util.*;
  * Relacje:
  * - MANY-TO-MANY z Author (przez tabelę pośrednią book_authors)
  * - ONE-TO-MANY z Loan
+ *
+ * Encja i lista autorów są w cache 2. poziomu (READ_WRITE) — odczyt książki po ID
+ * nie musi iść do bazy. Warunkowe UPDATE licznika egzemplarzy (wypożyczenia/zwroty)
+ * to zapytania masowe, po których Hibernate sam unieważnia region książek.
  */
 @Entity
 @Table(name = "books")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.BOOKS)
 public class Book {
 
     /** Klucz główny książki. */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_seq")
+    @SequenceGenerator(name = "books_seq", sequenceName = "books_seq", allocationSize = IdGeneration.ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
@@ -37,12 +48,25 @@ public class Book {
     @Column(nullable = false)
     private int availableCopies;
 
+    /**
+     * Wersja wiersza do optymistycznego blokowania.
+     *
+     * Hibernate dokleja "where version = ?" do każdego UPDATE encji, więc dwie równoległe
+     * edycje tej samej książki nie nadpiszą się po cichu (druga dostanie konflikt).
+     * Warunkowe UPDATE z BookRepository też podbijają wersję.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     /**
      * Autorzy przypisani do książki.
      *
      * Relacja MANY-TO-MANY realizowana tabelą pośrednią "book_authors".
      */
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.BOOK_AUTHORS)
     @JoinTable(
             name = "book_authors",
             joinColumns = @JoinColumn(name = "book_id"),
@@ -85,6 +109,8 @@ public class Book {
     public int getAvailableCopies() { return availableCopies; }
     public void setAvailableCopies(int availableCopies) { this.availableCopies = availableCopies; }
 
+    public Long getVersion() { return version; }
+
     public Set<Author> getAuthors() { return authors; }
 
     public List<Loan> getLoans() { return loans; }
@@ -0,0 +1,25 @@
+package pl.s32832.library.entity;
+
+/**
+ * Wspólne ustawienia generowania kluczy głównych encji.
+ *
+ * Wszystkie encje używają sekwencji (GenerationType.SEQUENCE) z optymalizatorem "pooled":
+ * Hibernate pobiera z bazy blok ALLOCATION_SIZE identyfikatorów jednym nextval
+ * i rozdaje je w pamięci. Dzięki temu:
+ * - INSERT nie musi od razu zwracać wygenerowanego klucza (jak przy IDENTITY),
+ * - Hibernate może łączyć INSERT-y w paczki JDBC (hibernate.jdbc.batch_size).
+ *
+ * Wariant optymalizatora (pooled / pooled-lo) wybiera hibernate.id.optimizer.pooled.preferred
+ * w application.yml.
+ *
+ * ALLOCATION_SIZE to jedyne źródło tej wartości: trafia do migracji Flyway jako placeholder
+ * ${id_allocation_size} (INCREMENT BY sekwencji, FlywayConfig) i do DatasetGenerator
+ * (przesunięcie sekwencji po wsadowym wstawieniu danych).
+ */
+public final class IdGeneration {
+
+    /** Liczba identyfikatorów rezerwowanych jednym wywołaniem sekwencji. */
+    public static final int ALLOCATION_SIZE = 50;
+
+    private IdGeneration() {}
+}
@@ -1,6 +1,7 @@
 package pl.s32832.library.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 
@@ -18,7 +19,8 @@ public class Loan {
 
     /** Klucz główny wypożyczenia. */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loans_seq")
+    @SequenceGenerator(name = "loans_seq", sequenceName = "loans_seq", allocationSize = IdGeneration.ALLOCATION_SIZE)
     private Long id;
 
     /**
@@ -26,8 +28,10 @@ public class Loan {
      *
      * @ManyToOne => wiele wypożyczeń może należeć do jednego użytkownika
      * optional = false => user nie może być null (wymagane).
+     * LAZY => odczyt wypożyczenia nie dociąga użytkownika (ani jego profilu — osobny SELECT);
+     * listy, które go potrzebują, pobierają go przez EntityGraph albo projekcję.
      */
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
@@ -36,8 +40,9 @@ public class Loan {
      *
      * @ManyToOne => wiele wypożyczeń może dotyczyć jednej książki
      * optional = false => book nie może być null (wymagane).
+     * LAZY => do zwrotu wystarczy ID książki (proxy), bez JOIN na books.
      */
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "book_id")
     private Book book;
 
@@ -55,6 +60,15 @@ public class Loan {
      */
     private LocalDate returnDate;
 
+    /**
+     * Wersja wiersza do optymistycznego blokowania
+     * (np. dwa równoległe zwroty tego samego wypożyczenia — drugi dostanie konflikt).
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     public Loan() {
 
     }
@@ -82,4 +96,6 @@ public class Loan {
 
     public LocalDate getReturnDate() { return returnDate; }
     public void setReturnDate(LocalDate returnDate) { this.returnDate = returnDate; }
+
+    public Long getVersion() { return version; }
 }
@@ -14,7 +14,8 @@ public class UserProfile {
 
     /** Klucz główny profilu. */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_profiles_seq")
+    @SequenceGenerator(name = "user_profiles_seq", sequenceName = "user_profiles_seq", allocationSize = IdGeneration.ALLOCATION_SIZE)
     private Long id;
 
 
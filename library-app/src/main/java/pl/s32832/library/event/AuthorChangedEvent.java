@@ -0,0 +1,6 @@
+package pl.s32832.library.event;
+
+/**
+ * Autor został utworzony lub zmienił nazwisko.
+ */
+public record AuthorChangedEvent(Long authorId, String name) {}
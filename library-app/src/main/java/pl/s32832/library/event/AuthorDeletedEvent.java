@@ -0,0 +1,6 @@
+package pl.s32832.library.event;
+
+/**
+ * Autor został usunięty.
+ */
+public record AuthorDeletedEvent(Long authorId) {}
@@ -0,0 +1,6 @@
+package pl.s32832.library.event;
+
+/**
+ * Wypożyczono egzemplarz książki (jedno zdarzenie na jedno utworzone wypożyczenie).
+ */
+public record BookBorrowedEvent(Long bookId) {}
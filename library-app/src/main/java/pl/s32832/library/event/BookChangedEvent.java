@@ -0,0 +1,30 @@
+package pl.s32832.library.event;
+
+import pl.s32832.library.entity.Author;
+import pl.s32832.library.entity.Book;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Książka została utworzona lub zmieniona (tytuł, ISBN, lista autorów).
+ *
+ * Zdarzenie niesie migawkę danych z chwili zapisu, więc odbiorcy (np. indeks wyszukiwania)
+ * nie muszą ponownie czytać książki z bazy. Zmiany licznika egzemplarzy nie generują zdarzeń.
+ */
+public record BookChangedEvent(
+        Long bookId,
+        String title,
+        String isbn,
+        Set<Long> authorIds
+) {
+
+    public static BookChangedEvent of(Book book) {
+        return new BookChangedEvent(
+                book.getId(),
+                book.getTitle(),
+                book.getIsbn(),
+                book.getAuthors().stream().map(Author::getId).collect(Collectors.toSet())
+        );
+    }
+}
@@ -0,0 +1,6 @@
+package pl.s32832.library.event;
+
+/**
+ * Książka została usunięta.
+ */
+public record BookDeletedEvent(Long bookId) {}
@@ -1,12 +1,14 @@
 package pl.s32832.library.exception;
 
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.sql.SQLTransientConnectionException;
 import java.time.Instant;
 
 /**
@@ -47,12 +49,31 @@ public class ApiExceptionHandler {
 
     /**
      * Generyczna obsługa wszystkich pozostałych wyjątków (unchecked i inne).
+     *
+     * Brak wolnego połączenia w puli (Hikari: connection-timeout) -> 503 z Retry-After:
+     * przy wątkach wirtualnych liczba równoległych żądań nie jest ograniczona pulą wątków,
+     * więc nadmiar ruchu odbija się na puli połączeń i powinien zostać odrzucony, a nie zgłoszony jako 500.
      */
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleOther(Exception ex, HttpServletRequest req) {
+        if (isPoolExhausted(ex)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new ErrorResponse(Instant.now(), HttpStatus.SERVICE_UNAVAILABLE.value(),
+                            "SERVICE_UNAVAILABLE", "Database connection pool exhausted", req.getRequestURI()));
+        }
         return build(HttpStatus.INTERNAL_SERVER_ERROR, "INTERNAL_SERVER_ERROR", ex.getMessage(), req.getRequestURI());
     }
 
+    private static boolean isPoolExhausted(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof SQLTransientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Wspólna metoda budująca odpowiedź błędu w formacie JSON.
      */
@@ -0,0 +1,29 @@
+package pl.s32832.library.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Listener datasource-proxy: dolicza czas wykonania każdego zapytania do RequestDbTime.
+ * Czas mierzymy sami w nanosekundach — ExecutionInfo.getElapsedTime() ma rozdzielczość milisekund.
+ */
+class DbTimeListener implements QueryExecutionListener {
+
+    private static final String START = DbTimeListener.class.getName() + ".start";
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START, Long.class);
+        if (start != null) {
+            RequestDbTime.add(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package pl.s32832.library.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Metryki biznesowe wywoływane bezpośrednio z serwisów.
+ *
+ * - library.loans.checkout.rejected{reason} -> odrzucone wypożyczenia
+ *   (no_copies: brak egzemplarzy, validation: niepoprawne dane czytelnika, not_found: brak czytelnika/książki)
+ *
+ * Liczniki są rejestrowane przy starcie, więc w /actuator/metrics widać je od razu (z wartością 0).
+ */
+@Component
+public class LibraryMetrics {
+
+    /** Powód odrzucenia wypożyczenia (tag reason). */
+    public enum RejectionReason {
+        NO_COPIES, VALIDATION, NOT_FOUND;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final Map<RejectionReason, Counter> rejected = new EnumMap<>(RejectionReason.class);
+
+    public LibraryMetrics(MeterRegistry registry) {
+        for (RejectionReason reason : RejectionReason.values()) {
+            rejected.put(reason, Counter.builder("library.loans.checkout.rejected")
+                    .tag("reason", reason.tag())
+                    .description("Rejected checkouts")
+                    .register(registry));
+        }
+    }
+
+    public void checkoutRejected(RejectionReason reason) {
+        rejected.get(reason).increment();
+    }
+}
@@ -0,0 +1,59 @@
+package pl.s32832.library.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+import pl.s32832.library.repository.LoanRepository;
+import pl.s32832.library.util.DateTimeProvider;
+
+import java.time.Duration;
+
+/**
+ * Stan wypożyczeń jako metryki Actuatora:
+ * - library.loans.active  -> wypożyczenia nieoddane,
+ * - library.loans.overdue -> nieoddane po terminie (dueDate < dziś).
+ *
+ * Oba liczniki to COUNT po częściowym indeksie idx_loans_active_due_date.
+ * Wynik jest pamiętany przez MAX_AGE, żeby częste odczyty metryk (scrape) nie obciążały bazy.
+ */
+@Component
+public class LoanGauges implements MeterBinder {
+
+    private static final Duration MAX_AGE = Duration.ofSeconds(15);
+
+    private final LoanRepository loanRepository;
+    private final DateTimeProvider dateTimeProvider;
+
+    private volatile Snapshot snapshot;
+
+    public LoanGauges(LoanRepository loanRepository, DateTimeProvider dateTimeProvider) {
+        this.loanRepository = loanRepository;
+        this.dateTimeProvider = dateTimeProvider;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("library.loans.active", this, g -> g.current().active())
+                .description("Loans not yet returned")
+                .register(registry);
+        Gauge.builder("library.loans.overdue", this, g -> g.current().overdue())
+                .description("Loans not returned after their due date")
+                .register(registry);
+    }
+
+    Snapshot current() {
+        Snapshot s = snapshot;
+        long now = System.nanoTime();
+        if (s == null || now - s.takenAt() > MAX_AGE.toNanos()) {
+            s = new Snapshot(
+                    loanRepository.countByReturnDateIsNull(),
+                    loanRepository.countByReturnDateIsNullAndDueDateBefore(dateTimeProvider.today()),
+                    now);
+            snapshot = s;
+        }
+        return s;
+    }
+
+    record Snapshot(long active, long overdue, long takenAt) {}
+}
@@ -0,0 +1,60 @@
+package pl.s32832.library.metrics;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Konfiguracja metryk aplikacji.
+ *
+ * - TimedAspect obsługuje @Timed("library.service") na serwisach:
+ *   library.service{class, method, exception} dla każdej publicznej metody
+ *   (histogram i percentyle: management.metrics.distribution w application.yml).
+ * - Każdy DataSource jest opakowany przez datasource-proxy z DbTimeListener
+ *   (czas bazy na żądanie, RequestDbTimeFilter) i StatementCountListener
+ *   (liczba instrukcji SQL, StatementCounter i budżet instrukcji), a także z listenerami
+ *   zarejestrowanymi jako beany (np. SlowQueryListener).
+ *   DataSource, które tylko przekazują połączenia dalej (routing do repliki, LazyConnectionDataSourceProxy),
+ *   nie są opakowywane — zapytania liczą pule pod nimi, każde raz.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    /**
+     * Metoda statyczna — BeanPostProcessor musi powstać przed pozostałymi beanami konfiguracji.
+     * Listenery-beany są pobierane dopiero przy opakowaniu DataSource (ObjectProvider).
+     */
+    @Bean
+    public static BeanPostProcessor dataSourceTimingPostProcessor(ObjectProvider<QueryExecutionListener> listeners) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)
+                        && !(bean instanceof DelegatingDataSource) && !(bean instanceof AbstractRoutingDataSource)) {
+                    ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new DbTimeListener())
+                            .listener(new StatementCountListener());
+                    listeners.orderedStream().forEach(builder::listener);
+                    return builder.build();
+                }
+                return bean;
+            }
+        };
+    }
+}
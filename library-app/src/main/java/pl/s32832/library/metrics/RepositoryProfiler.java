@@ -0,0 +1,104 @@
+package pl.s32832.library.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import pl.s32832.library.repository.BookRepository;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Łączny czas i liczba instrukcji SQL na metodę repozytorium (np. BookRepository.findAll).
+ *
+ * Aspekt owija beany *Repository (Spring Data). Nazwa metody pochodzi z naszego interfejsu
+ * repozytorium, także dla metod odziedziczonych (findById, saveAll...).
+ * Dla metod zwracających Stream mierzymy tylko otwarcie strumienia, nie jego odczyt.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(prefix = "library.sql.profile", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RepositoryProfiler {
+
+    private static final String REPOSITORY_PACKAGE = BookRepository.class.getPackageName();
+
+    private final Map<String, MethodStats> stats = new ConcurrentHashMap<>();
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("bean(*Repository)")
+    public Object profile(ProceedingJoinPoint pjp) throws Throwable {
+        String method = repositoryName(pjp.getTarget()) + "." + pjp.getSignature().getName();
+
+        long start = System.nanoTime();
+        StatementCounter.Scope scope = StatementCounter.open(method);
+        try {
+            return pjp.proceed();
+        } finally {
+            scope.close();
+            stats.computeIfAbsent(method, m -> new MethodStats())
+                    .record(System.nanoTime() - start, scope.count());
+        }
+    }
+
+    /** Czasy metod posortowane po łącznym czasie malejąco. */
+    public List<RepositoryTime> snapshot() {
+        return stats.entrySet().stream()
+                .map(e -> e.getValue().toTime(e.getKey()))
+                .sorted(Comparator.comparingDouble(RepositoryTime::totalMs).reversed())
+                .toList();
+    }
+
+    public void clear() {
+        stats.clear();
+    }
+
+    /**
+     * Czas metody repozytorium: liczba wywołań, wykonane instrukcje SQL, czas łączny / średni / maksymalny.
+     */
+    public record RepositoryTime(String method, long calls, long statements,
+                                 double totalMs, double avgMs, double maxMs) {}
+
+    private String repositoryName(Object target) {
+        return repositoryNames.computeIfAbsent(target.getClass(), type -> {
+            for (Class<?> iface : type.getInterfaces()) {
+                if (iface.getPackageName().equals(REPOSITORY_PACKAGE)) {
+                    return iface.getSimpleName();
+                }
+            }
+            return type.getSimpleName();
+        });
+    }
+
+    private static final class MethodStats {
+
+        final LongAdder calls = new LongAdder();
+        final LongAdder statements = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        void record(long nanos, long statementCount) {
+            calls.increment();
+            statements.add(statementCount);
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        RepositoryTime toTime(String method) {
+            long n = calls.sum();
+            double total = millis(totalNanos.sum());
+            return new RepositoryTime(method, n, statements.sum(), total, n == 0 ? 0 : total / n,
+                    millis(maxNanos.get()));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
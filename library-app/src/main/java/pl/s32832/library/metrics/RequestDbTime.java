@@ -0,0 +1,33 @@
+package pl.s32832.library.metrics;
+
+/**
+ * Czas spędzony w JDBC przez bieżące żądanie HTTP (suma po wszystkich zapytaniach).
+ *
+ * Licznik działa tylko między begin() i end() w tym samym wątku (RequestDbTimeFilter);
+ * zapytania z innych wątków (zadania w tle, start aplikacji) nie są liczone.
+ */
+final class RequestDbTime {
+
+    private static final ThreadLocal<long[]> CURRENT = new ThreadLocal<>();
+
+    private RequestDbTime() {
+    }
+
+    static void begin() {
+        CURRENT.set(new long[1]);
+    }
+
+    static void add(long nanos) {
+        long[] total = CURRENT.get();
+        if (total != null) {
+            total[0] += nanos;
+        }
+    }
+
+    /** Kończy pomiar i zwraca łączny czas w nanosekundach. */
+    static long end() {
+        long[] total = CURRENT.get();
+        CURRENT.remove();
+        return total == null ? 0 : total[0];
+    }
+}
@@ -0,0 +1,56 @@
+package pl.s32832.library.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Czas bazy danych na żądanie HTTP: library.http.db.time{uri, method}.
+ *
+ * Tagi uri/method są takie same jak w http.server.requests (czas całkowity),
+ * więc dla każdego endpointu można porównać czas w bazie z czasem całego żądania.
+ * Dla odpowiedzi strumieniowych (eksport NDJSON) liczy się tylko część wykonana w wątku żądania.
+ */
+@Component
+public class RequestDbTimeFilter extends OncePerRequestFilter {
+
+    static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry registry;
+
+    public RequestDbTimeFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestDbTime.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long nanos = RequestDbTime.end();
+            Timer.builder("library.http.db.time")
+                    .tag("uri", uri(request))
+                    .tag("method", request.getMethod())
+                    .description("Time spent in JDBC per HTTP request")
+                    .register(registry)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /** Wzorzec ścieżki z mapowania (np. /api/books/{id}) — nie surowy URL, żeby nie mnożyć tagów. */
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : UNKNOWN_URI;
+    }
+}
@@ -0,0 +1,22 @@
+package pl.s32832.library.metrics;
+
+import java.time.Instant;
+
+/**
+ * Wpis dziennika wolnych zapytań.
+ *
+ * query   -> znormalizowany SQL (literały i listy IN zastąpione przez ?)
+ * binds   -> liczba parametrów (dla paczki JDBC: suma po wszystkich wierszach)
+ * service -> metoda serwisu (Klasa.metoda), w której wykonano zapytanie, albo null
+ * request -> żądanie HTTP (METODA /ścieżka), w którym wykonano zapytanie, albo null
+ */
+public record SlowQuery(
+        Instant at,
+        long durationMs,
+        String query,
+        int binds,
+        int batchSize,
+        boolean success,
+        String service,
+        String request
+) {}
@@ -0,0 +1,82 @@
+package pl.s32832.library.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Listener datasource-proxy: zapytania trwające co najmniej library.sql.profile.slow-threshold
+ * trafiają do SlowQueryLog razem z bieżącą metodą serwisu i żądaniem HTTP (StatementCounter).
+ * Szybkie zapytania kosztują tylko porównanie czasu.
+ */
+@Component
+@ConditionalOnProperty(prefix = "library.sql.profile", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryListener implements QueryExecutionListener {
+
+    private static final int MAX_QUERY_LENGTH = 2000;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+    private final SlowQueryLog log;
+    private final long thresholdMs;
+
+    public SlowQueryListener(SlowQueryLog log, SqlProfileProperties properties) {
+        this.log = log;
+        this.thresholdMs = properties.slowThreshold().toMillis();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getElapsedTime() < thresholdMs) {
+            return;
+        }
+        String query = queryInfoList.stream()
+                .map(q -> normalize(q.getQuery()))
+                .distinct()
+                .collect(Collectors.joining("; "));
+        int binds = queryInfoList.stream()
+                .flatMap(q -> q.getParametersList().stream())
+                .mapToInt(List::size)
+                .sum();
+
+        log.add(new SlowQuery(
+                Instant.now(),
+                execInfo.getElapsedTime(),
+                truncate(query),
+                binds,
+                execInfo.isBatch() ? execInfo.getBatchSize() : 0,
+                execInfo.isSuccess(),
+                StatementCounter.current(StatementCounter.Kind.SERVICE),
+                StatementCounter.current(StatementCounter.Kind.REQUEST)));
+    }
+
+    /**
+     * Postać zapytania niezależna od wartości: jeden odstęp zamiast białych znaków,
+     * literały jako ?, listy "(?, ?, ?)" jako "(?...)".
+     */
+    static String normalize(String sql) {
+        String s = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        s = STRING_LITERAL.matcher(s).replaceAll("?");
+        s = NUMBER_LITERAL.matcher(s).replaceAll("?");
+        s = IN_LIST.matcher(s).replaceAll("(?...)");
+        return s;
+    }
+
+    private static String truncate(String query) {
+        return query.length() <= MAX_QUERY_LENGTH ? query : query.substring(0, MAX_QUERY_LENGTH) + "...";
+    }
+}
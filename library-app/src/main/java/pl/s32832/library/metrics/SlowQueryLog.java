@@ -0,0 +1,58 @@
+package pl.s32832.library.metrics;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ostatnie wolne zapytania w buforze cyklicznym o stałym rozmiarze.
+ *
+ * Zapis bez blokad: numer slotu z AtomicLong, wpis przez AtomicReferenceArray —
+ * równoległe zapytania nie czekają na siebie, najstarsze wpisy są nadpisywane.
+ * Odczyt (slowest) kopiuje bieżącą zawartość i sortuje po czasie malejąco.
+ */
+@Component
+@ConditionalOnProperty(prefix = "library.sql.profile", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryLog {
+
+    private final AtomicReferenceArray<SlowQuery> slots;
+    private final AtomicLong next = new AtomicLong();
+
+    public SlowQueryLog(SqlProfileProperties properties) {
+        this.slots = new AtomicReferenceArray<>(Math.max(1, properties.capacity()));
+    }
+
+    void add(SlowQuery query) {
+        long slot = next.getAndIncrement();
+        slots.set((int) (slot % slots.length()), query);
+    }
+
+    /** Najwolniejsze z zapamiętanych zapytań (maksymalnie limit). */
+    public List<SlowQuery> slowest(int limit) {
+        List<SlowQuery> result = new ArrayList<>(slots.length());
+        for (int i = 0; i < slots.length(); i++) {
+            SlowQuery query = slots.get(i);
+            if (query != null) {
+                result.add(query);
+            }
+        }
+        result.sort(Comparator.comparingLong(SlowQuery::durationMs).reversed()
+                .thenComparing(SlowQuery::at, Comparator.reverseOrder()));
+        return result.size() > limit ? List.copyOf(result.subList(0, limit)) : result;
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package pl.s32832.library.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Endpoint Actuatora /actuator/sql: gdzie aplikacja spędza czas w bazie.
+ *
+ * GET    /actuator/sql    -> 50 najwolniejszych ostatnich zapytań + czasy metod repozytoriów
+ * GET    /actuator/sql/20 -> to samo, z inną liczbą zapytań
+ * DELETE /actuator/sql    -> wyczyszczenie dziennika i statystyk (np. przed testem obciążeniowym)
+ */
+@Component
+@Endpoint(id = "sql")
+@ConditionalOnProperty(prefix = "library.sql.profile", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlProfileEndpoint {
+
+    private static final int DEFAULT_LIMIT = 50;
+
+    private final SlowQueryLog slowQueries;
+    private final RepositoryProfiler repositories;
+    private final SqlProfileProperties properties;
+
+    public SqlProfileEndpoint(SlowQueryLog slowQueries, RepositoryProfiler repositories,
+                              SqlProfileProperties properties) {
+        this.slowQueries = slowQueries;
+        this.repositories = repositories;
+        this.properties = properties;
+    }
+
+    @ReadOperation
+    public SqlProfile profile() {
+        return slowest(DEFAULT_LIMIT);
+    }
+
+    /**
+     * Liczba zapytań w ścieżce (selektor), a nie opcjonalny parametr — opcjonalny parametr
+     * operacji wymaga adnotacji @Nullable, a ta ostrzeżeń kompilatora bez JSR-305 na classpath.
+     */
+    @ReadOperation
+    public SqlProfile slowest(@Selector int limit) {
+        int max = limit <= 0 ? DEFAULT_LIMIT : limit;
+        return new SqlProfile(
+                properties.slowThreshold().toMillis(),
+                slowQueries.capacity(),
+                slowQueries.slowest(max),
+                repositories.snapshot());
+    }
+
+    @DeleteOperation
+    public void reset() {
+        slowQueries.clear();
+        repositories.clear();
+    }
+
+    public record SqlProfile(long slowThresholdMs, int capacity, List<SlowQuery> slowest,
+                             List<RepositoryProfiler.RepositoryTime> repositories) {}
+}
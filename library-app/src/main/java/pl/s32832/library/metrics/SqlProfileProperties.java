@@ -0,0 +1,21 @@
+package pl.s32832.library.metrics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Profil SQL dostępny pod /actuator/sql (SqlProfileEndpoint).
+ *
+ * application.yml:
+ * library.sql.profile.enabled        -> dziennik wolnych zapytań i czasy metod repozytoriów
+ * library.sql.profile.slow-threshold -> od jakiego czasu zapytanie trafia do dziennika
+ * library.sql.profile.capacity       -> ile ostatnich wolnych zapytań pamiętamy
+ */
+@ConfigurationProperties(prefix = "library.sql.profile")
+public record SqlProfileProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("50ms") Duration slowThreshold,
+        @DefaultValue("200") int capacity
+) {}
@@ -0,0 +1,37 @@
+package pl.s32832.library.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Zgłaszanie przekroczeń budżetu instrukcji SQL: ostrzeżenie w logu i licznik
+ * library.sql.budget.exceeded{scope=request|service, name} (name = wzorzec URI albo Klasa.metoda).
+ */
+class StatementBudget {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementBudget.class);
+
+    private final MeterRegistry registry;
+
+    StatementBudget(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /** true, jeśli limit został przekroczony (i zgłoszony). */
+    boolean check(String scope, String name, long statements, int limit) {
+        if (statements <= limit) {
+            return false;
+        }
+        log.warn("SQL statement budget exceeded: {} {} executed {} statements (budget {})",
+                scope, name, statements, limit);
+        Counter.builder("library.sql.budget.exceeded")
+                .tag("scope", scope)
+                .tag("name", name)
+                .description("Requests and service calls over the SQL statement budget")
+                .register(registry)
+                .increment();
+        return true;
+    }
+}
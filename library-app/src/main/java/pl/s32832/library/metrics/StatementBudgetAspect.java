@@ -0,0 +1,48 @@
+package pl.s32832.library.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Budżet instrukcji SQL na wywołanie metody serwisu (library.sql.budget.service).
+ *
+ * Aspekt owija @RetryOnConflict i @Transactional, więc liczy też instrukcje wysłane
+ * przy commit (flush) i wszystkie ponowienia. Wywołania wewnątrz tej samej klasy
+ * (this.metoda()) nie przechodzą przez proxy i liczą się do metody wywołującej.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 2)
+@ConditionalOnProperty(prefix = "library.sql.budget", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class StatementBudgetAspect {
+
+    private final StatementBudgetProperties properties;
+    private final StatementBudget budget;
+
+    public StatementBudgetAspect(StatementBudgetProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.budget = new StatementBudget(registry);
+    }
+
+    @Around("within(pl.s32832.library.service..*) && "
+            + "(@within(org.springframework.transaction.annotation.Transactional) "
+            + "|| @annotation(org.springframework.transaction.annotation.Transactional))")
+    public Object count(ProceedingJoinPoint pjp) throws Throwable {
+        String method = pjp.getSignature().getDeclaringType().getSimpleName()
+                + "." + pjp.getSignature().getName();
+
+        StatementCounter.Scope scope = StatementCounter.open(StatementCounter.Kind.SERVICE, method);
+        try {
+            return pjp.proceed();
+        } finally {
+            scope.close();
+            budget.check("service", method, scope.count(), properties.service());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package pl.s32832.library.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Budżet instrukcji SQL na żądanie HTTP (library.sql.budget.request).
+ * Żądanie ponad budżet nie jest przerywane — trafia do logu i do library.sql.budget.exceeded.
+ */
+@Component
+@ConditionalOnProperty(prefix = "library.sql.budget", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class StatementBudgetFilter extends OncePerRequestFilter {
+
+    private final StatementBudgetProperties properties;
+    private final StatementBudget budget;
+
+    public StatementBudgetFilter(StatementBudgetProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.budget = new StatementBudget(registry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        StatementCounter.Scope scope = StatementCounter.open(
+                StatementCounter.Kind.REQUEST, request.getMethod() + " " + request.getRequestURI());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            scope.close();
+            budget.check("request", request.getMethod() + " " + uri(request), scope.count(), properties.request());
+        }
+    }
+
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : RequestDbTimeFilter.UNKNOWN_URI;
+    }
+}
@@ -0,0 +1,19 @@
+package pl.s32832.library.metrics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Budżet instrukcji SQL (StatementBudgetFilter / StatementBudgetAspect).
+ *
+ * application.yml:
+ * library.sql.budget.enabled -> sprawdzanie budżetu (licznik instrukcji działa zawsze)
+ * library.sql.budget.request -> maksymalna liczba instrukcji na jedno żądanie HTTP
+ * library.sql.budget.service -> maksymalna liczba instrukcji na jedno wywołanie metody serwisu
+ */
+@ConfigurationProperties(prefix = "library.sql.budget")
+public record StatementBudgetProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("25") int request,
+        @DefaultValue("15") int service
+) {}
@@ -0,0 +1,85 @@
+package pl.s32832.library.metrics;
+
+/**
+ * Licznik instrukcji SQL wykonanych w bieżącym wątku.
+ *
+ * Zakresy (Scope) mogą się zagnieżdżać: żądanie HTTP -> wywołanie serwisu -> wywołanie
+ * kolejnego serwisu. Każda instrukcja zwiększa licznik wszystkich otwartych zakresów,
+ * więc zakres zewnętrzny widzi też instrukcje wykonane w wewnętrznych.
+ *
+ * Liczymy wykonania (round-tripy do bazy): paczka JDBC (executeBatch) to jedna instrukcja.
+ * Rodzaj zakresu (Kind) pozwala odczytać bieżące żądanie i metodę serwisu (dziennik wolnych zapytań).
+ * Zakresy trzeba zamykać w odwrotnej kolejności otwierania (try-with-resources).
+ */
+public final class StatementCounter {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    /** Rodzaj zakresu: żądanie HTTP, wywołanie serwisu albo inny (np. test, metoda repozytorium). */
+    public enum Kind { REQUEST, SERVICE, OTHER }
+
+    private StatementCounter() {
+    }
+
+    /** Otwiera zakres liczenia w bieżącym wątku. */
+    public static Scope open(String name) {
+        return open(Kind.OTHER, name);
+    }
+
+    public static Scope open(Kind kind, String name) {
+        Scope scope = new Scope(kind, name, CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /** Nazwa najbardziej wewnętrznego otwartego zakresu danego rodzaju albo null. */
+    static String current(Kind kind) {
+        for (Scope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            if (scope.kind == kind) {
+                return scope.name;
+            }
+        }
+        return null;
+    }
+
+    static void record() {
+        for (Scope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.count++;
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final Kind kind;
+        private final String name;
+        private final Scope parent;
+        private long count;
+
+        private Scope(Kind kind, String name, Scope parent) {
+            this.kind = kind;
+            this.name = name;
+            this.parent = parent;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        /** Liczba instrukcji wykonanych od otwarcia zakresu (także po zamknięciu — wartość końcowa). */
+        public long count() {
+            return count;
+        }
+
+        @Override
+        public void close() {
+            if (CURRENT.get() != this) {
+                return;
+            }
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(parent);
+            }
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package pl.s32832.library.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import pl.s32832.library.entity.Author;
 
+import java.util.List;
+
 /**
  * Repository dla encji Author.
  *
@@ -16,4 +19,10 @@ import pl.s32832.library.entity.Author;
  * Spring Data JPA generuje implementację automatycznie w runtime.
  */
 public interface AuthorRepository extends JpaRepository<Author, Long> {
+
+    /**
+     * Strona autorów dla paginacji kursorowej: ID > afterId, rosnąco po ID.
+     * Limit.of(n) -> LIMIT n w zapytaniu.
+     */
+    List<Author> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
 }
@@ -1,11 +1,23 @@
 package pl.s32832.library.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import pl.s32832.library.dto.response.BookResponse;
 import pl.s32832.library.entity.Book;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository dla encji Book.
@@ -14,6 +26,12 @@ import java.util.Optional;
  */
 public interface BookRepository extends JpaRepository<Book, Long> {
 
+    /**
+     * Przestrzeń zapytań (query space) natywnych UPDATE liczników egzemplarzy.
+     * Inna niż tabela books, więc Hibernate nie czyści po nich regionu cache książek.
+     */
+    String COPIES_QUERY_SPACE = "book_copies";
+
     /**
      * Wyszukanie książki po ISBN.
      *
@@ -24,18 +42,6 @@ public interface BookRepository extends JpaRepository<Book, Long> {
      */
     Optional<Book> findByIsbn(String isbn);
 
-    /**
-     * Pobranie książki po ID razem z autorami (Many-to-Many).
-     *
-     * @EntityGraph(attributePaths = {"authors"}) powoduje, że relacja "authors"
-     * zostanie dociągnięta od razu w jednym zapytaniu,
-     * zamiast Lazy-loading po fakcie.
-     *
-     * Dzięki temu unikamy problemu wielu dodatkowych zapytań
-     */
-    @EntityGraph(attributePaths = {"authors"})
-    Optional<Book> findWithAuthorsById(Long id);
-
     /**
      * Nadpisujemy findAll() i dokładamy EntityGraph,
      * żeby lista książek od razu miała dociągniętych autorów.
@@ -44,4 +50,201 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     @Override
     @EntityGraph(attributePaths = {"authors"})
     List<Book> findAll();
+
+    /**
+     * Paginacja kursorowa (keyset): kolejna strona to rekordy o ID większym niż ostatnie
+     * ID poprzedniej strony, posortowane rosnąco po kluczu głównym.
+     *
+     * W przeciwieństwie do OFFSET baza nie przechodzi przez pominięte wiersze
+     * (indeks PK -> od razu właściwe miejsce), a wstawienia w trakcie przeglądania
+     * nie przesuwają stron.
+     *
+     * Bez EntityGraph — fetch join kolekcji razem z LIMIT Hibernate wykonałby w pamięci.
+     * Autorów dociąga serwis jednym zapytaniem dla całej strony (default_batch_fetch_size).
+     */
+    List<Book> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * Strona książek od razu jako BookResponse (REST: GET /api/books) — bez encji w kontekście
+     * persystencji i bez osobnego zapytania o autorów: ID autorów skleja baza (listagg,
+     * w PostgreSQL string_agg) w podzapytaniu skorelowanym, liczonym tylko dla wierszy strony
+     * (GROUP BY na całym złączeniu agregowałby wszystkie książki za kursorem przed LIMIT).
+     * Keyset jak w findByIdGreaterThanOrderByIdAsc.
+     */
+    @Query("select new pl.s32832.library.dto.response.BookResponse("
+            + "b.id, b.title, b.isbn, b.totalCopies, b.availableCopies, "
+            + "(select listagg(cast(a.id as String), ',') within group (order by a.id) from b.authors a)) "
+            + "from Book b where b.id > :afterId order by b.id")
+    List<BookResponse> findResponsesAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Podpowiedź książki (projekcja zapytania natywnego lookup).
+     */
+    interface LookupRow {
+        Long getId();
+        String getTitle();
+        String getIsbn();
+        int getAvailableCopies();
+    }
+
+    /**
+     * Podpowiedzi książek (PostgreSQL): tytuł albo ISBN zaczyna się od prefiksu (wzorzec z Lookups.likePrefix).
+     *
+     * Dwie gałęzie UNION ALL, każda czyta swój indeks lower(...) text_pattern_ops (V4) w kolejności
+     * indeksu (order by ... using ~<~) i kończy po :limit wierszach — koszt zależy od limitu,
+     * a nie od liczby pasujących książek (OR + order by title sortował wszystkie trafienia).
+     * Najpierw trafienia po tytule, potem po ISBN (bez książek, które pasują już tytułem).
+     */
+    @Query(value = "select m.id as id, m.title as title, m.isbn as isbn, m.available_copies as \"availableCopies\" "
+            + "from ("
+            + "(select b.id, b.title, b.isbn, b.available_copies, 0 as branch, lower(b.title) as sort_key "
+            + "from books b where lower(b.title) like :prefix escape '!' "
+            + "order by lower(b.title) using ~<~, b.id limit :limit) "
+            + "union all "
+            + "(select b.id, b.title, b.isbn, b.available_copies, 1 as branch, lower(b.isbn) as sort_key "
+            + "from books b where lower(b.isbn) like :prefix escape '!' and lower(b.title) not like :prefix escape '!' "
+            + "order by lower(b.isbn) using ~<~, b.id limit :limit)"
+            + ") m "
+            + "order by m.branch, m.sort_key using ~<~, m.id "
+            + "limit :limit",
+            nativeQuery = true)
+    List<LookupRow> lookup(@Param("prefix") String prefix, @Param("limit") int limit);
+
+    /**
+     * Atomowe wypożyczenie jednego egzemplarza.
+     *
+     * Sprawdzenie (availableCopies > 0) i zmniejszenie licznika odbywa się
+     * w jednym warunkowym UPDATE na wierszu books, więc dwa równoległe
+     * wypożyczenia nie nadpiszą sobie nawzajem wyniku (brak "lost update").
+     *
+     * Zwraca liczbę zmienionych wierszy:
+     * - 1 -> egzemplarz zarezerwowany
+     * - 0 -> brak książki albo brak dostępnych egzemplarzy
+     *
+     * flushAutomatically = true -> zmiany z kontekstu persystencji trafiają do bazy przed UPDATE.
+     * Wersja jest podbijana ręcznie, żeby równoległa edycja encji Book dostała konflikt
+     * optymistycznego blokowania zamiast nadpisać licznik.
+     *
+     * UPDATE natywny z własną przestrzenią zapytań (COPIES_QUERY_SPACE): UPDATE w JPQL na Book
+     * czyściłby cały region cache 2. poziomu książek przy każdym wypożyczeniu. Zmieniony wiersz
+     * usuwa z cache BookService (SecondLevelCacheEvictor.evictBookEntity po commicie).
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = COPIES_QUERY_SPACE))
+    @Query(value = "update books set available_copies = available_copies - 1, version = version + 1 "
+            + "where id = :id and available_copies > 0", nativeQuery = true)
+    int decrementAvailableCopies(@Param("id") Long id);
+
+    /**
+     * Atomowy zwrot jednego egzemplarza (odwrotność decrementAvailableCopies).
+     *
+     * Warunek availableCopies < totalCopies pilnuje, żeby licznik nigdy
+     * nie przekroczył łącznej liczby egzemplarzy.
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = COPIES_QUERY_SPACE))
+    @Query(value = "update books set available_copies = available_copies + 1, version = version + 1 "
+            + "where id = :id and available_copies < total_copies", nativeQuery = true)
+    int incrementAvailableCopies(@Param("id") Long id);
+
+    /**
+     * Zwrot wielu egzemplarzy tej samej książki jednym UPDATE (zwrot wsadowy).
+     * Licznik jest przycinany do totalCopies, tak jak w incrementAvailableCopies.
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = COPIES_QUERY_SPACE))
+    @Query(value = "update books set available_copies = case "
+            + "when available_copies + :count > total_copies then total_copies "
+            + "else available_copies + :count end, "
+            + "version = version + 1 "
+            + "where id = :id", nativeQuery = true)
+    int incrementAvailableCopiesBy(@Param("id") Long id, @Param("count") int count);
+
+    /**
+     * Pobranie wielu książek jednym zapytaniem z blokadą wierszy (SELECT ... FOR UPDATE).
+     *
+     * Blokady są zakładane w kolejności rosnącego ID, więc dwie równoległe
+     * transakcje blokujące częściowo te same książki nie zakleszczą się (brak deadlocka).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Book> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    /**
+     * Wiersz eksportu katalogu: książka + ID jednego autora (null, gdy książka nie ma autorów).
+     * Książka z N autorami daje N kolejnych wierszy — serwis skleja je po ID.
+     */
+    interface ExportRow {
+        Long getId();
+        String getTitle();
+        String getIsbn();
+        int getTotalCopies();
+        int getAvailableCopies();
+        Long getAuthorId();
+    }
+
+    /**
+     * Strumień całego katalogu do eksportu (NDJSON).
+     *
+     * Wiersze są czytane kursorem bazy w porcjach fetchSize (PostgreSQL wymaga do tego
+     * otwartej transakcji), a projekcja nie trafia do kontekstu persystencji —
+     * zużycie pamięci nie zależy od wielkości tabeli. Strumień trzeba zamknąć.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select b.id as id, b.title as title, b.isbn as isbn, b.totalCopies as totalCopies, "
+            + "b.availableCopies as availableCopies, a.id as authorId "
+            + "from Book b left join b.authors a order by b.id")
+    Stream<ExportRow> streamForExport();
+
+    /**
+     * Wynik wyszukiwania pełnotekstowego (projekcja zapytania natywnego).
+     * truncated — to samo w każdym wierszu: trafień było więcej niż SEARCH_CANDIDATES.
+     */
+    interface SearchHit {
+        Long getId();
+        String getTitle();
+        String getIsbn();
+        int getTotalCopies();
+        int getAvailableCopies();
+        double getRank();
+        boolean getTruncated();
+    }
+
+    /**
+     * Ile trafień z indeksu GIN dostaje ocenę trafności w search (ts_rank_cd). Szerokie zapytanie
+     * ("dom", "jan") pasuje do dziesiątek tysięcy książek — oceniamy tylko SEARCH_CANDIDATES pierwszych
+     * trafień z indeksu, a odpowiedź ma wtedy truncated = true.
+     *
+     * Stała wpisana w SQL, nie parametr: przy limit z parametru ogólny plan zapytania przygotowanego
+     * (generic plan) zgadywał liczbę wierszy i potrafił wybrać seq scan.
+     */
+    int SEARCH_CANDIDATES = 2000;
+
+    /**
+     * Wyszukiwanie pełnotekstowe (PostgreSQL): books.search_vector @@ tsquery, indeks GIN
+     * idx_books_search_vector, sortowanie po ts_rank_cd (tytuł/ISBN ważą więcej niż autorzy).
+     * search_vector utrzymują triggery z migracji V5, więc encja Book go nie mapuje.
+     *
+     * Gdy trafień jest najwyżej SEARCH_CANDIDATES, oceniane są wszystkie. Przy większej liczbie
+     * oceniane są pierwsze trafienia w kolejności z indeksu (bez sortowania — GIN nie zwraca trafień
+     * w żadnej kolejności, a sortowanie wymagałoby odczytu wszystkich), a truncated = true.
+     * Podzapytanie czyta o jeden wiersz więcej, żeby wiedzieć, czy lista została obcięta.
+     *
+     * tsQuery musi być poprawną składnią to_tsquery (SearchQueries.prefixTsQuery).
+     */
+    @Query(value = "select c.id as id, c.title as title, c.isbn as isbn, "
+            + "c.total_copies as \"totalCopies\", c.available_copies as \"availableCopies\", "
+            + "cast(ts_rank_cd(c.search_vector, q) as double precision) as rank, "
+            + "count(*) over () > " + SEARCH_CANDIDATES + " as truncated "
+            + "from (select b.id, b.title, b.isbn, b.total_copies, b.available_copies, b.search_vector "
+            + "from books b where b.search_vector @@ to_tsquery('simple', :tsQuery) "
+            + "limit " + (SEARCH_CANDIDATES + 1) + ") c, to_tsquery('simple', :tsQuery) q "
+            + "order by rank desc, c.id "
+            + "limit :limit offset :offset",
+            nativeQuery = true)
+    List<SearchHit> search(@Param("tsQuery") String tsQuery,
+                           @Param("limit") int limit,
+                           @Param("offset") int offset);
 }
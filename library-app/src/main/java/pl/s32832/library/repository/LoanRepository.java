@@ -1,7 +1,165 @@
 package pl.s32832.library.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import pl.s32832.library.dto.response.LoanListItem;
+import pl.s32832.library.dto.response.LoanResponse;
 import pl.s32832.library.entity.Loan;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 public interface LoanRepository extends JpaRepository<Loan, Long> {
+
+    /**
+     * Liczba aktywnych (nieoddanych) wypożyczeń danej książki.
+     */
+    long countByBookIdAndReturnDateIsNull(Long bookId);
+
+    /**
+     * Liczba wszystkich aktywnych wypożyczeń (metryka library.loans.active).
+     */
+    long countByReturnDateIsNull();
+
+    /**
+     * Liczba aktywnych wypożyczeń po terminie (metryka library.loans.overdue).
+     */
+    long countByReturnDateIsNullAndDueDateBefore(LocalDate date);
+
+    /**
+     * Minimalny widok wypożyczenia potrzebny do zwrotu wsadowego
+     * (bez ładowania encji Loan/User/Book do kontekstu persystencji).
+     */
+    interface ReturnCandidate {
+        Long getId();
+        Long getBookId();
+        String getIsbn();
+        LocalDate getReturnDate();
+    }
+
+    /**
+     * Kandydaci do zwrotu po ID wypożyczeń — jedno zapytanie na paczkę ID.
+     */
+    @Query("select l.id as id, b.id as bookId, b.isbn as isbn, l.returnDate as returnDate "
+            + "from Loan l join l.book b where l.id in :ids")
+    List<ReturnCandidate> findReturnCandidatesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Aktywne wypożyczenia książek o podanych ISBN, od najstarszego.
+     * Używane przy zwrocie "po egzemplarzu" (skan ISBN z wrzutni), gdy nie znamy ID wypożyczenia.
+     */
+    @Query("select l.id as id, b.id as bookId, b.isbn as isbn, l.returnDate as returnDate "
+            + "from Loan l join l.book b where b.isbn in :isbns and l.returnDate is null "
+            + "order by l.loanDate, l.id")
+    List<ReturnCandidate> findActiveReturnCandidatesByIsbnIn(@Param("isbns") Collection<String> isbns);
+
+    /**
+     * Blokuje (SELECT ... FOR UPDATE) aktywne wypożyczenia z listy i zwraca ich ID.
+     *
+     * Wywoływane przed markReturned: zablokowanych wierszy nie odda w międzyczasie nikt inny,
+     * więc zwrócona lista to dokładnie wypożyczenia oddane przez bieżącą transakcję.
+     * Blokady w kolejności rosnącego ID — równoległe zwroty się nie zakleszczą.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l.id from Loan l where l.id in :ids and l.returnDate is null order by l.id")
+    List<Long> lockActiveIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Oznacza wiele wypożyczeń jako oddane jednym UPDATE.
+     *
+     * Warunek returnDate is null sprawia, że wypożyczenie oddane w międzyczasie
+     * nie zostanie policzone drugi raz — zwracana liczba to faktycznie oddane wiersze.
+     * Wersja jest podbijana, więc równoległy pojedynczy zwrot dostanie konflikt.
+     */
+    @Modifying
+    @Query("update Loan l set l.returnDate = :returnDate, l.version = l.version + 1 "
+            + "where l.id in :ids and l.returnDate is null")
+    int markReturned(@Param("ids") Collection<Long> ids, @Param("returnDate") LocalDate returnDate);
+
+    /**
+     * Paginacja kursorowa (keyset) wypożyczeń — rekordy o ID większym niż ostatnie ID
+     * poprzedniej strony, rosnąco po kluczu głównym.
+     *
+     * Relacje "do jednego" (użytkownik z profilem, książka) są dociągane joinem w tym samym
+     * zapytaniu — przy relacjach do jednego LIMIT nadal wykonuje się w bazie.
+     */
+    @EntityGraph(attributePaths = {"user", "user.profile", "book"})
+    List<Loan> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * Strona wypożyczeń od razu jako LoanResponse (REST: GET /api/loans) — bez encji,
+     * bez joinów (l.user.id i l.book.id to kolumny FK w tabeli loans).
+     */
+    @Query("select new pl.s32832.library.dto.response.LoanResponse("
+            + "l.id, l.user.id, l.book.id, l.loanDate, l.dueDate, l.returnDate) "
+            + "from Loan l where l.id > :afterId order by l.id")
+    List<LoanResponse> findResponsesAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Jedno wypożyczenie jako LoanResponse (GET /api/loans/{id}).
+     */
+    @Query("select new pl.s32832.library.dto.response.LoanResponse("
+            + "l.id, l.user.id, l.book.id, l.loanDate, l.dueDate, l.returnDate) "
+            + "from Loan l where l.id = :id")
+    Optional<LoanResponse> findResponseById(@Param("id") Long id);
+
+    /**
+     * Strona listy wypożyczeń dla GUI — jedno zapytanie z joinami do users i books,
+     * zwracające tylko wyświetlane kolumny (bez encji, bez dociągania relacji per wiersz).
+     */
+    @Query("select new pl.s32832.library.dto.response.LoanListItem("
+            + "l.id, u.fullName, u.email, b.title, b.isbn, l.loanDate, l.dueDate, l.returnDate) "
+            + "from Loan l join l.user u join l.book b "
+            + "where l.id > :afterId order by l.id")
+    List<LoanListItem> findListItems(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Strumień wszystkich wypożyczeń do eksportu (NDJSON), rosnąco po ID.
+     *
+     * Od razu projekcja na LoanResponse (bez encji, bez joinów — l.user.id to kolumna FK),
+     * czytana kursorem bazy w porcjach fetchSize. Strumień trzeba zamknąć.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new pl.s32832.library.dto.response.LoanResponse("
+            + "l.id, l.user.id, l.book.id, l.loanDate, l.dueDate, l.returnDate) "
+            + "from Loan l order by l.id")
+    Stream<LoanResponse> streamForExport();
+
+    /**
+     * Jak streamForExport(), ale tylko wypożyczenia z loanDate >= since
+     * (przyrostowa synchronizacja). Kolejność (loanDate, id) odpowiada indeksowi idx_loans_loan_date,
+     * więc baza czyta indeks po kolei zamiast sortować wynik.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new pl.s32832.library.dto.response.LoanResponse("
+            + "l.id, l.user.id, l.book.id, l.loanDate, l.dueDate, l.returnDate) "
+            + "from Loan l where l.loanDate >= :since order by l.loanDate, l.id")
+    Stream<LoanResponse> streamForExportSince(@Param("since") LocalDate since);
+
+    /**
+     * Liczba wypożyczeń (wszystkich, także oddanych) jednej książki.
+     */
+    interface BorrowCount {
+        Long getBookId();
+        long getLoans();
+    }
+
+    /**
+     * Liczba wypożyczeń każdej książki — ranking popularności dla podpowiedzi (autocomplete).
+     * Książki bez wypożyczeń nie występują w wyniku.
+     */
+    @Query("select l.book.id as bookId, count(l) as loans from Loan l group by l.book.id")
+    List<BorrowCount> countLoansPerBook();
 }
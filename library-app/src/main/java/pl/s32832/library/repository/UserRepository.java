@@ -1,11 +1,70 @@
 package pl.s32832.library.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import pl.s32832.library.dto.response.UserResponse;
 import pl.s32832.library.entity.User;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
+    /**
+     * Strona użytkowników dla paginacji kursorowej: ID > afterId, rosnąco po ID.
+     * Profil (1:1) jest dociągany w tym samym zapytaniu, zamiast osobnego SELECT na każdego usera.
+     */
+    @EntityGraph(attributePaths = {"profile"})
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * Strona użytkowników od razu jako UserResponse (REST: GET /api/users) — bez encji
+     * i bez profilu, którego odpowiedź nie zawiera.
+     */
+    @Query("select new pl.s32832.library.dto.response.UserResponse(u.id, u.email, u.fullName) from User u "
+            + "where u.id > :afterId order by u.id")
+    List<UserResponse> findResponsesAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Jeden użytkownik jako UserResponse (GET /api/users/{id}).
+     */
+    @Query("select new pl.s32832.library.dto.response.UserResponse(u.id, u.email, u.fullName) from User u "
+            + "where u.id = :id")
+    Optional<UserResponse> findResponseById(@Param("id") Long id);
+
+    /**
+     * Podpowiedź użytkownika (projekcja zapytania natywnego lookup).
+     */
+    interface LookupRow {
+        Long getId();
+        String getEmail();
+        String getFullName();
+    }
+
+    /**
+     * Podpowiedzi użytkowników (PostgreSQL): imię i nazwisko albo email zaczyna się od prefiksu
+     * (wzorzec z Lookups.likePrefix).
+     *
+     * Dwie gałęzie UNION ALL w kolejności indeksów lower(...) text_pattern_ops (V4), każda
+     * z :limit — koszt zależy od limitu, a nie od liczby pasujących użytkowników.
+     * Najpierw trafienia po imieniu i nazwisku, potem po emailu.
+     */
+    @Query(value = "select m.id as id, m.email as email, m.full_name as \"fullName\" "
+            + "from ("
+            + "(select u.id, u.email, u.full_name, 0 as branch, lower(u.full_name) as sort_key "
+            + "from users u where lower(u.full_name) like :prefix escape '!' "
+            + "order by lower(u.full_name) using ~<~, u.id limit :limit) "
+            + "union all "
+            + "(select u.id, u.email, u.full_name, 1 as branch, lower(u.email) as sort_key "
+            + "from users u where lower(u.email) like :prefix escape '!' and lower(u.full_name) not like :prefix escape '!' "
+            + "order by lower(u.email) using ~<~, u.id limit :limit)"
+            + ") m "
+            + "order by m.branch, m.sort_key using ~<~, m.id "
+            + "limit :limit",
+            nativeQuery = true)
+    List<LookupRow> lookup(@Param("prefix") String prefix, @Param("limit") int limit);
 }
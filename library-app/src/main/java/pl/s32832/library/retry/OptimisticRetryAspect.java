@@ -0,0 +1,87 @@
+package pl.s32832.library.retry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ponawia metody oznaczone @RetryOnConflict po konflikcie optymistycznego blokowania.
+ *
+ * Aspekt ma wyższy priorytet niż @Transactional, więc owija całą transakcję:
+ * po konflikcie transakcja jest już wycofana, a kolejna próba startuje od zera
+ * i czyta świeże dane. Pomiędzy próbami czekamy losowy czas (exponential backoff
+ * z "full jitter"), żeby rywalizujące żądania się rozjechały.
+ *
+ * Metryki (Actuator /actuator/metrics):
+ * - library.optimistic.lock.conflicts{method} -> wykryte konflikty
+ * - library.optimistic.lock.retries{method}   -> wykonane ponowienia
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class OptimisticRetryAspect {
+
+    private final RetryProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public OptimisticRetryAspect(RetryProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(pl.s32832.library.retry.RetryOnConflict)")
+    public Object retry(ProceedingJoinPoint pjp) throws Throwable {
+        String method = pjp.getSignature().getDeclaringType().getSimpleName()
+                + "." + pjp.getSignature().getName();
+
+        // Wywołanie wewnątrz istniejącej transakcji nie może być powtórzone samodzielnie —
+        // konflikt musi obsłużyć zewnętrzna metoda, która tę transakcję otworzyła.
+        boolean nested = TransactionSynchronizationManager.isActualTransactionActive();
+
+        int attempt = 1;
+        while (true) {
+            try {
+                return pjp.proceed();
+            } catch (OptimisticLockingFailureException | OptimisticLockException ex) {
+                counter("library.optimistic.lock.conflicts", method).increment();
+
+                if (nested || attempt >= properties.maxAttempts()) {
+                    throw ex;
+                }
+
+                backoff(attempt);
+                attempt++;
+                counter("library.optimistic.lock.retries", method).increment();
+            }
+        }
+    }
+
+    /**
+     * Losowe opóźnienie z przedziału [0, min(maxBackoff, initialBackoff * 2^(attempt-1))].
+     */
+    private void backoff(int attempt) throws InterruptedException {
+        long cap = Math.min(
+                properties.maxBackoff().toMillis(),
+                properties.initialBackoff().toMillis() << Math.min(attempt - 1, 20));
+
+        if (cap > 0) {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(cap + 1));
+        }
+    }
+
+    private Counter counter(String name, String method) {
+        return Counter.builder(name)
+                .tag("method", method)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,21 @@
+package pl.s32832.library.retry;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Oznacza metodę serwisu, którą można bezpiecznie powtórzyć po konflikcie
+ * optymistycznego blokowania (@Version).
+ *
+ * Obsługę realizuje OptimisticRetryAspect: cała transakcja jest wycofywana
+ * i uruchamiana od nowa (z odczytem świeżych danych), maksymalnie
+ * library.retry.max-attempts razy.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
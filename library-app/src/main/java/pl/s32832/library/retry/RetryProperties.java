@@ -0,0 +1,21 @@
+package pl.s32832.library.retry;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Ustawienia ponawiania transakcji po konflikcie optymistycznego blokowania.
+ *
+ * application.yml:
+ * library.retry.max-attempts     -> łączna liczba prób (1 = bez ponawiania)
+ * library.retry.initial-backoff  -> bazowe opóźnienie przed drugą próbą
+ * library.retry.max-backoff      -> górna granica opóźnienia
+ */
+@ConfigurationProperties(prefix = "library.retry")
+public record RetryProperties(
+        @DefaultValue("3") int maxAttempts,
+        @DefaultValue("20ms") Duration initialBackoff,
+        @DefaultValue("200ms") Duration maxBackoff
+) {}
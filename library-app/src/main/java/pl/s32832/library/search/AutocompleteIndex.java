@@ -0,0 +1,291 @@
+package pl.s32832.library.search;
+
+import pl.s32832.library.dto.response.Completion;
+import pl.s32832.library.search.CompletionTrie.Entry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Podpowiedzi (autocomplete) dla tytułów, numerów ISBN i nazwisk autorów.
+ *
+ * Trzy drzewa CompletionTrie (po jednym na typ), ranking po liczbie wypożyczeń:
+ * - tytuł / ISBN: wypożyczenia książki,
+ * - autor: suma wypożyczeń jego książek.
+ *
+ * Tytuły i nazwiska są dopasowywane od początku każdego słowa ("hob" -> "The Hobbit"),
+ * ISBN — od początku numeru, z myślnikami lub bez.
+ * Odczyty i zmiany rozdziela ReadWriteLock, jak w CatalogIndex.
+ */
+public class AutocompleteIndex {
+
+    /** Maksymalna liczba podpowiedzi w odpowiedzi. */
+    public static final int MAX_LIMIT = CompletionTrie.TOP_K;
+
+    /** Typ podpowiedzi (parametr type w API, małymi literami). */
+    public enum Type { TITLE, ISBN, AUTHOR }
+
+    // maksymalna liczba słów, od których zaczynają się klucze jednego tytułu / nazwiska
+    private static final int MAX_WORD_KEYS = 8;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final CompletionTrie titles = new CompletionTrie();
+    private final CompletionTrie isbns = new CompletionTrie();
+    private final CompletionTrie authorNames = new CompletionTrie();
+
+    private final Map<Long, BookState> books = new HashMap<>();
+    private final Map<Long, AuthorState> authors = new HashMap<>();
+
+    // true tylko w build(): drzewa przeliczają TOP_K raz, na końcu
+    private boolean deferred;
+
+    /**
+     * Buduje indeks wsadowo: loader dodaje autorów, książki i wypożyczenia,
+     * a listy TOP_K w drzewach liczone są raz na końcu (zamiast po każdym wpisie).
+     */
+    public static AutocompleteIndex build(Consumer<AutocompleteIndex> loader) {
+        AutocompleteIndex index = new AutocompleteIndex();
+        index.deferred = true;
+        loader.accept(index);
+        index.deferred = false;
+        index.titles.rebuildTop();
+        index.isbns.rebuildTop();
+        index.authorNames.rebuildTop();
+        return index;
+    }
+
+    /**
+     * Dodaje lub zmienia książkę. Liczba wypożyczeń książki zostaje,
+     * przy zmianie listy autorów przechodzi ze starych autorów na nowych.
+     */
+    public void putBook(long bookId, String title, String isbn, Collection<Long> authorIds) {
+        lock.writeLock().lock();
+        try {
+            BookState previous = books.get(bookId);
+            long loans = 0;
+            if (previous != null) {
+                loans = previous.loans;
+                remove(titles, previous.title);
+                remove(isbns, previous.isbn);
+                addAuthorLoans(previous.authorIds, -loans);
+            }
+
+            BookState state = new BookState(
+                    entry(bookId, title, wordKeys(title), loans),
+                    entry(bookId, isbn, isbnKeys(isbn), loans),
+                    List.copyOf(authorIds),
+                    loans);
+            books.put(bookId, state);
+            insert(titles, state.title);
+            insert(isbns, state.isbn);
+            addAuthorLoans(state.authorIds, loans);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeBook(long bookId) {
+        lock.writeLock().lock();
+        try {
+            BookState state = books.remove(bookId);
+            if (state != null) {
+                remove(titles, state.title);
+                remove(isbns, state.isbn);
+                addAuthorLoans(state.authorIds, -state.loans);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putAuthor(long authorId, String name) {
+        lock.writeLock().lock();
+        try {
+            AuthorState state = authors.computeIfAbsent(authorId, id -> new AuthorState());
+            remove(authorNames, state.entry);
+            state.entry = entry(authorId, name, wordKeys(name), state.loans);
+            insert(authorNames, state.entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeAuthor(long authorId) {
+        lock.writeLock().lock();
+        try {
+            AuthorState state = authors.get(authorId);
+            if (state != null) {
+                remove(authorNames, state.entry);
+                state.entry = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Zwiększa licznik wypożyczeń książki (i jej autorów) o count. */
+    public void recordLoans(long bookId, long count) {
+        lock.writeLock().lock();
+        try {
+            BookState state = books.get(bookId);
+            if (state == null) {
+                return;
+            }
+            state.loans += count;
+            rescore(titles, state.title, state.loans);
+            rescore(isbns, state.isbn, state.loans);
+            addAuthorLoans(state.authorIds, count);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Najpopularniejsze podpowiedzi dla prefiksu. type = null -> wszystkie typy razem,
+     * posortowane po liczbie wypożyczeń.
+     */
+    public List<Completion> complete(String prefix, Type type, int limit) {
+        int max = Math.max(1, Math.min(limit, MAX_LIMIT));
+        String isbnPrefix = Tokenizer.compactIsbn(prefix);
+        String textPrefix = Tokenizer.normalize(prefix);
+        if (textPrefix.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Candidate> candidates = new ArrayList<>();
+            if (type == null || type == Type.TITLE) {
+                collect(candidates, Type.TITLE, titles.complete(textPrefix));
+            }
+            if ((type == null || type == Type.ISBN) && !isbnPrefix.isEmpty()) {
+                collect(candidates, Type.ISBN, isbns.complete(isbnPrefix));
+            }
+            if (type == null || type == Type.AUTHOR) {
+                collect(candidates, Type.AUTHOR, authorNames.complete(textPrefix));
+            }
+            if (type == null) {
+                candidates.sort((a, b) -> CompletionTrie.RANKING.compare(a.entry, b.entry));
+            }
+
+            return candidates.stream()
+                    .limit(max)
+                    .map(c -> new Completion(
+                            c.type.name().toLowerCase(Locale.ROOT), c.entry.id, c.entry.text, c.entry.score))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- metody pomocnicze (wywoływane pod blokadą) ---
+
+    private void addAuthorLoans(List<Long> authorIds, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        for (Long authorId : authorIds) {
+            AuthorState state = authors.computeIfAbsent(authorId, id -> new AuthorState());
+            state.loans += delta;
+            if (state.entry != null) {
+                rescore(authorNames, state.entry, state.loans);
+            }
+        }
+    }
+
+    private void insert(CompletionTrie trie, Entry entry) {
+        if (entry == null) {
+            return;
+        }
+        if (deferred) {
+            trie.insertDeferred(entry);
+        } else {
+            trie.insert(entry);
+        }
+    }
+
+    private static void remove(CompletionTrie trie, Entry entry) {
+        if (entry != null) {
+            trie.remove(entry);
+        }
+    }
+
+    private void rescore(CompletionTrie trie, Entry entry, long score) {
+        if (entry == null) {
+            return;
+        }
+        entry.score = score;
+        if (!deferred) {
+            trie.rescore(entry);
+        }
+    }
+
+    private static void collect(List<Candidate> target, Type type, Entry[] entries) {
+        for (Entry entry : entries) {
+            target.add(new Candidate(type, entry));
+        }
+    }
+
+    private static Entry entry(long id, String text, String[] keys, long score) {
+        return keys.length == 0 ? null : new Entry(id, text, keys, score);
+    }
+
+    /** Klucze tekstu: cały znormalizowany tekst i jego końcówki od kolejnych słów. */
+    private static String[] wordKeys(String text) {
+        String normalized = Tokenizer.normalize(text);
+        if (normalized.isEmpty()) {
+            return new String[0];
+        }
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(normalized);
+        int from = 0;
+        for (int words = 1; words < MAX_WORD_KEYS; words++) {
+            int space = normalized.indexOf(' ', from);
+            if (space < 0) {
+                break;
+            }
+            from = space + 1;
+            keys.add(normalized.substring(from));
+        }
+        return keys.toArray(String[]::new);
+    }
+
+    private static String[] isbnKeys(String isbn) {
+        String compact = Tokenizer.compactIsbn(isbn);
+        return compact.isEmpty() ? new String[0] : new String[]{compact};
+    }
+
+    private record Candidate(Type type, Entry entry) {}
+
+    private static final class BookState {
+
+        final Entry title;
+        final Entry isbn;
+        final List<Long> authorIds;
+        long loans;
+
+        BookState(Entry title, Entry isbn, List<Long> authorIds, long loans) {
+            this.title = title;
+            this.isbn = isbn;
+            this.authorIds = authorIds;
+            this.loans = loans;
+        }
+    }
+
+    /** Autor; loans liczymy także zanim poznamy nazwisko (entry = null). */
+    private static final class AuthorState {
+
+        Entry entry;
+        long loans;
+    }
+}
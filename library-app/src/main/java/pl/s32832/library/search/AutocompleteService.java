@@ -0,0 +1,114 @@
+package pl.s32832.library.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.s32832.library.dto.response.Completion;
+import pl.s32832.library.event.AuthorChangedEvent;
+import pl.s32832.library.event.AuthorDeletedEvent;
+import pl.s32832.library.event.BookBorrowedEvent;
+import pl.s32832.library.event.BookChangedEvent;
+import pl.s32832.library.event.BookDeletedEvent;
+import pl.s32832.library.exception.ValidationException;
+import pl.s32832.library.repository.LoanRepository;
+import pl.s32832.library.repository.LoanRepository.BorrowCount;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Podpowiedzi tytułów, ISBN i autorów z drzew prefiksowych w pamięci (AutocompleteIndex).
+ *
+ * - Indeks jest budowany po starcie aplikacji: autorzy, książki (strumieniem) i liczba
+ *   wypożyczeń każdej książki — trzy zapytania.
+ * - Potem jest aktualizowany zdarzeniami po commicie: zmiany książek i autorów (BookService,
+ *   AuthorService) oraz nowe wypożyczenia (LoanService) — bez przebudowy całości.
+ *
+ * Tak jak w CatalogSearchService budowa nie blokuje zdarzeń (LiveIndex) — zdarzenie z czasu budowy
+ * jest nakładane na nowy indeks przy podmianie. Wypożyczenie zacommitowane tuż przed odczytem liczników
+ * może zostać wtedy policzone dwa razy; ranking podpowiedzi to przybliżenie, więc to wystarcza.
+ * Włączenie: library.search.autocomplete.enabled=true (domyślnie wyłączone — budowa czyta cały
+ * katalog i wstrzymuje gotowość aplikacji do czasu jej zakończenia).
+ */
+@Service
+@ConditionalOnProperty(prefix = "library.search.autocomplete", name = "enabled", havingValue = "true")
+public class AutocompleteService {
+
+    private final CatalogReader catalogReader;
+    private final LoanRepository loanRepository;
+    private final TransactionTemplate readOnlyTx;
+
+    private final LiveIndex<AutocompleteIndex> index = new LiveIndex<>(new AutocompleteIndex());
+
+    public AutocompleteService(CatalogReader catalogReader,
+                               LoanRepository loanRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.catalogReader = catalogReader;
+        this.loanRepository = loanRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    /**
+     * Podpowiedzi dla prefiksu; type = title / isbn / author albo brak (wszystkie typy).
+     * Nieznany typ -> ValidationException (400).
+     */
+    public List<Completion> complete(String prefix, String type, int limit) throws ValidationException {
+        return index.get().complete(prefix, parseType(type), limit);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        index.rebuild(() -> readOnlyTx.execute(status -> AutocompleteIndex.build(this::load)));
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        index.apply(i -> i.putBook(event.bookId(), event.title(), event.isbn(), event.authorIds()));
+    }
+
+    @TransactionalEventListener
+    public void onBookDeleted(BookDeletedEvent event) {
+        index.apply(i -> i.removeBook(event.bookId()));
+    }
+
+    @TransactionalEventListener
+    public void onBookBorrowed(BookBorrowedEvent event) {
+        index.apply(i -> i.recordLoans(event.bookId(), 1));
+    }
+
+    @TransactionalEventListener
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        index.apply(i -> i.putAuthor(event.authorId(), event.name()));
+    }
+
+    @TransactionalEventListener
+    public void onAuthorDeleted(AuthorDeletedEvent event) {
+        index.apply(i -> i.removeAuthor(event.authorId()));
+    }
+
+    private void load(AutocompleteIndex target) {
+        catalogReader.forEachAuthor(target::putAuthor);
+        catalogReader.forEachBook((book, authorIds) ->
+                target.putBook(book.getId(), book.getTitle(), book.getIsbn(), authorIds));
+
+        for (BorrowCount count : loanRepository.countLoansPerBook()) {
+            target.recordLoans(count.getBookId(), count.getLoans());
+        }
+    }
+
+    private static AutocompleteIndex.Type parseType(String type) throws ValidationException {
+        if (type == null || type.isBlank()) {
+            return null;
+        }
+        try {
+            return AutocompleteIndex.Type.valueOf(type.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Unknown autocomplete type: " + type + " (expected title, isbn or author)");
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package pl.s32832.library.search;
+
+import pl.s32832.library.dto.response.CatalogHit;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Odwrócony indeks katalogu trzymany w pamięci (książki + autorzy).
+ *
+ * - Każda książka dostaje wewnętrzny numer dokumentu (int, kolejne liczby od 0),
+ *   słowniki termów (TreeMap, posortowane) wskazują na PostingList tych numerów.
+ * - Termy tytułu i ISBN wskazują na książki; termy nazwiska wskazują na autorów,
+ *   a dopiero autor na swoje książki — zmiana nazwiska autora nie rusza list książek.
+ * - Każde słowo zapytania jest prefiksem ("tolk" znajdzie "tolkien"), słowa łączone są przez AND.
+ * - Ocena: 2 punkty za słowo w tytule/ISBN, 1 punkt za słowo w nazwisku autora.
+ *
+ * Odczyty i zmiany rozdziela ReadWriteLock — wiele równoległych wyszukiwań,
+ * zmiany (jedna książka / jeden autor) blokują tylko na czas aktualizacji list.
+ * Numery usuniętych książek nie są używane ponownie; miejsce odzyskuje dopiero przebudowa indeksu.
+ * Numery usuniętych autorów wracają do puli i dostaje je kolejny nowy autor.
+ */
+public class CatalogIndex {
+
+    private static final int TITLE_SCORE = 2;
+    private static final int AUTHOR_SCORE = 1;
+
+    private static final Comparator<CatalogHit> RANKING = Comparator
+            .comparingInt(CatalogHit::score).reversed()
+            .thenComparing(CatalogHit::id);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // książki: bookId -> numer dokumentu -> Doc (null po usunięciu)
+    private final Map<Long, Integer> docByBookId = new HashMap<>();
+    private final List<Doc> docs = new ArrayList<>();
+    private final NavigableMap<String, PostingList> titleTerms = new TreeMap<>();
+
+    // autorzy: authorId -> numer autora -> nazwisko i książki autora
+    private final Map<Long, Integer> ordinalByAuthorId = new HashMap<>();
+    private final List<AuthorEntry> authors = new ArrayList<>();
+    private final NavigableMap<String, PostingList> authorTerms = new TreeMap<>();
+    private final Deque<Integer> freeAuthorOrdinals = new ArrayDeque<>();
+
+    private int liveDocs;
+
+    /**
+     * Dodaje książkę albo zastępuje jej poprzednią wersję (tytuł, ISBN, lista autorów).
+     * Autorzy, których indeks jeszcze nie zna, są zakładani bez nazwiska (uzupełni je putAuthor).
+     */
+    public void putBook(long bookId, String title, String isbn, Collection<Long> authorIds) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = docByBookId.get(bookId);
+            int doc;
+            if (existing != null) {
+                doc = existing;
+                unlinkDoc(doc, docs.get(doc));
+            } else {
+                doc = docs.size();
+                docs.add(null);
+                docByBookId.put(bookId, doc);
+                liveDocs++;
+            }
+
+            Set<String> terms = Tokenizer.tokens(title);
+            terms.addAll(Tokenizer.isbnTokens(isbn));
+            for (String term : terms) {
+                titleTerms.computeIfAbsent(term, t -> new PostingList()).add(doc);
+            }
+
+            int[] ordinals = new int[authorIds.size()];
+            int i = 0;
+            for (Long authorId : authorIds) {
+                int ordinal = authorOrdinal(authorId);
+                authors.get(ordinal).books.add(doc);
+                ordinals[i++] = ordinal;
+            }
+
+            docs.set(doc, new Doc(bookId, title, isbn, terms.toArray(String[]::new), ordinals));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeBook(long bookId) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docByBookId.remove(bookId);
+            if (doc != null) {
+                unlinkDoc(doc, docs.get(doc));
+                docs.set(doc, null);
+                liveDocs--;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ustawia (lub zmienia) nazwisko autora. Listy książek autora zostają bez zmian.
+     */
+    public void putAuthor(long authorId, String name) {
+        lock.writeLock().lock();
+        try {
+            AuthorEntry entry = authors.get(authorOrdinal(authorId));
+            removeTerms(authorTerms, entry.terms, entry.ordinal);
+            entry.name = name;
+            entry.terms = Tokenizer.tokens(name).toArray(String[]::new);
+            for (String term : entry.terms) {
+                authorTerms.computeIfAbsent(term, t -> new PostingList()).add(entry.ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Usuwa autora: jego termy i powiązania z książkami (książki zostają w indeksie).
+     * Po usunięciu nic nie wskazuje na numer autora, więc numer trafia do puli wolnych.
+     */
+    public void removeAuthor(long authorId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalByAuthorId.remove(authorId);
+            if (ordinal == null) {
+                return;
+            }
+            AuthorEntry entry = authors.get(ordinal);
+            removeTerms(authorTerms, entry.terms, ordinal);
+
+            for (int i = 0; i < entry.books.size(); i++) {
+                int doc = entry.books.get(i);
+                Doc d = docs.get(doc);
+                if (d != null) {
+                    docs.set(doc, d.withoutAuthor(ordinal));
+                }
+            }
+            authors.set(ordinal, null);
+            freeAuthorOrdinals.push(ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Wyszukuje książki pasujące do wszystkich słów zapytania (każde słowo jako prefiks
+     * termu tytułu/ISBN albo nazwiska autora). Zwraca maksymalnie limit wyników
+     * posortowanych po ocenie malejąco, przy remisie po ID książki.
+     */
+    public List<CatalogHit> search(String query, int limit) {
+        Set<String> words = Tokenizer.tokens(query);
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int n = words.size();
+            BitSet[] inTitle = new BitSet[n];
+            BitSet[] byAuthor = new BitSet[n];
+            BitSet candidates = null;
+
+            int w = 0;
+            for (String word : words) {
+                inTitle[w] = prefixDocs(titleTerms, word);
+                byAuthor[w] = authorDocs(word);
+
+                BitSet matched = (BitSet) inTitle[w].clone();
+                matched.or(byAuthor[w]);
+                if (candidates == null) {
+                    candidates = matched;
+                } else {
+                    candidates.and(matched);
+                }
+                if (candidates.isEmpty()) {
+                    return List.of();
+                }
+                w++;
+            }
+
+            // top-K na kopcu: odwrócony ranking, na szczycie najsłabszy z zatrzymanych wyników
+            PriorityQueue<CatalogHit> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+            for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+                int score = 0;
+                for (int i = 0; i < n; i++) {
+                    if (inTitle[i].get(doc)) {
+                        score += TITLE_SCORE;
+                    }
+                    if (byAuthor[i].get(doc)) {
+                        score += AUTHOR_SCORE;
+                    }
+                }
+                top.add(toHit(docs.get(doc), score));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            List<CatalogHit> hits = new ArrayList<>(top);
+            hits.sort(RANKING);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Stats stats() {
+        lock.readLock().lock();
+        try {
+            long postings = 0;
+            long bytes = 0;
+            for (PostingList list : titleTerms.values()) {
+                postings += list.size();
+                bytes += list.capacityBytes();
+            }
+            for (PostingList list : authorTerms.values()) {
+                postings += list.size();
+                bytes += list.capacityBytes();
+            }
+            return new Stats(liveDocs, ordinalByAuthorId.size(), titleTerms.size() + authorTerms.size(),
+                    postings, bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rozmiar indeksu: liczba książek, autorów i termów, łączna długość list
+     * i pamięć zajęta przez same tablice list (bez słowników i danych książek).
+     */
+    public record Stats(int books, int authors, int terms, long postings, long postingBytes) {}
+
+    // --- metody pomocnicze (wywoływane pod blokadą) ---
+
+    private int authorOrdinal(long authorId) {
+        Integer ordinal = ordinalByAuthorId.get(authorId);
+        if (ordinal == null) {
+            ordinal = freeAuthorOrdinals.poll();
+            if (ordinal == null) {
+                ordinal = authors.size();
+                authors.add(null);
+            }
+            authors.set(ordinal, new AuthorEntry(ordinal));
+            ordinalByAuthorId.put(authorId, ordinal);
+        }
+        return ordinal;
+    }
+
+    private void unlinkDoc(int doc, Doc d) {
+        removeTerms(titleTerms, d.terms, doc);
+        for (int ordinal : d.authorOrdinals) {
+            authors.get(ordinal).books.remove(doc);
+        }
+    }
+
+    private static void removeTerms(Map<String, PostingList> dictionary, String[] terms, int id) {
+        for (String term : terms) {
+            PostingList list = dictionary.get(term);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    dictionary.remove(term);
+                }
+            }
+        }
+    }
+
+    /** Suma list wszystkich termów zaczynających się od prefix. */
+    private static BitSet prefixDocs(NavigableMap<String, PostingList> dictionary, String prefix) {
+        BitSet result = new BitSet();
+        for (PostingList list : prefixRange(dictionary, prefix).values()) {
+            list.addTo(result);
+        }
+        return result;
+    }
+
+    private BitSet authorDocs(String prefix) {
+        BitSet ordinals = prefixDocs(authorTerms, prefix);
+        BitSet result = new BitSet();
+        for (int o = ordinals.nextSetBit(0); o >= 0; o = ordinals.nextSetBit(o + 1)) {
+            authors.get(o).books.addTo(result);
+        }
+        return result;
+    }
+
+    private static NavigableMap<String, PostingList> prefixRange(NavigableMap<String, PostingList> dictionary,
+                                                                 String prefix) {
+        return dictionary.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private CatalogHit toHit(Doc d, int score) {
+        List<String> names = new ArrayList<>(d.authorOrdinals.length);
+        for (int ordinal : d.authorOrdinals) {
+            String name = authors.get(ordinal).name;
+            if (name != null) {
+                names.add(name);
+            }
+        }
+        return new CatalogHit(d.bookId, d.title, d.isbn, names, score);
+    }
+
+    /** Zindeksowana książka; terms pamiętamy, żeby przy zmianie usunąć ją z właściwych list. */
+    private record Doc(long bookId, String title, String isbn, String[] terms, int[] authorOrdinals) {
+
+        Doc withoutAuthor(int ordinal) {
+            int[] remaining = new int[authorOrdinals.length];
+            int n = 0;
+            for (int o : authorOrdinals) {
+                if (o != ordinal) {
+                    remaining[n++] = o;
+                }
+            }
+            return new Doc(bookId, title, isbn, terms, Arrays.copyOf(remaining, n));
+        }
+    }
+
+    private static final class AuthorEntry {
+
+        final int ordinal;
+        String name;
+        String[] terms = new String[0];
+        PostingList books = new PostingList();
+
+        AuthorEntry(int ordinal) {
+            this.ordinal = ordinal;
+        }
+    }
+}
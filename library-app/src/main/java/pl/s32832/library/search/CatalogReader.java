@@ -0,0 +1,65 @@
+package pl.s32832.library.search;
+
+import org.springframework.stereotype.Component;
+import pl.s32832.library.entity.Author;
+import pl.s32832.library.repository.AuthorRepository;
+import pl.s32832.library.repository.BookRepository;
+import pl.s32832.library.repository.BookRepository.ExportRow;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Odczyt całego katalogu przy budowie indeksów w pamięci (CatalogSearchService, AutocompleteService).
+ *
+ * Metody trzeba wywoływać w transakcji (readOnly) — strumień książek jest ważny tylko do jej końca.
+ */
+@Component
+public class CatalogReader {
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+
+    public CatalogReader(BookRepository bookRepository, AuthorRepository authorRepository) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+    }
+
+    /** Przekazuje każdego autora (ID, nazwisko). */
+    public void forEachAuthor(BiConsumer<Long, String> action) {
+        for (Author author : authorRepository.findAll()) {
+            action.accept(author.getId(), author.getName());
+        }
+    }
+
+    /**
+     * Przekazuje każdą książkę z listą ID jej autorów.
+     *
+     * Książki czytamy strumieniem (ten sam kursor co eksport NDJSON): wiersze książka-autor
+     * posortowane po ID książki, autorów sklejamy z kolejnych wierszy — w pamięci jest
+     * tylko bieżąca książka, bez listy encji.
+     */
+    public void forEachBook(BiConsumer<ExportRow, List<Long>> action) {
+        try (Stream<ExportRow> rows = bookRepository.streamForExport()) {
+            ExportRow current = null;
+            List<Long> authorIds = new ArrayList<>();
+            for (Iterator<ExportRow> it = rows.iterator(); it.hasNext(); ) {
+                ExportRow row = it.next();
+                if (current != null && !current.getId().equals(row.getId())) {
+                    action.accept(current, authorIds);
+                    authorIds = new ArrayList<>();
+                }
+                current = row;
+                if (row.getAuthorId() != null) {
+                    authorIds.add(row.getAuthorId());
+                }
+            }
+            if (current != null) {
+                action.accept(current, authorIds);
+            }
+        }
+    }
+}
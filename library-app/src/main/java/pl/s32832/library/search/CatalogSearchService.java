@@ -0,0 +1,101 @@
+package pl.s32832.library.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.s32832.library.dto.response.CatalogHit;
+import pl.s32832.library.dto.response.CatalogIndexStatus;
+import pl.s32832.library.event.AuthorChangedEvent;
+import pl.s32832.library.event.AuthorDeletedEvent;
+import pl.s32832.library.event.BookChangedEvent;
+import pl.s32832.library.event.BookDeletedEvent;
+
+import java.util.List;
+
+/**
+ * Wyszukiwanie w katalogu bez zapytań do bazy — z indeksu w pamięci (CatalogIndex).
+ *
+ * Włączane property library.search.in-memory.enabled=true (domyślnie wyłączone).
+ * - Po starcie aplikacji indeks jest budowany jednym przebiegiem po autorach i książkach.
+ * - Potem jest aktualizowany zdarzeniami z BookService / AuthorService, dopiero po commicie
+ *   transakcji (wycofana zmiana nie trafia do indeksu).
+ *
+ * Budowa nie blokuje zdarzeń (LiveIndex): zdarzenie z czasu budowy trafia od razu do poprzedniego
+ * indeksu (po starcie — pustego), a na nowy jest nakładane przy podmianie.
+ */
+@Service
+@ConditionalOnProperty(prefix = "library.search.in-memory", name = "enabled", havingValue = "true")
+public class CatalogSearchService {
+
+    /** Domyślna liczba wyników. */
+    public static final int DEFAULT_LIMIT = 20;
+
+    /** Maksymalna liczba wyników. */
+    public static final int MAX_LIMIT = 100;
+
+    private final CatalogReader catalogReader;
+    private final TransactionTemplate readOnlyTx;
+
+    private final LiveIndex<CatalogIndex> index = new LiveIndex<>(new CatalogIndex());
+    private volatile boolean ready;
+    private volatile long buildMillis;
+
+    public CatalogSearchService(CatalogReader catalogReader, PlatformTransactionManager transactionManager) {
+        this.catalogReader = catalogReader;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    public List<CatalogHit> search(String query, int limit) {
+        return index.get().search(query, Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+
+    public CatalogIndexStatus status() {
+        CatalogIndex.Stats stats = index.get().stats();
+        return new CatalogIndexStatus(ready, buildMillis,
+                stats.books(), stats.authors(), stats.terms(), stats.postings());
+    }
+
+    /**
+     * Buduje indeks od zera i podmienia go na gotowy.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        index.rebuild(() -> readOnlyTx.execute(status -> build()));
+        buildMillis = (System.nanoTime() - start) / 1_000_000;
+        ready = true;
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        index.apply(i -> i.putBook(event.bookId(), event.title(), event.isbn(), event.authorIds()));
+    }
+
+    @TransactionalEventListener
+    public void onBookDeleted(BookDeletedEvent event) {
+        index.apply(i -> i.removeBook(event.bookId()));
+    }
+
+    @TransactionalEventListener
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        index.apply(i -> i.putAuthor(event.authorId(), event.name()));
+    }
+
+    @TransactionalEventListener
+    public void onAuthorDeleted(AuthorDeletedEvent event) {
+        index.apply(i -> i.removeAuthor(event.authorId()));
+    }
+
+    private CatalogIndex build() {
+        CatalogIndex fresh = new CatalogIndex();
+        catalogReader.forEachAuthor(fresh::putAuthor);
+        catalogReader.forEachBook((book, authorIds) ->
+                fresh.putBook(book.getId(), book.getTitle(), book.getIsbn(), authorIds));
+        return fresh;
+    }
+}
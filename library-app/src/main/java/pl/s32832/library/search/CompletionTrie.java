@@ -0,0 +1,324 @@
+package pl.s32832.library.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Drzewo prefiksowe (radix trie — krawędzie z całymi fragmentami tekstu) dla podpowiedzi.
+ *
+ * Każdy węzeł pamięta TOP_K najlepszych wpisów ze swojego poddrzewa, więc podpowiedź
+ * to tylko zejście po prefiksie (O(długość prefiksu)) i zwrócenie gotowej tablicy —
+ * bez przeglądania poddrzewa i bez sortowania przy zapytaniu.
+ *
+ * Wpis (Entry) może mieć kilka kluczy (np. cały tytuł i tytuł od drugiego słowa).
+ * Zmiana wpisu albo jego oceny przelicza listy TOP_K tylko na ścieżkach jego kluczy.
+ * Klasa nie jest bezpieczna wątkowo — synchronizację zapewnia AutocompleteIndex.
+ */
+final class CompletionTrie {
+
+    /** Ile najlepszych wpisów pamięta każdy węzeł (= maksymalna liczba podpowiedzi). */
+    static final int TOP_K = 10;
+
+    /** Kolejność podpowiedzi: więcej wypożyczeń, potem alfabetycznie, potem po ID. */
+    static final Comparator<Entry> RANKING = Comparator
+            .comparingLong((Entry e) -> e.score).reversed()
+            .thenComparing(e -> e.text)
+            .thenComparingLong(e -> e.id);
+
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Node root = new Node("");
+
+    /**
+     * Podpowiedź: książka (tytuł / ISBN) albo autor. score to liczba wypożyczeń;
+     * po jej zmianie trzeba wywołać rescore().
+     */
+    static final class Entry {
+
+        final long id;
+        final String text;
+        final String[] keys;
+        long score;
+
+        Entry(long id, String text, String[] keys, long score) {
+            this.id = id;
+            this.text = text;
+            this.keys = keys;
+            this.score = score;
+        }
+    }
+
+    /** Dodaje wpis pod wszystkimi jego kluczami i przelicza TOP_K na tych ścieżkach. */
+    void insert(Entry entry) {
+        for (String key : entry.keys) {
+            refresh(add(key, entry));
+        }
+    }
+
+    /** Dodaje wpis bez przeliczania TOP_K — przy budowie, zakończonej rebuildTop(). */
+    void insertDeferred(Entry entry) {
+        for (String key : entry.keys) {
+            add(key, entry);
+        }
+    }
+
+    void remove(Entry entry) {
+        for (String key : entry.keys) {
+            List<Node> path = path(key);
+            if (path == null) {
+                continue;
+            }
+            Node last = path.get(path.size() - 1);
+            last.own = without(last.own, entry);
+            refresh(path);
+            prune(path);
+        }
+    }
+
+    /** Przelicza TOP_K po zmianie oceny wpisu (wpis jest już w drzewie). */
+    void rescore(Entry entry) {
+        for (String key : entry.keys) {
+            List<Node> path = path(key);
+            if (path != null) {
+                refresh(path);
+            }
+        }
+    }
+
+    /** Przelicza TOP_K w całym drzewie (post-order). */
+    void rebuildTop() {
+        rebuildTop(root);
+    }
+
+    /**
+     * Najlepsze wpisy, których któryś klucz zaczyna się od prefix (prefix już znormalizowany).
+     * Zwraca widok tablicy węzła — wywołujący nie może jej modyfikować.
+     */
+    Entry[] complete(String prefix) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            Node child = node.child(prefix.charAt(i));
+            if (child == null) {
+                return NO_ENTRIES;
+            }
+            String label = child.label;
+            int remaining = prefix.length() - i;
+            if (label.length() >= remaining) {
+                // prefiks kończy się na tej krawędzi (albo dokładnie w węźle)
+                return label.startsWith(prefix.substring(i)) ? child.top : NO_ENTRIES;
+            }
+            if (!prefix.startsWith(label, i)) {
+                return NO_ENTRIES;
+            }
+            i += label.length();
+            node = child;
+        }
+        return node.top;
+    }
+
+    /** Liczba węzłów (do statystyk). */
+    int nodeCount() {
+        return count(root);
+    }
+
+    // --- struktura drzewa ---
+
+    /** Wstawia wpis pod kluczem; zwraca ścieżkę od korzenia do węzła klucza. */
+    private List<Node> add(String key, Entry entry) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+
+        while (i < key.length()) {
+            Node child = node.child(key.charAt(i));
+            if (child == null) {
+                Node leaf = new Node(key.substring(i));
+                node.addChild(leaf);
+                node = leaf;
+                path.add(node);
+                break;
+            }
+
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length()) {
+                // rozcięcie krawędzi: węzeł pośredni z częścią wspólną
+                Node mid = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                node.replaceChild(mid);
+                mid.addChild(child);
+                mid.top = child.top;
+                child = mid;
+            }
+            node = child;
+            path.add(node);
+            i += common;
+        }
+
+        if (!contains(node.own, entry)) {
+            node.own = append(node.own, entry);
+        }
+        return path;
+    }
+
+    /** Ścieżka do węzła dokładnie odpowiadającego kluczowi albo null. */
+    private List<Node> path(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.child(key.charAt(i));
+            if (child == null || !key.startsWith(child.label, i)) {
+                return null;
+            }
+            i += child.label.length();
+            node = child;
+            path.add(node);
+        }
+        return path;
+    }
+
+    private static void refresh(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            path.get(i).recomputeTop();
+        }
+    }
+
+    /** Usuwa z końca ścieżki węzły bez wpisów i bez dzieci. */
+    private static void prune(List<Node> path) {
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node node = path.get(i);
+            if (node.own.length > 0 || node.children.length > 0) {
+                return;
+            }
+            path.get(i - 1).removeChild(node);
+        }
+    }
+
+    private static void rebuildTop(Node node) {
+        for (Node child : node.children) {
+            rebuildTop(child);
+        }
+        node.recomputeTop();
+    }
+
+    private static int count(Node node) {
+        int n = 1;
+        for (Node child : node.children) {
+            n += count(child);
+        }
+        return n;
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int n = 0;
+        while (n < max && label.charAt(n) == key.charAt(offset + n)) {
+            n++;
+        }
+        return n;
+    }
+
+    private static boolean contains(Entry[] entries, Entry entry) {
+        for (Entry e : entries) {
+            if (e == entry) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Entry[] append(Entry[] entries, Entry entry) {
+        Entry[] result = Arrays.copyOf(entries, entries.length + 1);
+        result[entries.length] = entry;
+        return result;
+    }
+
+    private static Entry[] without(Entry[] entries, Entry entry) {
+        List<Entry> result = new ArrayList<>(entries.length);
+        for (Entry e : entries) {
+            if (e != entry) {
+                result.add(e);
+            }
+        }
+        return result.isEmpty() ? NO_ENTRIES : result.toArray(NO_ENTRIES);
+    }
+
+    /**
+     * Węzeł: label to tekst krawędzi prowadzącej do węzła, dzieci posortowane po pierwszym znaku.
+     */
+    private static final class Node {
+
+        String label;
+        char[] firstChars = new char[0];
+        Node[] children = NO_CHILDREN;
+        Entry[] own = NO_ENTRIES;
+        Entry[] top = NO_ENTRIES;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char c) {
+            int idx = Arrays.binarySearch(firstChars, c);
+            return idx >= 0 ? children[idx] : null;
+        }
+
+        void addChild(Node child) {
+            char c = child.label.charAt(0);
+            int idx = -Arrays.binarySearch(firstChars, c) - 1;
+            char[] chars = new char[firstChars.length + 1];
+            Node[] nodes = new Node[children.length + 1];
+            System.arraycopy(firstChars, 0, chars, 0, idx);
+            System.arraycopy(children, 0, nodes, 0, idx);
+            chars[idx] = c;
+            nodes[idx] = child;
+            System.arraycopy(firstChars, idx, chars, idx + 1, firstChars.length - idx);
+            System.arraycopy(children, idx, nodes, idx + 1, children.length - idx);
+            firstChars = chars;
+            children = nodes;
+        }
+
+        void replaceChild(Node child) {
+            children[Arrays.binarySearch(firstChars, child.label.charAt(0))] = child;
+        }
+
+        void removeChild(Node child) {
+            int idx = Arrays.binarySearch(firstChars, child.label.charAt(0));
+            char[] chars = new char[firstChars.length - 1];
+            Node[] nodes = new Node[children.length - 1];
+            System.arraycopy(firstChars, 0, chars, 0, idx);
+            System.arraycopy(children, 0, nodes, 0, idx);
+            System.arraycopy(firstChars, idx + 1, chars, idx, chars.length - idx);
+            System.arraycopy(children, idx + 1, nodes, idx, nodes.length - idx);
+            firstChars = chars;
+            children = nodes;
+        }
+
+        /** TOP_K z własnych wpisów i list TOP_K dzieci (bez duplikatów — wpis może mieć kilka kluczy). */
+        void recomputeTop() {
+            List<Entry> candidates = new ArrayList<>(own.length + children.length * TOP_K);
+            candidates.addAll(Arrays.asList(own));
+            for (Node child : children) {
+                candidates.addAll(Arrays.asList(child.top));
+            }
+            candidates.sort(RANKING);
+
+            List<Entry> best = new ArrayList<>(TOP_K);
+            for (Entry e : candidates) {
+                if (!best.contains(e)) {
+                    best.add(e);
+                    if (best.size() == TOP_K) {
+                        break;
+                    }
+                }
+            }
+            top = best.isEmpty() ? NO_ENTRIES : best.toArray(NO_ENTRIES);
+        }
+    }
+}
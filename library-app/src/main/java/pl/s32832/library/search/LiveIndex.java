@@ -0,0 +1,88 @@
+package pl.s32832.library.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Indeks w pamięci budowany od zera w tle i aktualizowany zdarzeniami (CatalogIndex, AutocompleteIndex).
+ *
+ * - Budowa (rebuild) nie trzyma blokady, na którą czekają zdarzenia — przebieg po całym katalogu
+ *   nie wstrzymuje wątków, które właśnie zacommitowały zmianę.
+ * - Zmiana (apply) trafia od razu do bieżącego indeksu, a jeśli trwa budowa, jest też zapamiętywana
+ *   i po zakończeniu budowy nakładana na nowy indeks tuż przed podmianą.
+ * - Krótkie sekcje (zmiana, podmiana) chroni ReentrantLock, nie synchronized — wątek wirtualny
+ *   czekający na blokadę indeksu nie zajmuje wątku nośnego.
+ *
+ * Spójność samego indeksu przy równoległych odczytach i zmianach zapewnia jego własny ReadWriteLock.
+ */
+final class LiveIndex<T> {
+
+    private final Lock lock = new ReentrantLock();
+    private final Lock rebuildLock = new ReentrantLock();
+
+    private volatile T current;
+
+    // zmiany z czasu trwającej budowy (null, gdy budowa nie trwa); chronione przez lock
+    private List<Consumer<T>> pending;
+
+    LiveIndex(T initial) {
+        this.current = initial;
+    }
+
+    T get() {
+        return current;
+    }
+
+    /**
+     * Buduje nowy indeks i podmienia go po nałożeniu zmian, które przyszły w trakcie budowy.
+     * Równoległe przebudowy wykonują się po kolei.
+     */
+    void rebuild(Supplier<T> builder) {
+        rebuildLock.lock();
+        try {
+            lock.lock();
+            try {
+                pending = new ArrayList<>();
+            } finally {
+                lock.unlock();
+            }
+
+            T fresh = null;
+            try {
+                fresh = builder.get();
+            } finally {
+                lock.lock();
+                try {
+                    if (fresh != null) {
+                        for (Consumer<T> change : pending) {
+                            change.accept(fresh);
+                        }
+                        current = fresh;
+                    }
+                    pending = null;
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /** Nakłada zmianę na bieżący indeks (i zapamiętuje ją, jeśli trwa budowa). */
+    void apply(Consumer<T> change) {
+        lock.lock();
+        try {
+            if (pending != null) {
+                pending.add(change);
+            }
+            change.accept(current);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package pl.s32832.library.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Lista dokumentów (wewnętrznych numerów książek) zawierających term.
+ *
+ * Posortowana tablica int[] bez obiektów na element — kilka bajtów na wystąpienie termu
+ * zamiast kilkudziesięciu dla Set<Long>. Nowe książki dostają rosnące numery,
+ * więc typowe dodanie to dopisanie na końcu.
+ */
+final class PostingList {
+
+    private int[] docs = new int[2];
+    private int size;
+
+    void add(int doc) {
+        if (size == 0 || docs[size - 1] < doc) {
+            ensureCapacity();
+            docs[size++] = doc;
+            return;
+        }
+        int pos = Arrays.binarySearch(docs, 0, size, doc);
+        if (pos >= 0) {
+            return;
+        }
+        int insertAt = -pos - 1;
+        ensureCapacity();
+        System.arraycopy(docs, insertAt, docs, insertAt + 1, size - insertAt);
+        docs[insertAt] = doc;
+        size++;
+    }
+
+    void remove(int doc) {
+        int pos = Arrays.binarySearch(docs, 0, size, doc);
+        if (pos >= 0) {
+            System.arraycopy(docs, pos + 1, docs, pos, size - pos - 1);
+            size--;
+        }
+    }
+
+    boolean contains(int doc) {
+        return Arrays.binarySearch(docs, 0, size, doc) >= 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int index) {
+        return docs[index];
+    }
+
+    /** Zajęta pamięć tablicy (do statystyk indeksu). */
+    long capacityBytes() {
+        return 16L + 4L * docs.length;
+    }
+
+    void addTo(BitSet target) {
+        for (int i = 0; i < size; i++) {
+            target.set(docs[i]);
+        }
+    }
+
+    private void ensureCapacity() {
+        if (size == docs.length) {
+            docs = Arrays.copyOf(docs, docs.length + (docs.length >> 1) + 1);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package pl.s32832.library.search;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Podział tekstu na termy indeksu: małe litery, separatorem jest wszystko poza literami i cyframi.
+ * Te same reguły obowiązują przy indeksowaniu i przy zapytaniu.
+ */
+final class Tokenizer {
+
+    private Tokenizer() {}
+
+    static Set<String> tokens(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Termy ISBN: części rozdzielone myślnikami oraz cały numer bez separatorów
+     * ("978-83-240" -> 978, 83, 240, 97883240).
+     */
+    static Set<String> isbnTokens(String isbn) {
+        Set<String> tokens = tokens(isbn);
+        String compact = compactIsbn(isbn);
+        if (!compact.isEmpty()) {
+            tokens.add(compact);
+        }
+        return tokens;
+    }
+
+    /** ISBN bez separatorów, małymi literami ("83-240-x" -> "83240x"). */
+    static String compactIsbn(String isbn) {
+        return isbn == null ? "" : isbn.replaceAll("[^0-9Xx]", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Tekst jako ciąg słów rozdzielonych pojedynczą spacją, małymi literami
+     * ("The  Hobbit, or..." -> "the hobbit or"). Kolejność i powtórzenia słów zostają.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+}
@@ -0,0 +1,222 @@
+package pl.s32832.library.seed;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import pl.s32832.library.entity.IdGeneration;
+import pl.s32832.library.seed.SyntheticData.BookRow;
+import pl.s32832.library.seed.SyntheticData.LoanRow;
+import pl.s32832.library.seed.SyntheticData.UserRow;
+import pl.s32832.library.util.DateTimeProvider;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tryb wiersza poleceń: wypełnia bazę danymi syntetycznymi i kończy działanie.
+ *
+ * Uruchomienie (profil "seed" wyłącza serwer WWW i ustawia paczkowanie INSERT-ów w sterowniku):
+ *   java -jar target/library-app-1.0.0.jar --spring.profiles.active=seed --library.seed.loans=10000000
+ *
+ * Zapis idzie z pominięciem JPA — JdbcTemplate.batchUpdate paczkami library.seed.batch-size,
+ * z kluczami nadawanymi przez generator (za aktualnym max(id) tabeli). Na końcu sekwencje są
+ * przesuwane za nowe klucze, tak jak w migracji V1, więc aplikacja dalej poprawnie nadaje ID.
+ * Dane są dopisywane do istniejących; to samo ziarno na pustej bazie daje te same wiersze.
+ */
+@Component
+@ConditionalOnProperty(prefix = "library.seed", name = "enabled", havingValue = "true")
+public class DatasetGenerator implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    private static final long PROGRESS_EVERY = 1_000_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SeedProperties properties;
+    private final DateTimeProvider dateTimeProvider;
+
+    public DatasetGenerator(JdbcTemplate jdbcTemplate,
+                            SeedProperties properties,
+                            DateTimeProvider dateTimeProvider) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.dateTimeProvider = dateTimeProvider;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (properties.authors() < 1 || properties.books() < 1 || properties.users() < 1) {
+            throw new IllegalArgumentException("library.seed.authors, books and users must be >= 1");
+        }
+        LocalDate referenceDate = properties.referenceDate() != null
+                ? properties.referenceDate()
+                : dateTimeProvider.today();
+        SyntheticData data = new SyntheticData(
+                properties.seed(), referenceDate, properties.authors(), properties.books());
+
+        long start = System.nanoTime();
+        long authorBase = maxId("authors");
+        long bookBase = maxId("books");
+        long userBase = maxId("users");
+        long profileBase = maxId("user_profiles");
+        long loanBase = maxId("loans");
+
+        insertAuthors(data, authorBase);
+        insertBooks(data, bookBase, authorBase);
+        insertUsers(data, userBase, profileBase);
+        insertLoans(data, loanBase, bookBase, userBase);
+        updateAvailableCopies(data, bookBase);
+        resetSequences();
+
+        log.info("Seed finished in {} s: {} authors, {} books, {} users, {} loans (seed={}, reference date={})",
+                (System.nanoTime() - start) / 1_000_000_000, properties.authors(), properties.books(),
+                properties.users(), properties.loans(), properties.seed(), referenceDate);
+    }
+
+    private void insertAuthors(SyntheticData data, long base) {
+        String sql = "insert into authors (id, name) values (?, ?)";
+        List<Object[]> batch = new ArrayList<>(properties.batchSize());
+        for (int i = 0; i < properties.authors(); i++) {
+            batch.add(new Object[]{base + i + 1, data.author().name()});
+            flushIfFull(sql, batch);
+        }
+        flush(sql, batch);
+    }
+
+    private void insertBooks(SyntheticData data, long base, long authorBase) {
+        String bookSql = "insert into books (id, title, isbn, total_copies, available_copies, version) "
+                + "values (?, ?, ?, ?, ?, 0)";
+        String linkSql = "insert into book_authors (book_id, author_id) values (?, ?)";
+
+        List<Object[]> books = new ArrayList<>(properties.batchSize());
+        List<Object[]> links = new ArrayList<>(properties.batchSize());
+        for (int i = 0; i < properties.books(); i++) {
+            long id = base + i + 1;
+            BookRow row = data.book(i, id);
+            books.add(new Object[]{id, row.title(), row.isbn(), row.copies(), row.copies()});
+            links.add(new Object[]{id, authorBase + row.firstAuthor() + 1});
+            if (row.secondAuthor() >= 0) {
+                links.add(new Object[]{id, authorBase + row.secondAuthor() + 1});
+            }
+            if (books.size() >= properties.batchSize()) {
+                // książki przed powiązaniami (klucz obcy book_authors.book_id)
+                flush(bookSql, books);
+                flush(linkSql, links);
+            }
+        }
+        flush(bookSql, books);
+        flush(linkSql, links);
+    }
+
+    private void insertUsers(SyntheticData data, long userBase, long profileBase) {
+        String userSql = "insert into users (id, email, full_name) values (?, ?, ?)";
+        String profileSql = "insert into user_profiles (id, address, phone, user_id) values (?, ?, ?, ?)";
+
+        List<Object[]> users = new ArrayList<>(properties.batchSize());
+        List<Object[]> profiles = new ArrayList<>(properties.batchSize());
+        for (int i = 0; i < properties.users(); i++) {
+            long id = userBase + i + 1;
+            UserRow row = data.user(id);
+            users.add(new Object[]{id, row.email(), row.fullName()});
+            profiles.add(new Object[]{profileBase + i + 1, row.address(), row.phone(), id});
+            if (users.size() >= properties.batchSize()) {
+                flush(userSql, users);
+                flush(profileSql, profiles);
+            }
+        }
+        flush(userSql, users);
+        flush(profileSql, profiles);
+    }
+
+    /**
+     * Wypożyczenia — najliczniejsza tabela, dlatego bez List<Object[]>:
+     * paczka rekordów LoanRow wpisywana do PreparedStatement bezpośrednio.
+     */
+    private void insertLoans(SyntheticData data, long loanBase, long bookBase, long userBase) {
+        String sql = "insert into loans (id, user_id, book_id, loan_date, due_date, return_date, version) "
+                + "values (?, ?, ?, ?, ?, ?, 0)";
+        LoanRow[] chunk = new LoanRow[properties.batchSize()];
+
+        long written = 0;
+        while (written < properties.loans()) {
+            int size = (int) Math.min(chunk.length, properties.loans() - written);
+            for (int i = 0; i < size; i++) {
+                chunk[i] = data.loan(properties.users());
+            }
+            long firstId = loanBase + written + 1;
+
+            jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    LoanRow row = chunk[i];
+                    ps.setLong(1, firstId + i);
+                    ps.setLong(2, userBase + row.userIndex() + 1);
+                    ps.setLong(3, bookBase + row.bookIndex() + 1);
+                    ps.setObject(4, row.loanDate());
+                    ps.setObject(5, row.dueDate());
+                    ps.setObject(6, row.returnDate());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return size;
+                }
+            });
+
+            long before = written;
+            written += size;
+            if (written / PROGRESS_EVERY != before / PROGRESS_EVERY) {
+                log.info("Seed: {} / {} loans", written, properties.loans());
+            }
+        }
+    }
+
+    /** available_copies = total_copies - aktywne wypożyczenia (tylko książki z aktywnymi). */
+    private void updateAvailableCopies(SyntheticData data, long bookBase) {
+        List<Object[]> batch = new ArrayList<>(properties.batchSize());
+        String sql = "update books set available_copies = ? where id = ?";
+        for (int i = 0; i < properties.books(); i++) {
+            int active = data.activeLoans(i);
+            if (active > 0) {
+                batch.add(new Object[]{data.copies(i) - active, bookBase + i + 1});
+                flushIfFull(sql, batch);
+            }
+        }
+        flush(sql, batch);
+    }
+
+    /** Sekwencje za max(id) z zapasem jednego bloku IdGeneration.ALLOCATION_SIZE (jak w V1__schema.sql). */
+    private void resetSequences() {
+        for (String table : List.of("authors", "books", "users", "user_profiles", "loans")) {
+            jdbcTemplate.queryForList(
+                    "select setval('" + table + "_seq', max(id) + " + (IdGeneration.ALLOCATION_SIZE + 1) + ", false) from " + table
+                            + " having max(id) is not null");
+        }
+    }
+
+    private long maxId(String table) {
+        Long max = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+        return max == null ? 0 : max;
+    }
+
+    private void flushIfFull(String sql, List<Object[]> batch) {
+        if (batch.size() >= properties.batchSize()) {
+            flush(sql, batch);
+        }
+    }
+
+    private void flush(String sql, List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+            batch.clear();
+        }
+    }
+}
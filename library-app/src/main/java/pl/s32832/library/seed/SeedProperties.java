@@ -0,0 +1,27 @@
+package pl.s32832.library.seed;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Ustawienia generatora danych syntetycznych (profil "seed").
+ *
+ * application-seed.yml / linia poleceń:
+ * library.seed.authors / books / users / loans -> liczba wierszy do dodania
+ * library.seed.seed            -> ziarno losowania (to samo ziarno = te same dane)
+ * library.seed.reference-date  -> "dzisiaj" dla dat wypożyczeń (brak = data systemowa)
+ * library.seed.batch-size      -> liczba wierszy w jednej paczce JDBC
+ */
+@ConfigurationProperties(prefix = "library.seed")
+public record SeedProperties(
+        @DefaultValue("1000") int authors,
+        @DefaultValue("10000") int books,
+        @DefaultValue("1000") int users,
+        @DefaultValue("100000") long loans,
+        @DefaultValue("42") long seed,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate referenceDate,
+        @DefaultValue("5000") int batchSize
+) {}
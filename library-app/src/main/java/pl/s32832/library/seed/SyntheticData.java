@@ -0,0 +1,175 @@
+package pl.s32832.library.seed;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministyczne dane syntetyczne: to samo ziarno i ta sama data odniesienia -> te same wiersze,
+ * niezależnie od rozmiaru paczek zapisu.
+ *
+ * Każda tabela ma własny strumień losowy (ziarno XOR stała tabeli), a wiersze są generowane
+ * po kolei — generator nie trzyma w pamięci nic poza licznikami aktywnych wypożyczeń.
+ *
+ * Rozkłady:
+ * - autorzy książek i popularność książek są skośne (potęga liczby losowej): niewielu autorów
+ *   ma dużo książek, niewiele książek ma dużo wypożyczeń — jak w prawdziwym katalogu,
+ * - wypożyczenia: ~80% oddanych, ~15% aktywnych w terminie, ~5% przeterminowanych;
+ *   aktywne nigdy nie przekraczają liczby egzemplarzy książki; gdy wolnych egzemplarzy w katalogu
+ *   brakuje (mało książek, dużo wypożyczeń), nadmiar staje się oddanym.
+ */
+final class SyntheticData {
+
+    static final int LOAN_DAYS = 14;
+    static final int HISTORY_DAYS = 3 * 365;
+
+    static final double ACTIVE_RATIO = 0.15;
+    static final double OVERDUE_RATIO = 0.05;
+
+    // ile razy szukać książki z wolnym egzemplarzem, zanim aktywne wypożyczenie stanie się oddanym
+    private static final int FREE_COPY_ATTEMPTS = 8;
+
+    private static final long AUTHORS_STREAM = 0x41L;
+    private static final long BOOKS_STREAM = 0x42L;
+    private static final long USERS_STREAM = 0x55L;
+    private static final long LOANS_STREAM = 0x4CL;
+
+    private static final String[] FIRST_NAMES = {
+            "Anna", "Jan", "Maria", "Piotr", "Katarzyna", "Paweł", "Agnieszka", "Tomasz", "Ewa", "Michał",
+            "Olga", "Adam", "Zofia", "Marek", "Joanna", "Stanisław", "Barbara", "Krzysztof", "Alicja", "Wojciech"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Nowak", "Kowalski", "Wiśniewski", "Wójcik", "Kowalczyk", "Kamiński", "Lewandowski", "Zieliński",
+            "Szymański", "Woźniak", "Dąbrowski", "Kozłowski", "Jankowski", "Mazur", "Kwiatkowski", "Krawczyk",
+            "Piotrowski", "Grabowski", "Nowakowski", "Pawłowski", "Michalski", "Król", "Wieczorek", "Jabłoński"
+    };
+
+    private static final String[] TITLE_WORDS = {
+            "cień", "miasto", "ogród", "wiatr", "noc", "rzeka", "dom", "czas", "morze", "las", "kamień",
+            "światło", "droga", "sen", "zima", "lato", "pamięć", "gwiazda", "most", "wyspa", "ogień",
+            "serce", "zamek", "góra", "list", "księga", "wojna", "pokój", "podróż", "tajemnica", "cisza", "burza"
+    };
+
+    private final SplittableRandom authorsRandom;
+    private final SplittableRandom booksRandom;
+    private final SplittableRandom usersRandom;
+    private final SplittableRandom loansRandom;
+
+    private final LocalDate referenceDate;
+    private final int authorCount;
+    private final int[] copies;
+    private final int[] active;
+
+    SyntheticData(long seed, LocalDate referenceDate, int authors, int books) {
+        this.authorsRandom = new SplittableRandom(seed ^ AUTHORS_STREAM);
+        this.booksRandom = new SplittableRandom(seed ^ BOOKS_STREAM);
+        this.usersRandom = new SplittableRandom(seed ^ USERS_STREAM);
+        this.loansRandom = new SplittableRandom(seed ^ LOANS_STREAM);
+        this.referenceDate = referenceDate;
+        this.authorCount = authors;
+        this.copies = new int[books];
+        this.active = new int[books];
+    }
+
+    record AuthorRow(String name) {}
+
+    record BookRow(String title, String isbn, int copies, int firstAuthor, int secondAuthor) {}
+
+    record UserRow(String email, String fullName, String address, String phone) {}
+
+    /** bookIndex = indeks książki (0..books-1); returnDate = null -> wypożyczenie aktywne. */
+    record LoanRow(int userIndex, int bookIndex, LocalDate loanDate, LocalDate dueDate, LocalDate returnDate) {}
+
+    AuthorRow author() {
+        return new AuthorRow(pick(authorsRandom, FIRST_NAMES) + " " + pick(authorsRandom, LAST_NAMES));
+    }
+
+    /**
+     * Książka o indeksie index (kolejne wywołania: 0, 1, 2...) i kluczu id — id trafia do ISBN,
+     * żeby kolejne uruchomienia generatora nie łamały unikalności. Autorzy wskazani indeksem
+     * (0..authors-1), secondAuthor = -1 -> jeden autor.
+     */
+    BookRow book(int index, long id) {
+        String title = capitalize(pick(booksRandom, TITLE_WORDS)) + " " + pick(booksRandom, TITLE_WORDS);
+        if (booksRandom.nextInt(3) == 0) {
+            title += " i " + pick(booksRandom, TITLE_WORDS);
+        }
+        int bookCopies = 1 + booksRandom.nextInt(10);
+        copies[index] = bookCopies;
+
+        int first = skewed(booksRandom, authorCount, 3.0);
+        int second = -1;
+        if (authorCount > 1 && booksRandom.nextInt(5) == 0) {
+            second = skewed(booksRandom, authorCount, 3.0);
+            if (second == first) {
+                second = -1;
+            }
+        }
+        String isbn = String.format("978-%02d-%09d", id % 100, id);
+        return new BookRow(title, isbn, bookCopies, first, second);
+    }
+
+    /** Użytkownik o kluczu id (id w adresie email — unikalność między uruchomieniami). */
+    UserRow user(long id) {
+        String first = pick(usersRandom, FIRST_NAMES);
+        String last = pick(usersRandom, LAST_NAMES);
+        String phone = String.format("+48 %03d %03d %03d",
+                500 + usersRandom.nextInt(300), usersRandom.nextInt(1000), usersRandom.nextInt(1000));
+        String address = "ul. " + capitalize(pick(usersRandom, TITLE_WORDS)) + " " + (1 + usersRandom.nextInt(200))
+                + ", Warszawa";
+        return new UserRow("user" + id + "@seed.example", first + " " + last, address, phone);
+    }
+
+    /**
+     * Kolejne wypożyczenie. Wymaga wcześniej wygenerowanych książek (book(i) dla wszystkich i).
+     */
+    LoanRow loan(int users) {
+        int userIndex = loansRandom.nextInt(users);
+        int bookIndex = skewed(loansRandom, copies.length, 2.0);
+        double kind = loansRandom.nextDouble();
+
+        if (kind < ACTIVE_RATIO + OVERDUE_RATIO) {
+            // popularne książki szybko nie mają wolnych egzemplarzy — szukamy innej, dowolnej
+            for (int attempt = 0; attempt < FREE_COPY_ATTEMPTS; attempt++) {
+                if (active[bookIndex] < copies[bookIndex]) {
+                    break;
+                }
+                bookIndex = loansRandom.nextInt(copies.length);
+            }
+        }
+        if (kind < ACTIVE_RATIO + OVERDUE_RATIO && active[bookIndex] < copies[bookIndex]) {
+            active[bookIndex]++;
+            LocalDate loanDate = kind < OVERDUE_RATIO
+                    ? referenceDate.minusDays(LOAN_DAYS + 1 + loansRandom.nextInt(120))
+                    : referenceDate.minusDays(loansRandom.nextInt(LOAN_DAYS));
+            return new LoanRow(userIndex, bookIndex, loanDate, loanDate.plusDays(LOAN_DAYS), null);
+        }
+
+        // oddane: zwrot 1..21 dni po wypożyczeniu, zawsze przed datą odniesienia
+        LocalDate loanDate = referenceDate.minusDays(LOAN_DAYS + 8 + loansRandom.nextInt(HISTORY_DAYS));
+        LocalDate returnDate = loanDate.plusDays(1 + loansRandom.nextInt(LOAN_DAYS + 7));
+        return new LoanRow(userIndex, bookIndex, loanDate, loanDate.plusDays(LOAN_DAYS), returnDate);
+    }
+
+    /** Liczba aktywnych wypożyczeń książki (do ustawienia available_copies). */
+    int activeLoans(int bookIndex) {
+        return active[bookIndex];
+    }
+
+    int copies(int bookIndex) {
+        return copies[bookIndex];
+    }
+
+    /** Indeks z przedziału 0..n-1, małe indeksy dużo częstsze (im większy exponent, tym bardziej skośny). */
+    static int skewed(SplittableRandom random, int n, double exponent) {
+        return Math.min(n - 1, (int) (n * Math.pow(random.nextDouble(), exponent)));
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
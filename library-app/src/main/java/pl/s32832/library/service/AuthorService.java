@@ -1,10 +1,17 @@
 package pl.s32832.library.service;
 
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import pl.s32832.library.cache.SecondLevelCacheEvictor;
 import pl.s32832.library.dto.request.CreateAuthorRequest;
 import pl.s32832.library.dto.request.UpdateAuthorRequest;
+import pl.s32832.library.dto.response.CursorPage;
 import pl.s32832.library.entity.Author;
+import pl.s32832.library.event.AuthorChangedEvent;
+import pl.s32832.library.event.AuthorDeletedEvent;
 import pl.s32832.library.exception.NotFoundException;
 import pl.s32832.library.repository.AuthorRepository;
 
@@ -16,23 +23,33 @@ import java.util.List;
  * Tutaj znajduje się logika aplikacji związana z autorami.
  * Kontroler wywołuje metody serwisu, a serwis korzysta z repozytorium,
  * aby wykonywać operacje na bazie danych.
+ * Zmiany autorów są publikowane jako zdarzenia (pakiet event).
  */
+@Timed("library.service")
 @Service
 @Transactional
 public class AuthorService {
 
     private final AuthorRepository authorRepository;
+    private final SecondLevelCacheEvictor cacheEvictor;
+    private final ApplicationEventPublisher events;
 
 
-    public AuthorService(AuthorRepository authorRepository) {
+    public AuthorService(AuthorRepository authorRepository,
+                         SecondLevelCacheEvictor cacheEvictor,
+                         ApplicationEventPublisher events) {
         this.authorRepository = authorRepository;
+        this.cacheEvictor = cacheEvictor;
+        this.events = events;
     }
 
     /**
      * Tworzy nowego autora.
      */
     public Author create(CreateAuthorRequest req) {
-        return authorRepository.save(new Author(req.getName()));
+        Author saved = authorRepository.save(new Author(req.getName()));
+        events.publishEvent(new AuthorChangedEvent(saved.getId(), saved.getName()));
+        return saved;
     }
 
     /**
@@ -55,15 +72,30 @@ public class AuthorService {
         return authorRepository.findAll();
     }
 
+    /**
+     * Zwraca stronę autorów po kursorze (afterId = null -> pierwsza strona).
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Author> getPage(Long afterId, int limit) {
+        int size = CursorPage.clampLimit(limit);
+        return CursorPage.of(
+                authorRepository.findByIdGreaterThanOrderByIdAsc(afterId == null ? 0L : afterId, Limit.of(size + 1)),
+                size, Author::getId);
+    }
+
     /**
      * Aktualizacja autora.
      * Najpierw pobieramy autora (albo rzucamy NotFoundException),
      * potem zmieniamy dane i zapisujemy.
+     * Po commicie autor znika z cache 2. poziomu (SecondLevelCacheEvictor).
      */
     public Author update(Long id, UpdateAuthorRequest req) throws NotFoundException {
         Author a = getById(id);
         a.setName(req.getName());
-        return authorRepository.save(a);
+        Author saved = authorRepository.save(a);
+        cacheEvictor.evictAuthor(id);
+        events.publishEvent(new AuthorChangedEvent(id, saved.getName()));
+        return saved;
     }
 
     /**
@@ -74,5 +106,7 @@ public class AuthorService {
     public void delete(Long id) throws NotFoundException {
         Author a = getById(id);
         authorRepository.delete(a);
+        cacheEvictor.evictAuthor(id);
+        events.publishEvent(new AuthorDeletedEvent(id));
     }
 }
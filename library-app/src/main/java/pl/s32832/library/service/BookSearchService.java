@@ -0,0 +1,84 @@
+package pl.s32832.library.service;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pl.s32832.library.dto.response.BookSearchHit;
+import pl.s32832.library.dto.response.BookSearchResponse;
+import pl.s32832.library.exception.ValidationException;
+import pl.s32832.library.repository.BookRepository;
+import pl.s32832.library.repository.BookRepository.SearchHit;
+import pl.s32832.library.util.SearchQueries;
+
+import java.util.List;
+
+/**
+ * Wyszukiwanie książek po tytule, ISBN i nazwiskach autorów.
+ *
+ * Zapytanie idzie do indeksu pełnotekstowego w bazie (books.search_vector + GIN),
+ * wyniki są posortowane po trafności i stronicowane numerem strony.
+ */
+@Timed("library.service")
+@Service
+@Transactional(readOnly = true)
+public class BookSearchService {
+
+    /** Domyślny rozmiar strony wyników. */
+    public static final int DEFAULT_SIZE = 20;
+
+    /** Maksymalny rozmiar strony wyników. */
+    public static final int MAX_SIZE = 50;
+
+    /**
+     * Najgłębszy dostępny wynik (page * size + size). Głębokie strony wymagają
+     * policzenia trafności i posortowania coraz większej liczby wierszy — nikt nie przegląda
+     * setek stron wyników, więc zamiast tego prosimy o doprecyzowanie zapytania.
+     */
+    public static final int MAX_RESULT_WINDOW = 1000;
+
+    private final BookRepository bookRepository;
+
+    public BookSearchService(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    /**
+     * Zwraca stronę wyników dla tekstu query.
+     * Tekst bez słowa o długości SearchQueries.MIN_PREFIX_LENGTH -> pusta strona bez zapytania do bazy.
+     */
+    public BookSearchResponse search(String query, int page, int size) throws ValidationException {
+        int pageSize = Math.max(1, Math.min(size, MAX_SIZE));
+        if (page < 0) {
+            throw new ValidationException("page must be >= 0");
+        }
+        if ((long) page * pageSize + pageSize > MAX_RESULT_WINDOW) {
+            throw new ValidationException("Result window too large (max " + MAX_RESULT_WINDOW + "), refine the query");
+        }
+
+        String tsQuery = SearchQueries.prefixTsQuery(query);
+        if (tsQuery.isEmpty()) {
+            return new BookSearchResponse(List.of(), page, pageSize, false, false);
+        }
+
+        // jeden wiersz więcej -> wiadomo, czy jest kolejna strona (bez COUNT po wszystkich trafieniach)
+        List<SearchHit> rows = bookRepository.search(tsQuery, pageSize + 1, page * pageSize);
+
+        List<BookSearchHit> items = rows.stream()
+                .limit(pageSize)
+                .map(BookSearchService::toHit)
+                .toList();
+        boolean truncated = !rows.isEmpty() && rows.get(0).getTruncated();
+        return new BookSearchResponse(items, page, pageSize, rows.size() > pageSize, truncated);
+    }
+
+    private static BookSearchHit toHit(SearchHit row) {
+        return new BookSearchHit(
+                row.getId(),
+                row.getTitle(),
+                row.getIsbn(),
+                row.getTotalCopies(),
+                row.getAvailableCopies(),
+                row.getRank()
+        );
+    }
+}
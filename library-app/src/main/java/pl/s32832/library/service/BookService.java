@@ -1,17 +1,32 @@
 package pl.s32832.library.service;
 
+import io.micrometer.core.annotation.Timed;
+import org.hibernate.Hibernate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import pl.s32832.library.cache.SecondLevelCacheEvictor;
 import pl.s32832.library.dto.request.CreateBookRequest;
 import pl.s32832.library.dto.request.UpdateBookRequest;
+import pl.s32832.library.dto.response.BookLookupResponse;
+import pl.s32832.library.dto.response.BookResponse;
+import pl.s32832.library.dto.response.CursorPage;
 import pl.s32832.library.entity.Author;
 import pl.s32832.library.entity.Book;
+import pl.s32832.library.event.BookChangedEvent;
+import pl.s32832.library.event.BookDeletedEvent;
 import pl.s32832.library.exception.BusinessRuleException;
 import pl.s32832.library.exception.NotFoundException;
 import pl.s32832.library.exception.ValidationException;
 import pl.s32832.library.repository.BookRepository;
+import pl.s32832.library.retry.RetryOnConflict;
+import pl.s32832.library.util.Lookups;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Serwis obsługujący logikę biznesową książek (Book).
@@ -19,17 +34,27 @@ import java.util.List;
  * - Kontroler wywołuje metody tego serwisu
  * - Serwis waliduje reguły biznesowe (np. ISBN unikalny, liczba egzemplarzy)
  * - Zapis/odczyt danych odbywa się przez BookRepository
+ * - Zmiany tytułu, ISBN i autorów są publikowane jako zdarzenia (pakiet event),
+ *   np. dla indeksu wyszukiwania w pamięci
  */
+@Timed("library.service")
 @Service
 @Transactional
 public class BookService {
 
     private final BookRepository bookRepository;
     private final AuthorService authorService;
+    private final SecondLevelCacheEvictor cacheEvictor;
+    private final ApplicationEventPublisher events;
 
-    public BookService(BookRepository bookRepository, AuthorService authorService) {
+    public BookService(BookRepository bookRepository,
+                       AuthorService authorService,
+                       SecondLevelCacheEvictor cacheEvictor,
+                       ApplicationEventPublisher events) {
         this.bookRepository = bookRepository;
         this.authorService = authorService;
+        this.cacheEvictor = cacheEvictor;
+        this.events = events;
     }
 
     /**
@@ -43,19 +68,25 @@ public class BookService {
 
         // Tworzymy encję Book na podstawie requestu i zapisujemy do bazy przez ORM
         Book book = new Book(req.getTitle(), req.getIsbn(), req.getTotalCopies());
-        return bookRepository.save(book);
+        Book saved = bookRepository.save(book);
+        events.publishEvent(BookChangedEvent.of(saved));
+        return saved;
     }
 
     /**
-     * Pobiera książkę po ID.
-     * Używamy specjalnej metody repozytorium z EntityGraph,
-     * żeby od razu pobrać autorów (ManyToMany)
+     * Pobiera książkę po ID razem z autorami (ManyToMany).
+     *
+     * findById() + inicjalizacja kolekcji zamiast zapytania z EntityGraph:
+     * zapytanie zawsze idzie do bazy, a findById() i kolekcja authors korzystają
+     * z cache 2. poziomu (książka, lista ID autorów, autorzy).
      * readOnly = true -> optymalizacja dla odczytu.
      */
     @Transactional(readOnly = true)
     public Book getById(Long id) throws NotFoundException {
-        return bookRepository.findWithAuthorsById(id)
+        Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Book not found: " + id));
+        Hibernate.initialize(book.getAuthors());
+        return book;
     }
 
     /**
@@ -67,13 +98,65 @@ public class BookService {
         return bookRepository.findAll();
     }
 
+    /**
+     * Pobiera stronę książek (paginacja kursorowa).
+     *
+     * afterId = null -> pierwsza strona. Pobieramy limit + 1 wierszy, żeby wiedzieć,
+     * czy istnieje kolejna strona, bez osobnego COUNT.
+     * Autorzy są inicjalizowani jeszcze w transakcji — Hibernate ładuje ich
+     * paczkami (default_batch_fetch_size), a nie osobnym zapytaniem na każdą książkę.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Book> getPage(Long afterId, int limit) {
+        int size = CursorPage.clampLimit(limit);
+        List<Book> books = bookRepository.findByIdGreaterThanOrderByIdAsc(
+                afterId == null ? 0L : afterId, Limit.of(size + 1));
+
+        CursorPage<Book> page = CursorPage.of(books, size, Book::getId);
+        page.items().forEach(b -> Hibernate.initialize(b.getAuthors()));
+        return page;
+    }
+
+    /**
+     * Strona książek jako BookResponse (REST), tak jak getPage, ale jednym zapytaniem
+     * i bez hydratacji encji — ID autorów skleja baza.
+     * Pojedyncza książka zostaje przy getById: trafienie w cache 2. poziomu jest tańsze
+     * od projekcji, która zawsze pyta bazę (ReadPathBenchmark).
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<BookResponse> getResponsePage(Long afterId, int limit) {
+        int size = CursorPage.clampLimit(limit);
+        return CursorPage.of(
+                bookRepository.findResponsesAfter(afterId == null ? 0L : afterId, Limit.of(size + 1)),
+                size, BookResponse::id);
+    }
+
+    /**
+     * Podpowiedzi książek (tytuł / ISBN zaczyna się od query) do formularza wypożyczenia.
+     * Query krótsze niż Lookups.MIN_QUERY_LENGTH -> pusta lista, bez zapytania do bazy.
+     */
+    @Transactional(readOnly = true)
+    public List<BookLookupResponse> lookup(String query, int limit) {
+        if (Lookups.tooShort(query)) {
+            return List.of();
+        }
+        return bookRepository.lookup(Lookups.likePrefix(query), Lookups.clampLimit(limit)).stream()
+                .map(row -> new BookLookupResponse(row.getId(), row.getTitle(), row.getIsbn(), row.getAvailableCopies()))
+                .toList();
+    }
+
     /**
      * Aktualizuje książkę.
      *
      * Najważniejsza reguła biznesowa:
      * - nie można zmniejszyć totalCopies poniżej liczby wypożyczonych egzemplarzy.
      * borrowed = totalCopies - availableCopies
+     *
+     * Book ma @Version — jeśli w międzyczasie ktoś wypożyczył/oddał egzemplarz
+     * albo edytował książkę, zapis dostanie konflikt i cała metoda zostanie powtórzona
+     * na świeżych danych (@RetryOnConflict), zamiast nadpisać cudze zmiany.
      */
+    @RetryOnConflict
     public Book update(Long id, UpdateBookRequest req) throws NotFoundException, BusinessRuleException {
         Book book = getById(id);
 
@@ -98,7 +181,62 @@ public class BookService {
         // np. total 5 -> 3 => available -2 (ale tylko jeśli reguła biznesowa pozwala)
         book.setAvailableCopies(book.getAvailableCopies() + delta);
 
-        return bookRepository.save(book);
+        Book saved = bookRepository.save(book);
+        cacheEvictor.evictBook(id);
+        events.publishEvent(BookChangedEvent.of(saved));
+        return saved;
+    }
+
+    /**
+     * Rezerwuje jeden egzemplarz książki do wypożyczenia.
+     *
+     * Sprawdzenie dostępności i zmniejszenie availableCopies to jeden warunkowy UPDATE,
+     * więc równoległe wypożyczenia tej samej książki nie zejdą poniżej zera.
+     * Zwraca referencję do książki (bez dodatkowego SELECT), wystarczającą do utworzenia Loan.
+     * Po commicie z cache 2. poziomu znika tylko ta książka (nie cały region).
+     */
+    public Book checkoutCopy(Long id) throws NotFoundException, BusinessRuleException {
+        if (bookRepository.decrementAvailableCopies(id) == 0) {
+            // UPDATE nic nie zmienił -> rozróżniamy brak książki od braku egzemplarzy
+            if (!bookRepository.existsById(id)) {
+                throw new NotFoundException("Book not found: " + id);
+            }
+            throw new BusinessRuleException("Book is not available for loan");
+        }
+        cacheEvictor.evictBookEntity(id);
+        return bookRepository.getReferenceById(id);
+    }
+
+    /**
+     * Przywraca jeden egzemplarz książki (zwrot lub usunięcie aktywnego wypożyczenia).
+     * Tak jak checkoutCopy — jeden warunkowy UPDATE zamiast odczytu i zapisu encji.
+     */
+    public void returnCopy(Long id) {
+        bookRepository.incrementAvailableCopies(id);
+        cacheEvictor.evictBookEntity(id);
+    }
+
+    /**
+     * Przywraca kilka egzemplarzy tej samej książki jednym UPDATE (zwrot wsadowy).
+     */
+    public void returnCopies(Long id, int count) {
+        bookRepository.incrementAvailableCopiesBy(id, count);
+        cacheEvictor.evictBookEntity(id);
+    }
+
+    /**
+     * Blokuje wiersze wielu książek do końca transakcji (jedno zapytanie, SELECT ... FOR UPDATE).
+     *
+     * Blokady są brane w kolejności rosnącego ID (bez deadlocków między równoległymi batchami),
+     * więc na zwróconych encjach można bezpiecznie zmieniać availableCopies w pamięci.
+     * Zwraca mapę ID -> Book; brakujących książek w mapie po prostu nie ma.
+     */
+    public Map<Long, Book> lockForCheckout(Collection<Long> ids) {
+        Map<Long, Book> books = new LinkedHashMap<>();
+        for (Book book : bookRepository.findByIdInOrderByIdAsc(ids)) {
+            books.put(book.getId(), book);
+        }
+        return books;
     }
 
     /**
@@ -108,6 +246,8 @@ public class BookService {
     public void delete(Long id) throws NotFoundException {
         Book book = getById(id);
         bookRepository.delete(book);
+        cacheEvictor.evictBook(id);
+        events.publishEvent(new BookDeletedEvent(id));
     }
 
     /**
@@ -115,6 +255,7 @@ public class BookService {
      * Uzupełniamy obie strony relacji:
      * - book.authors
      * - author.books
+     * Po commicie książka i jej lista autorów są usuwane z cache 2. poziomu.
      */
     public Book addAuthor(Long bookId, Long authorId) throws NotFoundException {
         Book book = getById(bookId);
@@ -123,7 +264,10 @@ public class BookService {
         book.getAuthors().add(author);
         author.getBooks().add(book);
 
-        return bookRepository.save(book);
+        Book saved = bookRepository.save(book);
+        cacheEvictor.evictBook(bookId);
+        events.publishEvent(BookChangedEvent.of(saved));
+        return saved;
     }
 
     /**
@@ -137,6 +281,9 @@ public class BookService {
         book.getAuthors().remove(author);
         author.getBooks().remove(book);
 
-        return bookRepository.save(book);
+        Book saved = bookRepository.save(book);
+        cacheEvictor.evictBook(bookId);
+        events.publishEvent(BookChangedEvent.of(saved));
+        return saved;
     }
 }
@@ -0,0 +1,143 @@
+package pl.s32832.library.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pl.s32832.library.dto.response.BookResponse;
+import pl.s32832.library.dto.response.LoanResponse;
+import pl.s32832.library.repository.BookRepository;
+import pl.s32832.library.repository.BookRepository.ExportRow;
+import pl.s32832.library.repository.LoanRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Eksport katalogu i historii wypożyczeń w formacie NDJSON (jeden obiekt JSON na linię).
+ *
+ * Wiersze są czytane z bazy strumieniem (kursor, porcje fetchSize) i od razu zapisywane
+ * do odpowiedzi — nie budujemy listy encji ani listy DTO, więc zużycie pamięci
+ * nie rośnie z wielkością tabeli.
+ *
+ * Metody muszą działać w transakcji (readOnly) przez cały czas zapisu —
+ * strumień z repozytorium jest ważny tylko do jej końca.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ExportService {
+
+    private final BookRepository bookRepository;
+    private final LoanRepository loanRepository;
+    private final ObjectMapper objectMapper;
+
+    public ExportService(BookRepository bookRepository,
+                         LoanRepository loanRepository,
+                         ObjectMapper objectMapper) {
+        this.bookRepository = bookRepository;
+        this.loanRepository = loanRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Zapisuje cały katalog (BookResponse na linię). Zwraca liczbę zapisanych książek.
+     *
+     * Zapytanie zwraca jeden wiersz na parę książka-autor, posortowane po ID książki,
+     * więc autorów jednej książki sklejamy z kolejnych wierszy bez trzymania całości w pamięci.
+     */
+    public long exportBooks(OutputStream out) throws IOException {
+        try (Stream<ExportRow> rows = bookRepository.streamForExport();
+             NdjsonWriter writer = new NdjsonWriter(out)) {
+
+            long count = 0;
+            ExportRow current = null;
+            Set<Long> authorIds = new LinkedHashSet<>();
+
+            for (Iterator<ExportRow> it = rows.iterator(); it.hasNext(); ) {
+                ExportRow row = it.next();
+                if (current != null && !current.getId().equals(row.getId())) {
+                    writer.write(toResponse(current, authorIds));
+                    count++;
+                    authorIds = new LinkedHashSet<>();
+                }
+                current = row;
+                if (row.getAuthorId() != null) {
+                    authorIds.add(row.getAuthorId());
+                }
+            }
+
+            if (current != null) {
+                writer.write(toResponse(current, authorIds));
+                count++;
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Zapisuje wypożyczenia (LoanResponse na linię). Zwraca liczbę zapisanych wypożyczeń.
+     * since = null -> wszystkie, w przeciwnym razie tylko loanDate >= since.
+     */
+    public long exportLoans(LocalDate since, OutputStream out) throws IOException {
+        try (Stream<LoanResponse> loans = since == null
+                     ? loanRepository.streamForExport()
+                     : loanRepository.streamForExportSince(since);
+             NdjsonWriter writer = new NdjsonWriter(out)) {
+
+            long count = 0;
+            for (Iterator<LoanResponse> it = loans.iterator(); it.hasNext(); ) {
+                writer.write(it.next());
+                count++;
+            }
+            return count;
+        }
+    }
+
+    private static BookResponse toResponse(ExportRow row, Set<Long> authorIds) {
+        return new BookResponse(
+                row.getId(),
+                row.getTitle(),
+                row.getIsbn(),
+                row.getTotalCopies(),
+                row.getAvailableCopies(),
+                authorIds
+        );
+    }
+
+    /**
+     * Zapis kolejnych obiektów jako linii NDJSON przez jeden JsonGenerator.
+     *
+     * Generator buforuje dane i nie flushuje po każdym obiekcie (FLUSH_AFTER_WRITE_VALUE wyłączone),
+     * a close() tylko flushuje bufor — strumień odpowiedzi zamyka kontener.
+     */
+    private final class NdjsonWriter implements AutoCloseable {
+
+        private final JsonGenerator generator;
+        private final ObjectWriter valueWriter;
+
+        NdjsonWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // domyślnie Jackson rozdziela obiekty najwyższego poziomu spacją — separatorem jest '\n'
+            this.generator.setRootValueSeparator(null);
+            this.valueWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+
+        void write(Object value) throws IOException {
+            valueWriter.writeValue(generator, value);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+}
@@ -1,28 +1,60 @@
 package pl.s32832.library.service;
 
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import pl.s32832.library.dto.request.BatchLoanRequest;
+import pl.s32832.library.dto.request.BatchReturnRequest;
 import pl.s32832.library.dto.request.CreateLoanRequest;
+import pl.s32832.library.dto.response.BatchLoanItemResponse;
+import pl.s32832.library.dto.response.BatchLoanResponse;
+import pl.s32832.library.dto.response.BatchReturnResponse;
+import pl.s32832.library.dto.response.CursorPage;
+import pl.s32832.library.dto.response.LoanListItem;
+import pl.s32832.library.dto.response.LoanResponse;
 import pl.s32832.library.entity.Book;
 import pl.s32832.library.entity.Loan;
 import pl.s32832.library.entity.User;
+import pl.s32832.library.event.BookBorrowedEvent;
 import pl.s32832.library.exception.BusinessRuleException;
 import pl.s32832.library.exception.NotFoundException;
 import pl.s32832.library.exception.ValidationException;
+import pl.s32832.library.metrics.LibraryMetrics;
+import pl.s32832.library.metrics.LibraryMetrics.RejectionReason;
 import pl.s32832.library.repository.LoanRepository;
+import pl.s32832.library.repository.LoanRepository.ReturnCandidate;
+import pl.s32832.library.retry.RetryOnConflict;
 import pl.s32832.library.util.DateTimeProvider;
 
 import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Serwis obsługujący wypożyczenia (Loan).
  *
  * Najważniejsze zasady:
  * - można wypożyczyć tylko jeśli książka jest dostępna (availableCopies > 0)
+ * - zmiany availableCopies idą warunkowymi UPDATE w bazie (bez wyścigów przy równoległych żądaniach)
  * - oddanie ustawia returnDate i zwiększa dostępność książki
  * - usunięcie wypożyczenia przywraca dostępność, jeśli wypożyczenie było aktywne
+ * - każde utworzone wypożyczenie publikuje BookBorrowedEvent (ranking popularności podpowiedzi)
+ * - każde odrzucone wypożyczenie zwiększa licznik library.loans.checkout.rejected{reason}
  */
+@Timed("library.service")
 @Service
 @Transactional
 public class LoanService {
@@ -30,52 +62,127 @@ public class LoanService {
     // domyślny czas wypożyczenia (14 dni)
     private static final int DEFAULT_LOAN_DAYS = 14;
 
+    // rozmiar paczki przy zwrocie wsadowym (liczba ID/ISBN w jednym "IN (...)")
+    private static final int RETURN_CHUNK_SIZE = 500;
+
     private final LoanRepository loanRepository;
     private final UserService userService;
     private final BookService bookService;
     private final DateTimeProvider dateTimeProvider;
+    private final ApplicationEventPublisher events;
+    private final LibraryMetrics metrics;
 
     public LoanService(LoanRepository loanRepository,
                        UserService userService,
                        BookService bookService,
-                       DateTimeProvider dateTimeProvider) {
+                       DateTimeProvider dateTimeProvider,
+                       ApplicationEventPublisher events,
+                       LibraryMetrics metrics) {
         this.loanRepository = loanRepository;
         this.userService = userService;
         this.bookService = bookService;
         this.dateTimeProvider = dateTimeProvider;
+        this.events = events;
+        this.metrics = metrics;
     }
 
     /**
      * Tworzy nowe wypożyczenie.
-     * 1) pobieramy użytkownika i książkę (walidacja istnienia -> NotFoundException)
-     * 2) sprawdzamy reguły biznesowe (czy książka jest dostępna)
-     * 3) zmniejszamy dostępność książki
+     * 1) pobieramy użytkownika (walidacja istnienia -> NotFoundException)
+     * 2) walidujemy dane użytkownika
+     * 3) rezerwujemy egzemplarz jednym warunkowym UPDATE (BookService.checkoutCopy),
+     *    więc przy równoległych wypożyczeniach licznik nie zejdzie poniżej zera
      * 4) tworzymy Loan z loanDate i dueDate (dziś + 14 dni)
      * 5) zapis przez repozytorium (ORM)
+     *
+     * Przy konflikcie wersji cała transakcja jest powtarzana (@RetryOnConflict).
      */
+    @RetryOnConflict
     public Loan create(CreateLoanRequest req)
             throws NotFoundException, BusinessRuleException, ValidationException {
 
-        User user = userService.getById(req.getUserId());
-        Book book = bookService.getById(req.getBookId());
+        User user = borrower(req.getUserId());
 
-        // Nie wypożyczysz, jeśli brak dostępnych egzemplarzy
-        if (book.getAvailableCopies() <= 0) {
-            throw new BusinessRuleException("Book is not available for loan");
+        // Nie wypożyczysz, jeśli brak dostępnych egzemplarzy (sprawdzenie + zmniejszenie atomowo)
+        Book book;
+        try {
+            book = bookService.checkoutCopy(req.getBookId());
+        } catch (BusinessRuleException ex) {
+            metrics.checkoutRejected(RejectionReason.NO_COPIES);
+            throw ex;
+        } catch (NotFoundException ex) {
+            metrics.checkoutRejected(RejectionReason.NOT_FOUND);
+            throw ex;
         }
 
-        // Przykładowa walidacja email
-        if (user.getEmail() == null || user.getEmail().isBlank()) {
-            throw new ValidationException("User email invalid");
-        }
+        LocalDate today = dateTimeProvider.today();
+        Loan loan = new Loan(user, book, today, today.plusDays(DEFAULT_LOAN_DAYS));
+
+        Loan saved = loanRepository.save(loan);
+        events.publishEvent(new BookBorrowedEvent(req.getBookId()));
+        return saved;
+    }
+
+    /**
+     * Wypożycza wiele książek jednemu użytkownikowi w jednej transakcji.
+     *
+     * Zamiast N osobnych POST /api/loans:
+     * 1) użytkownik jest pobierany i walidowany raz
+     * 2) wszystkie książki są pobierane jednym zapytaniem z blokadą wierszy
+     *    (kolejność rosnącego ID -> brak deadlocków między równoległymi batchami)
+     * 3) dostępność jest sprawdzana i zmniejszana na zablokowanych encjach
+     * 4) wszystkie Loan są zapisywane jednym saveAll (JDBC batch wg hibernate.jdbc.batch_size)
+     *
+     * Brak książki lub egzemplarzy nie przerywa całego batcha — pozycja dostaje
+     * success = false z opisem błędu, a pozostałe są wypożyczane.
+     * Cały batch odrzucają tylko błędy użytkownika (NotFoundException / ValidationException).
+     */
+    public BatchLoanResponse createBatch(BatchLoanRequest req) throws NotFoundException, ValidationException {
+        User user = borrower(req.getUserId());
 
-        // Aktualizacja stanu książki (w tej samej transakcji)
-        book.setAvailableCopies(book.getAvailableCopies() - 1);
+        Map<Long, Book> books = bookService.lockForCheckout(new TreeSet<>(req.getBookIds()));
 
         LocalDate today = dateTimeProvider.today();
-        Loan loan = new Loan(user, book, today, today.plusDays(DEFAULT_LOAN_DAYS));
+        LocalDate dueDate = today.plusDays(DEFAULT_LOAN_DAYS);
 
-        return loanRepository.save(loan);
+        // pozycje w kolejności z requestu: utworzony Loan albo komunikat błędu
+        List<Loan> created = new ArrayList<>();
+        List<BatchOutcome> outcomes = new ArrayList<>();
+
+        for (Long bookId : req.getBookIds()) {
+            Book book = books.get(bookId);
+
+            if (book == null) {
+                metrics.checkoutRejected(RejectionReason.NOT_FOUND);
+                outcomes.add(new BatchOutcome(bookId, null, "Book not found: " + bookId));
+            } else if (book.getAvailableCopies() <= 0) {
+                metrics.checkoutRejected(RejectionReason.NO_COPIES);
+                outcomes.add(new BatchOutcome(bookId, null, "Book is not available for loan"));
+            } else {
+                // wiersz jest zablokowany do końca transakcji, więc zmiana w pamięci jest bezpieczna
+                book.setAvailableCopies(book.getAvailableCopies() - 1);
+
+                Loan loan = new Loan(user, book, today, dueDate);
+                created.add(loan);
+                outcomes.add(new BatchOutcome(bookId, loan, null));
+            }
+        }
+
+        loanRepository.saveAll(created);
+        outcomes.stream()
+                .filter(o -> o.loan() != null)
+                .forEach(o -> events.publishEvent(new BookBorrowedEvent(o.bookId())));
+
+        // ID wypożyczeń są znane dopiero po zapisie
+        List<BatchLoanItemResponse> items = outcomes.stream()
+                .map(o -> new BatchLoanItemResponse(
+                        o.bookId(),
+                        o.loan() != null,
+                        o.loan() != null ? o.loan().getId() : null,
+                        o.error()))
+                .toList();
+
+        return new BatchLoanResponse(user.getId(), items);
     }
 
     /**
@@ -95,12 +202,61 @@ public class LoanService {
         return loanRepository.findAll();
     }
 
+    /**
+     * Pobiera stronę wypożyczeń po kursorze (afterId = null -> pierwsza strona).
+     * Użytkownik i książka przychodzą w tym samym zapytaniu (EntityGraph w repozytorium).
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Loan> getPage(Long afterId, int limit) {
+        int size = CursorPage.clampLimit(limit);
+        return CursorPage.of(
+                loanRepository.findByIdGreaterThanOrderByIdAsc(afterId == null ? 0L : afterId, Limit.of(size + 1)),
+                size, Loan::getId);
+    }
+
+    /**
+     * Wypożyczenie od razu jako LoanResponse (REST) — projekcja z bazy, bez encji Loan.
+     */
+    @Transactional(readOnly = true)
+    public LoanResponse getResponseById(Long id) throws NotFoundException {
+        return loanRepository.findResponseById(id)
+                .orElseThrow(() -> new NotFoundException("Loan not found: " + id));
+    }
+
+    /**
+     * Strona wypożyczeń jako LoanResponse (REST) — jeden SELECT po tabeli loans,
+     * bez joinów z użytkownikiem i książką, których odpowiedź nie potrzebuje.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<LoanResponse> getResponsePage(Long afterId, int limit) {
+        int size = CursorPage.clampLimit(limit);
+        return CursorPage.of(
+                loanRepository.findResponsesAfter(afterId == null ? 0L : afterId, Limit.of(size + 1)),
+                size, LoanResponse::id);
+    }
+
+    /**
+     * Strona listy wypożyczeń dla GUI (projekcja LoanListItem).
+     * Liczba zapytań nie zależy od liczby wierszy — zawsze jeden SELECT.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<LoanListItem> getListPage(Long afterId, int limit) {
+        int size = CursorPage.clampLimit(limit);
+        return CursorPage.of(
+                loanRepository.findListItems(afterId == null ? 0L : afterId, Limit.of(size + 1)),
+                size, LoanListItem::id);
+    }
+
     /**
      * Oddaje wypożyczenie:
      * - jeśli było już oddane -> BusinessRuleException
      * - ustawia returnDate
      * - zwiększa dostępność książki
+     *
+     * Dwa równoległe zwroty tego samego wypożyczenia kończą się konfliktem wersji Loan;
+     * ponowiona próba widzi już returnDate i rzuca BusinessRuleException.
      */
+    @RetryOnConflict
     public Loan returnLoan(Long id) throws NotFoundException, BusinessRuleException {
         Loan loan = getById(id);
 
@@ -110,25 +266,175 @@ public class LoanService {
 
         loan.setReturnDate(dateTimeProvider.today());
 
-        Book book = loan.getBook();
-        book.setAvailableCopies(book.getAvailableCopies() + 1);
+        // zwiększenie dostępności atomowo w bazie (bez nadpisywania równoległych wypożyczeń)
+        bookService.returnCopy(loan.getBook().getId());
 
         return loanRepository.save(loan);
     }
 
+    /**
+     * Zwraca wiele wypożyczeń naraz (ID wypożyczeń i/lub ISBN-y zwróconych egzemplarzy).
+     *
+     * 1) kandydaci są odczytywani paczkami po RETURN_CHUNK_SIZE — tylko potrzebne kolumny (bez encji Loan/Book)
+     * 2) aktywne wypożyczenia z całego requestu są grupowane po książce, rosnąco po ID książki
+     * 3) dla każdej książki: UPDATE ustawiający returnDate wypożyczeniom z grupy
+     *    i jeden UPDATE zwiększający availableCopies o liczbę faktycznie oddanych
+     *
+     * Blokady (wypożyczenia, potem wiersz książki) są więc brane zawsze w tej samej kolejności
+     * (ID książki, ID wypożyczenia) — dwa zwroty tych samych książek podanych w odwrotnej
+     * kolejności nie zakleszczą się.
+     *
+     * Wypożyczenia już oddane i nieistniejące ID są raportowane w odpowiedzi, a nie jako błąd.
+     */
+    public BatchReturnResponse returnBatch(BatchReturnRequest req) throws ValidationException {
+        List<Long> loanIds = req.getLoanIds() == null ? List.of() : List.copyOf(new LinkedHashSet<>(req.getLoanIds()));
+        List<String> isbns = req.getIsbns() == null ? List.of() : req.getIsbns();
+
+        if (loanIds.isEmpty() && isbns.isEmpty()) {
+            throw new ValidationException("Provide loanIds or isbns to return");
+        }
+
+        LocalDate today = dateTimeProvider.today();
+
+        List<Long> alreadyReturned = new ArrayList<>();
+        List<Long> notFound = new ArrayList<>();
+        List<String> unmatchedIsbns = new ArrayList<>();
+
+        // wypożyczenia do oddania z całego requestu, po rosnącym ID książki
+        Map<Long, List<Long>> activeByBook = new TreeMap<>();
+        Set<Long> claimed = new HashSet<>();
+
+        // Zwrot po ID wypożyczenia
+        for (List<Long> chunk : chunks(loanIds)) {
+            Map<Long, ReturnCandidate> found = loanRepository.findReturnCandidatesByIdIn(chunk).stream()
+                    .collect(Collectors.toMap(ReturnCandidate::getId, Function.identity()));
+
+            for (Long id : chunk) {
+                ReturnCandidate c = found.get(id);
+                if (c == null) {
+                    notFound.add(id);
+                } else if (c.getReturnDate() != null) {
+                    alreadyReturned.add(id);
+                } else {
+                    activeByBook.computeIfAbsent(c.getBookId(), k -> new ArrayList<>()).add(id);
+                    claimed.add(id);
+                }
+            }
+        }
+
+        // Zwrot po ISBN — najstarsze aktywne wypożyczenie danej książki, którego request nie oddaje już po ID
+        for (List<String> chunk : chunks(isbns)) {
+            Map<String, Deque<ReturnCandidate>> activeByIsbn = new HashMap<>();
+            for (ReturnCandidate c : loanRepository.findActiveReturnCandidatesByIsbnIn(new LinkedHashSet<>(chunk))) {
+                activeByIsbn.computeIfAbsent(c.getIsbn(), k -> new ArrayDeque<>()).add(c);
+            }
+
+            for (String isbn : chunk) {
+                Deque<ReturnCandidate> queue = activeByIsbn.getOrDefault(isbn, new ArrayDeque<>());
+                ReturnCandidate c = queue.poll();
+                while (c != null && !claimed.add(c.getId())) {
+                    c = queue.poll();
+                }
+                if (c == null) {
+                    unmatchedIsbns.add(isbn);
+                } else {
+                    activeByBook.computeIfAbsent(c.getBookId(), k -> new ArrayList<>()).add(c.getId());
+                }
+            }
+        }
+
+        List<Long> returned = returnGroupedByBook(activeByBook, today, alreadyReturned);
+
+        return new BatchReturnResponse(returned, alreadyReturned, notFound, unmatchedIsbns);
+    }
+
     /**
      * Usuwa wypożyczenie.
      * Jeśli wypożyczenie było aktywne (nie oddane),
      * to przywracamy dostępność książki.
      */
+    @RetryOnConflict
     public void delete(Long id) throws NotFoundException {
         Loan loan = getById(id);
 
         if (loan.getReturnDate() == null) {
-            Book book = loan.getBook();
-            book.setAvailableCopies(book.getAvailableCopies() + 1);
+            bookService.returnCopy(loan.getBook().getId());
         }
 
         loanRepository.delete(loan);
     }
+
+    /**
+     * Oddaje pogrupowane wypożyczenia w kolejności kluczy mapy (rosnące ID książki): dla każdej książki
+     * UPDATE na loans (paczkami po RETURN_CHUNK_SIZE, rosnąco po ID) i jeden UPDATE na books
+     * (o tyle egzemplarzy, ile wierszy faktycznie zmieniono).
+     *
+     * Wypożyczenia z grupy najpierw są blokowane (lockActiveIds) — te, które między odczytem
+     * kandydatów a blokadą oddał równoległy zwrot, trafiają do alreadyReturned, a nie do wyniku.
+     */
+    private List<Long> returnGroupedByBook(Map<Long, List<Long>> loanIdsByBook, LocalDate today,
+                                          List<Long> alreadyReturned) {
+        List<Long> returned = new ArrayList<>();
+
+        for (Map.Entry<Long, List<Long>> group : loanIdsByBook.entrySet()) {
+            List<Long> loanIds = group.getValue().stream().sorted().toList();
+            TreeSet<Long> lockedIds = new TreeSet<>();
+            int updated = 0;
+            for (List<Long> chunk : chunks(loanIds)) {
+                List<Long> locked = loanRepository.lockActiveIds(chunk);
+                if (!locked.isEmpty()) {
+                    updated += loanRepository.markReturned(locked, today);
+                    lockedIds.addAll(locked);
+                }
+            }
+            if (updated > 0) {
+                bookService.returnCopies(group.getKey(), updated);
+            }
+            for (Long id : loanIds) {
+                (lockedIds.contains(id) ? returned : alreadyReturned).add(id);
+            }
+        }
+
+        return returned;
+    }
+
+    private static <T> List<List<T>> chunks(List<T> items) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += RETURN_CHUNK_SIZE) {
+            chunks.add(items.subList(i, Math.min(i + RETURN_CHUNK_SIZE, items.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Pobiera i waliduje wypożyczającego; odrzucenie jest liczone w metrykach.
+     */
+    private User borrower(Long userId) throws NotFoundException, ValidationException {
+        try {
+            User user = userService.getById(userId);
+            validateBorrower(user);
+            return user;
+        } catch (NotFoundException ex) {
+            metrics.checkoutRejected(RejectionReason.NOT_FOUND);
+            throw ex;
+        } catch (ValidationException ex) {
+            metrics.checkoutRejected(RejectionReason.VALIDATION);
+            throw ex;
+        }
+    }
+
+    /**
+     * Walidacja danych wypożyczającego (wspólna dla pojedynczego i wsadowego wypożyczenia).
+     */
+    private void validateBorrower(User user) throws ValidationException {
+        // Przykładowa walidacja email
+        if (user.getEmail() == null || user.getEmail().isBlank()) {
+            throw new ValidationException("User email invalid");
+        }
+    }
+
+    /**
+     * Wynik jednej pozycji batcha przed zapisem (loan albo error).
+     */
+    private record BatchOutcome(Long bookId, Loan loan, String error) {}
 }
@@ -1,5 +1,6 @@
 package pl.s32832.library.service;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import pl.s32832.library.dto.request.CreateProfileRequest;
@@ -17,6 +18,7 @@ import pl.s32832.library.repository.ProfileRepository;
  * - jeden użytkownik może mieć maksymalnie jeden profil
  * - profil zawsze należy do konkretnego użytkownika
  */
+@Timed("library.service")
 @Service
 @Transactional
 public class ProfileService {
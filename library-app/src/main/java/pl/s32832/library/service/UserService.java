@@ -1,13 +1,18 @@
 package pl.s32832.library.service;
 
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import pl.s32832.library.dto.request.CreateUserRequest;
 import pl.s32832.library.dto.request.UpdateUserRequest;
+import pl.s32832.library.dto.response.CursorPage;
+import pl.s32832.library.dto.response.UserResponse;
 import pl.s32832.library.entity.User;
 import pl.s32832.library.exception.NotFoundException;
 import pl.s32832.library.exception.ValidationException;
 import pl.s32832.library.repository.UserRepository;
+import pl.s32832.library.util.Lookups;
 
 import java.util.List;
 
@@ -19,6 +24,7 @@ import java.util.List;
  * - profilem (1:1)
  * - wypożyczeniami (1:N)
  */
+@Timed("library.service")
 @Service
 @Transactional
 public class UserService {
@@ -66,6 +72,51 @@ public class UserService {
         return userRepository.findAll();
     }
 
+    /**
+     * Pobiera stronę użytkowników po kursorze (afterId = null -> pierwsza strona).
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<User> getPage(Long afterId, int limit) {
+        int size = CursorPage.clampLimit(limit);
+        return CursorPage.of(
+                userRepository.findByIdGreaterThanOrderByIdAsc(afterId == null ? 0L : afterId, Limit.of(size + 1)),
+                size, User::getId);
+    }
+
+    /**
+     * Użytkownik od razu jako UserResponse (REST) — projekcja z bazy, bez encji User.
+     */
+    @Transactional(readOnly = true)
+    public UserResponse getResponseById(Long id) throws NotFoundException {
+        return userRepository.findResponseById(id)
+                .orElseThrow(() -> new NotFoundException("User not found: " + id));
+    }
+
+    /**
+     * Strona użytkowników jako UserResponse (REST), bez hydratacji encji.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<UserResponse> getResponsePage(Long afterId, int limit) {
+        int size = CursorPage.clampLimit(limit);
+        return CursorPage.of(
+                userRepository.findResponsesAfter(afterId == null ? 0L : afterId, Limit.of(size + 1)),
+                size, UserResponse::id);
+    }
+
+    /**
+     * Podpowiedzi użytkowników (imię i nazwisko / email zaczyna się od query).
+     * Query krótsze niż Lookups.MIN_QUERY_LENGTH -> pusta lista, bez zapytania do bazy.
+     */
+    @Transactional(readOnly = true)
+    public List<UserResponse> lookup(String query, int limit) {
+        if (Lookups.tooShort(query)) {
+            return List.of();
+        }
+        return userRepository.lookup(Lookups.likePrefix(query), Lookups.clampLimit(limit)).stream()
+                .map(row -> new UserResponse(row.getId(), row.getEmail(), row.getFullName()))
+                .toList();
+    }
+
     /**
      * Aktualizuje dane użytkownika.
      * W tym projekcie edytujemy tylko fullName.
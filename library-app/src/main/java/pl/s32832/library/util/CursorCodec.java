@@ -0,0 +1,48 @@
+package pl.s32832.library.util;
+
+import pl.s32832.library.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Kodowanie kursorów paginacji (?after=...).
+ *
+ * Kursor jest dla klienta nieprzezroczysty (Base64 URL-safe), dzięki czemu
+ * można później zmienić jego zawartość (np. dodać kolejne pole sortowania)
+ * bez zmiany kontraktu API.
+ */
+public final class CursorCodec {
+
+    private static final String PREFIX = "id:";
+
+    private CursorCodec() {}
+
+    /**
+     * Koduje ID ostatniego elementu strony.
+     */
+    public static String encode(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Dekoduje kursor do ID, po którym zaczyna się kolejna strona.
+     * Brak kursora (null / pusty) = pierwsza strona -> null.
+     */
+    public static Long decode(String cursor) throws ValidationException {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new ValidationException("Invalid cursor: " + cursor);
+            }
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException ex) {
+            // zły Base64 albo NumberFormatException (podklasa IllegalArgumentException)
+            throw new ValidationException("Invalid cursor: " + cursor);
+        }
+    }
+}
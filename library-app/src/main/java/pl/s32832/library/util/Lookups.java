@@ -0,0 +1,62 @@
+package pl.s32832.library.util;
+
+import java.util.Locale;
+
+/**
+ * Wspólne reguły wyszukiwania po prefiksie (endpointy /lookup, podpowiedzi w formularzach).
+ */
+public final class Lookups {
+
+    /** Domyślna liczba podpowiedzi. */
+    public static final int DEFAULT_LIMIT = 10;
+
+    /** Maksymalna liczba podpowiedzi w jednej odpowiedzi. */
+    public static final int MAX_LIMIT = 50;
+
+    /**
+     * Najkrótszy prefiks (po trim), dla którego pytamy bazę — ten sam próg co w skrypcie
+     * formularza wypożyczenia. Jednoznakowy prefiks pasuje do dużej części tabeli.
+     */
+    public static final int MIN_QUERY_LENGTH = 2;
+
+    /**
+     * Znak ucieczki we wzorcach LIKE (escape '!' w zapytaniach) — bez backslasha,
+     * który różnie traktują HQL i bazy danych.
+     */
+    public static final char ESCAPE = '!';
+
+    private Lookups() {}
+
+    /**
+     * Czy query jest za krótkie na podpowiedzi (null, puste albo krótsze niż MIN_QUERY_LENGTH po trim).
+     */
+    public static boolean tooShort(String query) {
+        return query == null || query.trim().length() < MIN_QUERY_LENGTH;
+    }
+
+    /**
+     * Przycina liczbę podpowiedzi do zakresu [1, MAX_LIMIT].
+     */
+    public static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    /**
+     * Wzorzec LIKE "zaczyna się od" dla zapytań z lower(...) like :prefix escape '!'.
+     *
+     * Znaki specjalne LIKE (%, _) i znak ucieczki (!) z wejścia użytkownika są escapowane,
+     * więc wpisane "50%" szuka dosłownie "50%", a nie dowolnego tekstu.
+     * Wzorzec bez wiodącego % pozwala bazie użyć indeksu (text_pattern_ops).
+     */
+    public static String likePrefix(String query) {
+        String q = query.trim().toLowerCase(Locale.ROOT);
+        StringBuilder pattern = new StringBuilder(q.length() + 2);
+        for (char c : q.toCharArray()) {
+            if (c == ESCAPE || c == '%' || c == '_') {
+                pattern.append(ESCAPE);
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+}
@@ -0,0 +1,47 @@
+package pl.s32832.library.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Budowanie zapytań pełnotekstowych (PostgreSQL tsquery) z tekstu wpisanego przez użytkownika.
+ */
+public final class SearchQueries {
+
+    /** Maksymalna liczba słów branych pod uwagę (dłuższe zapytania są przycinane). */
+    static final int MAX_TERMS = 8;
+
+    /**
+     * Najkrótsze słowo szukane jako prefiks. Krótsze (np. "a", "2") są szukane tylko jako całe słowa —
+     * jednoznakowy prefiks pasuje do większości katalogu i każdą z tych książek trzeba by ocenić.
+     */
+    public static final int MIN_PREFIX_LENGTH = 2;
+
+    private SearchQueries() {}
+
+    /**
+     * Zamienia tekst na tsquery w postaci "słowo1:* & słowo2:*" —
+     * każde słowo musi wystąpić, a ostatnie może być jeszcze niedopisane (prefiks).
+     *
+     * Z tekstu zostają tylko litery i cyfry, więc wynik jest zawsze poprawną składnią
+     * to_tsquery (bez operatorów od użytkownika). Pusty wynik -> brak słów do szukania,
+     * także gdy żadne słowo nie ma MIN_PREFIX_LENGTH znaków.
+     */
+    public static String prefixTsQuery(String text) {
+        if (text == null) {
+            return "";
+        }
+        List<String> terms = Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .limit(MAX_TERMS)
+                .toList();
+        if (terms.stream().noneMatch(term -> term.length() >= MIN_PREFIX_LENGTH)) {
+            return "";
+        }
+        return terms.stream()
+                .map(term -> term.length() >= MIN_PREFIX_LENGTH ? term + ":*" : term)
+                .collect(Collectors.joining(" & "));
+    }
+}
@@ -0,0 +1,67 @@
+-- Schemat bazy biblioteki (PostgreSQL).
+--
+-- Skrypt jest idempotentny (IF NOT EXISTS), bo istniejące bazy mogły być wcześniej
+-- utworzone przez hibernate.ddl-auto=update — Flyway zakłada wtedy baseline w wersji 0
+-- i uruchamia ten skrypt na istniejących tabelach.
+
+-- Sekwencje kluczy głównych (INCREMENT BY = IdGeneration.ALLOCATION_SIZE, placeholder z FlywayConfig)
+create sequence if not exists authors_seq start with 1 increment by ${id_allocation_size};
+create sequence if not exists books_seq start with 1 increment by ${id_allocation_size};
+create sequence if not exists users_seq start with 1 increment by ${id_allocation_size};
+create sequence if not exists user_profiles_seq start with 1 increment by ${id_allocation_size};
+create sequence if not exists loans_seq start with 1 increment by ${id_allocation_size};
+
+create table if not exists authors (
+    id   bigint       not null primary key,
+    name varchar(255) not null
+);
+
+create table if not exists books (
+    id               bigint       not null primary key,
+    title            varchar(255) not null,
+    isbn             varchar(255) not null unique,
+    total_copies     integer      not null,
+    available_copies integer      not null,
+    version          bigint       default 0 not null
+);
+
+create table if not exists book_authors (
+    book_id   bigint not null references books (id),
+    author_id bigint not null references authors (id),
+    primary key (book_id, author_id)
+);
+
+create table if not exists users (
+    id        bigint       not null primary key,
+    email     varchar(255) not null unique,
+    full_name varchar(255) not null
+);
+
+create table if not exists user_profiles (
+    id      bigint       not null primary key,
+    address varchar(255) not null,
+    phone   varchar(255) not null,
+    user_id bigint       not null unique references users (id)
+);
+
+create table if not exists loans (
+    id          bigint not null primary key,
+    user_id     bigint not null references users (id),
+    book_id     bigint not null references books (id),
+    loan_date   date   not null,
+    due_date    date   not null,
+    return_date date,
+    version     bigint default 0 not null
+);
+
+-- Kolumny wersji mogło nie być w bazach sprzed optymistycznego blokowania
+alter table books add column if not exists version bigint default 0 not null;
+alter table loans add column if not exists version bigint default 0 not null;
+
+-- Istniejące dane (klucze z IDENTITY): przesuwamy sekwencje za max(id) z zapasem jednego bloku,
+-- żeby pierwszy przydział działał zarówno dla optymalizatora pooled, jak i pooled-lo
+select setval('authors_seq', max(id) + ${id_allocation_size} + 1, false) from authors having max(id) is not null;
+select setval('books_seq', max(id) + ${id_allocation_size} + 1, false) from books having max(id) is not null;
+select setval('users_seq', max(id) + ${id_allocation_size} + 1, false) from users having max(id) is not null;
+select setval('user_profiles_seq', max(id) + ${id_allocation_size} + 1, false) from user_profiles having max(id) is not null;
+select setval('loans_seq', max(id) + ${id_allocation_size} + 1, false) from loans having max(id) is not null;
@@ -0,0 +1,15 @@
+-- Indeksy pod wzorce zapytań aplikacji.
+-- (PostgreSQL nie tworzy automatycznie indeksów na kluczach obcych.)
+
+-- wypożyczenia użytkownika (User -> Loan, usuwanie użytkownika)
+create index if not exists idx_loans_user_id on loans (user_id);
+
+-- wypożyczenia książki (Book -> Loan, zwrot po ISBN, liczenie aktywnych wypożyczeń)
+create index if not exists idx_loans_book_id on loans (book_id);
+
+-- aktywne wypożyczenia po terminie zwrotu (przeterminowane) — indeks częściowy,
+-- obejmuje tylko wiersze z return_date IS NULL, więc jest mały niezależnie od historii
+create index if not exists idx_loans_active_due_date on loans (due_date) where return_date is null;
+
+-- książki autora (strona odwrotna N:M; PK book_authors zaczyna się od book_id)
+create index if not exists idx_book_authors_author_id on book_authors (author_id);
@@ -0,0 +1,3 @@
+-- Przyrostowy eksport wypożyczeń (GET /api/export/loans?since=...):
+-- filtr loan_date >= :since i kolejność (loan_date, id) czytane wprost z indeksu, bez sortowania.
+create index if not exists idx_loans_loan_date on loans (loan_date, id);
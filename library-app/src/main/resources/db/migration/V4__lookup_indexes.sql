@@ -0,0 +1,9 @@
+-- Podpowiedzi w formularzu wypożyczenia (GET /api/users/lookup, /api/books/lookup):
+-- warunki lower(kolumna) LIKE 'prefiks%'. Klasa operatorów text_pattern_ops pozwala użyć
+-- indeksu B-tree dla LIKE niezależnie od collation bazy.
+
+create index if not exists idx_users_full_name_prefix on users (lower(full_name) text_pattern_ops);
+create index if not exists idx_users_email_prefix on users (lower(email) text_pattern_ops);
+
+create index if not exists idx_books_title_prefix on books (lower(title) text_pattern_ops);
+create index if not exists idx_books_isbn_prefix on books (lower(isbn) text_pattern_ops);
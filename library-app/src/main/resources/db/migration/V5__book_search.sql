@@ -0,0 +1,89 @@
+-- Wyszukiwanie pełnotekstowe książek (GET /api/books/search).
+--
+-- books.search_vector = tytuł i ISBN (waga A) + nazwiska autorów (waga B), konfiguracja 'simple'
+-- (bez stemmingu — katalog jest wielojęzyczny). Kolumnę utrzymują triggery, więc jest aktualna
+-- po każdej zmianie przez aplikację (BookService.create/update/addAuthor/removeAuthor,
+-- zmiana nazwiska autora) i po zmianach wprost w bazie.
+
+alter table books add column if not exists search_vector tsvector;
+
+create or replace function book_search_vector(p_book_id bigint, p_title text, p_isbn text)
+    returns tsvector
+    language sql
+    stable
+as $$
+    select setweight(to_tsvector('simple', coalesce(p_title, '')), 'A')
+        || setweight(to_tsvector('simple', coalesce(p_isbn, '')), 'A')
+        -- ISBN także bez myślników, żeby "97883..." znajdowało "978-83-..."
+        || setweight(to_tsvector('simple', regexp_replace(coalesce(p_isbn, ''), '[^0-9Xx]', '', 'g')), 'A')
+        || setweight(to_tsvector('simple', coalesce((
+               select string_agg(a.name, ' ')
+               from book_authors ba
+               join authors a on a.id = ba.author_id
+               where ba.book_id = p_book_id), '')), 'B')
+$$;
+
+-- books: tytuł/ISBN. Warunek WHEN pomija UPDATE-y licznika egzemplarzy (wypożyczenia, zwroty).
+create or replace function books_search_vector_trg() returns trigger
+    language plpgsql
+as $$
+begin
+    new.search_vector := book_search_vector(new.id, new.title, new.isbn);
+    return new;
+end
+$$;
+
+drop trigger if exists trg_books_search_vector_ins on books;
+create trigger trg_books_search_vector_ins
+    before insert on books
+    for each row execute function books_search_vector_trg();
+
+drop trigger if exists trg_books_search_vector_upd on books;
+create trigger trg_books_search_vector_upd
+    before update of title, isbn on books
+    for each row
+    when (old.title is distinct from new.title or old.isbn is distinct from new.isbn)
+    execute function books_search_vector_trg();
+
+-- book_authors: przypisanie / usunięcie autora książki
+create or replace function book_authors_search_vector_trg() returns trigger
+    language plpgsql
+as $$
+declare
+    v_book_id bigint := case when tg_op = 'DELETE' then old.book_id else new.book_id end;
+begin
+    update books b
+       set search_vector = book_search_vector(b.id, b.title, b.isbn)
+     where b.id = v_book_id;
+    return null;
+end
+$$;
+
+drop trigger if exists trg_book_authors_search_vector on book_authors;
+create trigger trg_book_authors_search_vector
+    after insert or delete on book_authors
+    for each row execute function book_authors_search_vector_trg();
+
+-- authors: zmiana nazwiska -> przeliczenie wszystkich książek autora
+create or replace function authors_search_vector_trg() returns trigger
+    language plpgsql
+as $$
+begin
+    update books b
+       set search_vector = book_search_vector(b.id, b.title, b.isbn)
+     where b.id in (select ba.book_id from book_authors ba where ba.author_id = new.id);
+    return null;
+end
+$$;
+
+drop trigger if exists trg_authors_search_vector on authors;
+create trigger trg_authors_search_vector
+    after update of name on authors
+    for each row
+    when (old.name is distinct from new.name)
+    execute function authors_search_vector_trg();
+
+-- wypełnienie istniejących wierszy
+update books b set search_vector = book_search_vector(b.id, b.title, b.isbn) where b.search_vector is null;
+
+create index if not exists idx_books_search_vector on books using gin (search_vector);
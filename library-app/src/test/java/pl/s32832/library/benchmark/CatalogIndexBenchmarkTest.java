@@ -0,0 +1,115 @@
+package pl.s32832.library.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import pl.s32832.library.search.CatalogIndex;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark indeksu katalogu w pamięci (domyślnie 200 000 książek, 20 000 autorów).
+ *
+ * Raportuje:
+ * - czas budowy indeksu,
+ * - przyrost zajętej sterty po budowie (po GC — wartość przybliżona),
+ * - opóźnienie zapytań (p50 / p99 / max) dla losowych 1- i 2-słowowych prefiksów.
+ *
+ * Dane są syntetyczne (słownik losowych słów), bez bazy danych — mierzymy sam indeks.
+ * Uruchomienie:
+ *   mvn test -Dtest=CatalogIndexBenchmarkTest -Dlibrary.benchmark=true [-Dlibrary.benchmark.books=200000]
+ */
+@EnabledIfSystemProperty(named = "library.benchmark", matches = "true")
+class CatalogIndexBenchmarkTest {
+
+    private static final int VOCABULARY = 50_000;
+    private static final int QUERIES = 20_000;
+
+    @Test
+    void buildAndQuery() {
+        int books = Integer.getInteger("library.benchmark.books", 200_000);
+        int authors = Math.max(1, books / 10);
+        Random random = new Random(42);
+        String[] words = vocabulary(random);
+
+        long heapBefore = usedHeapAfterGc();
+        long start = System.nanoTime();
+
+        CatalogIndex index = new CatalogIndex();
+        for (long a = 1; a <= authors; a++) {
+            index.putAuthor(a, pick(words, random) + " " + pick(words, random));
+        }
+        for (long b = 1; b <= books; b++) {
+            String title = pick(words, random) + " " + pick(words, random) + " " + pick(words, random);
+            String isbn = "978-" + (10_000_000 + b);
+            index.putBook(b, title, isbn, Set.of(1L + random.nextInt(authors)));
+        }
+
+        long buildNanos = System.nanoTime() - start;
+        long heapAfter = usedHeapAfterGc();
+        CatalogIndex.Stats stats = index.stats();
+
+        // rozgrzewka JIT, potem pomiar
+        runQueries(index, words, new Random(7), QUERIES / 4);
+        long[] latencies = runQueries(index, words, new Random(11), QUERIES);
+        Arrays.sort(latencies);
+
+        System.out.printf("%n=== In-memory catalog index: %d books, %d authors ===%n", books, authors);
+        System.out.printf("build:   %d ms%n", buildNanos / 1_000_000);
+        System.out.printf("heap:    %.1f MB (postings: %.1f MB, %d terms, %d postings)%n",
+                (heapAfter - heapBefore) / 1_048_576.0, stats.postingBytes() / 1_048_576.0,
+                stats.terms(), stats.postings());
+        System.out.printf("query:   p50 %.1f us, p99 %.1f us, max %.1f us (%d queries)%n%n",
+                percentile(latencies, 0.50) / 1_000.0, percentile(latencies, 0.99) / 1_000.0,
+                latencies[latencies.length - 1] / 1_000.0, QUERIES);
+
+        assertEquals(books, stats.books());
+    }
+
+    private static long[] runQueries(CatalogIndex index, String[] words, Random random, int count) {
+        long[] latencies = new long[count];
+        for (int i = 0; i < count; i++) {
+            String first = pick(words, random);
+            String query = i % 2 == 0
+                    ? first.substring(0, Math.min(first.length(), 4))
+                    : first + " " + pick(words, random).substring(0, 3);
+            long start = System.nanoTime();
+            index.search(query, 20);
+            latencies[i] = System.nanoTime() - start;
+        }
+        return latencies;
+    }
+
+    private static String[] vocabulary(Random random) {
+        String[] words = new String[VOCABULARY];
+        for (int i = 0; i < words.length; i++) {
+            char[] chars = new char[4 + random.nextInt(6)];
+            for (int c = 0; c < chars.length; c++) {
+                chars[c] = (char) ('a' + random.nextInt(26));
+            }
+            words[i] = new String(chars);
+        }
+        return words;
+    }
+
+    private static String pick(String[] words, Random random) {
+        // rozkład skośny: część słów występuje dużo częściej (jak w prawdziwych tytułach)
+        double r = random.nextDouble();
+        return words[(int) (r * r * words.length)];
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
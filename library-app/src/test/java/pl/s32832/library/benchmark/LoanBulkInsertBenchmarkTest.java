@@ -0,0 +1,142 @@
+package pl.s32832.library.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.s32832.library.entity.Book;
+import pl.s32832.library.entity.Loan;
+import pl.s32832.library.entity.User;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark masowego zapisu wypożyczeń (domyślnie 100 000 wierszy).
+ *
+ * Porównuje dwa sposoby zapisu tych samych danych:
+ * - "per-row"  -> jeden INSERT = jeden round trip do bazy (tak działał zapis przy GenerationType.IDENTITY)
+ * - "batched"  -> encje Loan przez Hibernate: identyfikatory z sekwencji (pooled-lo)
+ *                 i INSERT-y łączone w paczki hibernate.jdbc.batch_size
+ *
+ * Test jest wyłączony w zwykłym buildzie. Uruchomienie:
+ *   mvn test -Dtest=LoanBulkInsertBenchmarkTest -Dlibrary.benchmark=true [-Dlibrary.benchmark.loans=100000]
+ *
+ * Domyślnie działa na H2 (profil "test"). Na PostgreSQL (pusta, testowa baza — schemat jest
+ * tworzony i usuwany!) wystarczy nadpisać spring.datasource.* oraz
+ * spring.jpa.properties.hibernate.dialect przez -D.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "library.benchmark", matches = "true")
+class LoanBulkInsertBenchmarkTest {
+
+    private static final int TRANSACTION_SIZE = 5_000;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void bulkInsertLoans() {
+        int loans = Integer.getInteger("library.benchmark.loans", 100_000);
+        int batchSize = Math.max(1, Integer.parseInt(String.valueOf(entityManager.getEntityManagerFactory()
+                .getProperties().getOrDefault("hibernate.jdbc.batch_size", "1"))));
+
+        Long[] ids = transactionTemplate.execute(status -> {
+            User user = new User(UUID.randomUUID() + "@benchmark.test", "Benchmark");
+            Book book = new Book("Benchmark", UUID.randomUUID().toString(), 1);
+            entityManager.persist(user);
+            entityManager.persist(book);
+            return new Long[]{user.getId(), book.getId()};
+        });
+        Long userId = ids[0];
+        Long bookId = ids[1];
+
+        long perRowNanos = measure(() -> insertPerRow(loans, userId, bookId));
+        long batchedNanos = measure(() -> insertBatched(loans, userId, bookId, batchSize));
+
+        System.out.printf("%n=== Bulk insert: %d loans (hibernate.jdbc.batch_size=%d) ===%n", loans, batchSize);
+        report("per-row (IDENTITY-style)", loans, perRowNanos);
+        report("batched (sequence + JDBC batch)", loans, batchedNanos);
+        System.out.printf("speedup: %.2fx%n%n", (double) perRowNanos / batchedNanos);
+
+        Long count = jdbcTemplate.queryForObject("select count(*) from loans where book_id = ?", Long.class, bookId);
+        assertEquals(2L * loans, count);
+    }
+
+    /**
+     * Jeden INSERT na wiersz (bez paczek) — odpowiednik zapisu przy kluczach IDENTITY,
+     * gdzie Hibernate musi wykonać każdy INSERT osobno, żeby poznać wygenerowane ID.
+     */
+    private void insertPerRow(int loans, Long userId, Long bookId) {
+        // ID spoza zakresu sekwencji, żeby oba warianty mogły pisać do tej samej tabeli
+        long firstId = 1_000_000_000L;
+        Date today = Date.valueOf(LocalDate.now());
+        Date due = Date.valueOf(LocalDate.now().plusDays(14));
+
+        for (int from = 0; from < loans; from += TRANSACTION_SIZE) {
+            int start = from;
+            int end = Math.min(from + TRANSACTION_SIZE, loans);
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = start; i < end; i++) {
+                    jdbcTemplate.update(
+                            "insert into loans (id, user_id, book_id, loan_date, due_date, version) values (?, ?, ?, ?, ?, 0)",
+                            firstId + i, userId, bookId, today, due);
+                }
+            });
+        }
+    }
+
+    /**
+     * Zapis encji Loan przez Hibernate — ID z sekwencji, INSERT-y w paczkach JDBC.
+     */
+    private void insertBatched(int loans, Long userId, Long bookId, int batchSize) {
+        LocalDate today = LocalDate.now();
+
+        for (int from = 0; from < loans; from += TRANSACTION_SIZE) {
+            int start = from;
+            int end = Math.min(from + TRANSACTION_SIZE, loans);
+            transactionTemplate.executeWithoutResult(status -> {
+                User user = entityManager.getReference(User.class, userId);
+                Book book = entityManager.getReference(Book.class, bookId);
+
+                for (int i = start; i < end; i++) {
+                    entityManager.persist(new Loan(user, book, today, today.plusDays(14)));
+
+                    // czyszczenie kontekstu co paczkę, żeby pamięć nie rosła z liczbą wierszy
+                    if ((i - start + 1) % batchSize == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                        user = entityManager.getReference(User.class, userId);
+                        book = entityManager.getReference(Book.class, bookId);
+                    }
+                }
+            });
+        }
+    }
+
+    private static long measure(Runnable action) {
+        long start = System.nanoTime();
+        action.run();
+        return System.nanoTime() - start;
+    }
+
+    private static void report(String label, int rows, long nanos) {
+        double seconds = nanos / 1_000_000_000.0;
+        System.out.printf("%-34s %8.2f s  %10.0f rows/s%n", label, seconds, rows / seconds);
+    }
+}
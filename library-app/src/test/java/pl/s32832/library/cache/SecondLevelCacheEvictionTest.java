@@ -0,0 +1,120 @@
+package pl.s32832.library.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import pl.s32832.library.dto.request.CreateAuthorRequest;
+import pl.s32832.library.dto.request.CreateBookRequest;
+import pl.s32832.library.dto.request.CreateLoanRequest;
+import pl.s32832.library.dto.request.CreateUserRequest;
+import pl.s32832.library.dto.request.UpdateAuthorRequest;
+import pl.s32832.library.entity.Author;
+import pl.s32832.library.entity.Book;
+import pl.s32832.library.entity.Loan;
+import pl.s32832.library.service.AuthorService;
+import pl.s32832.library.service.BookService;
+import pl.s32832.library.service.LoanService;
+import pl.s32832.library.service.UserService;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Zakres usuwania wpisów z cache 2. poziomu (H2, profil "test").
+ *
+ * Wypożyczenie / zwrot zmieniają liczniki natywnym UPDATE — z cache znika tylko ta książka,
+ * a nie cały region. Zmiana nazwiska autora nie usuwa list Book.authors.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheEvictionTest {
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    AuthorService authorService;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    LoanService loanService;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    // Sprawdza: wypożyczenie i zwrot usuwają z cache tylko wypożyczaną książkę, licznik po odczycie jest aktualny
+    @Test
+    void checkoutAndReturn_shouldEvictOnlyTheBorrowedBook() throws Exception {
+        Book borrowed = createBook();
+        Book other = createBook();
+        bookService.getById(borrowed.getId());
+        bookService.getById(other.getId());
+        assertTrue(cache.containsEntity(Book.class, borrowed.getId()));
+        assertTrue(cache.containsEntity(Book.class, other.getId()));
+
+        Loan loan = loanService.create(loanRequest(borrowed.getId()));
+
+        assertFalse(cache.containsEntity(Book.class, borrowed.getId()));
+        assertTrue(cache.containsEntity(Book.class, other.getId()));
+        assertEquals(1, bookService.getById(borrowed.getId()).getAvailableCopies());
+
+        loanService.returnLoan(loan.getId());
+
+        assertTrue(cache.containsEntity(Book.class, other.getId()));
+        assertEquals(2, bookService.getById(borrowed.getId()).getAvailableCopies());
+    }
+
+    // Sprawdza: zmiana nazwiska autora usuwa autora, a zapamiętana lista autorów książki zostaje
+    @Test
+    void authorRename_shouldKeepBookAuthorLists() throws Exception {
+        Book book = createBook();
+        CreateAuthorRequest createAuthor = new CreateAuthorRequest();
+        createAuthor.setName("Before Rename");
+        Author author = authorService.create(createAuthor);
+        bookService.addAuthor(book.getId(), author.getId());
+        bookService.getById(book.getId());
+        authorService.getById(author.getId());
+        assertTrue(cache.containsCollection(CacheRegions.BOOK_AUTHORS_ROLE, book.getId()));
+
+        UpdateAuthorRequest rename = new UpdateAuthorRequest();
+        rename.setName("After Rename");
+        authorService.update(author.getId(), rename);
+
+        assertTrue(cache.containsCollection(CacheRegions.BOOK_AUTHORS_ROLE, book.getId()));
+        assertFalse(cache.containsEntity(Author.class, author.getId()));
+        assertEquals("After Rename", authorService.getById(author.getId()).getName());
+    }
+
+    private Book createBook() throws Exception {
+        CreateBookRequest req = new CreateBookRequest();
+        req.setTitle("Cache eviction");
+        req.setIsbn(UUID.randomUUID().toString());
+        req.setTotalCopies(2);
+        return bookService.create(req);
+    }
+
+    private CreateLoanRequest loanRequest(Long bookId) throws Exception {
+        CreateUserRequest user = new CreateUserRequest();
+        user.setEmail(UUID.randomUUID() + "@cache.test");
+        user.setFullName("Cache Test");
+        CreateLoanRequest req = new CreateLoanRequest();
+        req.setUserId(userService.create(user).getId());
+        req.setBookId(bookId);
+        return req;
+    }
+}
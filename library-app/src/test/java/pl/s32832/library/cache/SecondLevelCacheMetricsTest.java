@@ -0,0 +1,31 @@
+package pl.s32832.library.cache;
+
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SecondLevelCacheMetricsTest {
+
+    @Test
+    void hitRatio_shouldDivideHitsByRequests() {
+        Statistics statistics = mock(Statistics.class);
+        CacheRegionStatistics region = mock(CacheRegionStatistics.class);
+        when(statistics.getDomainDataRegionStatistics(CacheRegions.BOOKS)).thenReturn(region);
+        when(region.getHitCount()).thenReturn(3L);
+        when(region.getMissCount()).thenReturn(1L);
+
+        assertEquals(0.75, SecondLevelCacheMetrics.hitRatio(statistics, CacheRegions.BOOKS));
+    }
+
+    @Test
+    void hitRatio_shouldBeZeroWithoutRequests() {
+        Statistics statistics = mock(Statistics.class);
+        CacheRegionStatistics region = mock(CacheRegionStatistics.class);
+        when(statistics.getDomainDataRegionStatistics(CacheRegions.AUTHORS)).thenReturn(region);
+
+        assertEquals(0.0, SecondLevelCacheMetrics.hitRatio(statistics, CacheRegions.AUTHORS));
+    }
+}
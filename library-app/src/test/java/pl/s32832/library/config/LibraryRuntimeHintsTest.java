@@ -0,0 +1,60 @@
+package pl.s32832.library.config;
+
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import pl.s32832.library.dto.request.CreateBookRequest;
+import pl.s32832.library.dto.response.BookResponse;
+import pl.s32832.library.entity.Loan;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LibraryRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    void setUp() {
+        new LibraryRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    // Sprawdza, czy encje mają hinty refleksji na pola i konstruktory (Hibernate)
+    @Test
+    void entities_shouldBeReflective() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Loan.class)
+                .withMemberCategories(MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)
+                .test(hints));
+    }
+
+    // Sprawdza, czy DTO mają hinty dla Jacksona i wiązania formularzy (gettery i settery)
+    @Test
+    void dtos_shouldHaveBindingHints() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(CreateBookRequest.class.getMethod("setTitle", String.class)).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(BookResponse.class.getMethod("title")).test(hints));
+    }
+
+    // Sprawdza, czy szablony Thymeleaf i zasoby Swagger UI trafiają do obrazu
+    @Test
+    void templatesAndSwaggerUi_shouldBeIncluded() {
+        assertTrue(RuntimeHintsPredicates.resource().forResource("templates/index.html").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("templates/books/list.html").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("META-INF/resources/webjars/swagger-ui/5.17.14/index.html").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("application.conf").test(hints));
+    }
+
+    // Sprawdza, czy proxy JDBC z datasource-proxy mają hinty proxy JDK
+    @Test
+    void jdbcProxies_shouldBeRegistered() {
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(ProxyJdbcObject.class, Connection.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(ProxyJdbcObject.class, PreparedStatement.class).test(hints));
+    }
+}
@@ -0,0 +1,117 @@
+package pl.s32832.library.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import pl.s32832.library.util.CursorCodec;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static pl.s32832.library.metrics.StatementCounts.assertStatements;
+
+/**
+ * Dokładna liczba instrukcji SQL dla endpointów REST (H2, profil "test").
+ *
+ * Zmiana liczby to sygnał do przejrzenia zmiany — np. powrót EAGER na Loan.user
+ * dokłada SELECT profilu użytkownika do każdego odczytu wypożyczenia.
+ * Tworzenie wypożyczenia nie ma tu dokładnej liczby: SELECT sekwencji (pooled-lo)
+ * pojawia się tylko co IdGeneration.ALLOCATION_SIZE wierszy.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ApiStatementCountTest {
+
+    @Autowired
+    WebApplicationContext context;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    // zwrot: SELECT wypożyczenia (bez JOIN na users/books), UPDATE loans, UPDATE books
+    @Test
+    void returnLoan_shouldUseThreeStatements() throws Exception {
+        long loanId = createLoan(createUser(), createBook());
+
+        assertStatements(3, () -> mockMvc.perform(put("/api/loans/{id}/return", loanId))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void getLoan_shouldUseSingleStatement() throws Exception {
+        long loanId = createLoan(createUser(), createBook());
+
+        assertStatements(1, () -> mockMvc.perform(get("/api/loans/{id}", loanId))
+                .andExpect(status().isOk()));
+    }
+
+    // po zmianie autorów książka jest usuwana z cache 2. poziomu: SELECT książki + SELECT autorów
+    @Test
+    void getBook_afterAuthorChange_shouldUseTwoStatements() throws Exception {
+        long bookId = createBook();
+        long authorId = id(mockMvc.perform(post("/api/authors")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Statement Count\"}")));
+        mockMvc.perform(post("/api/books/{bookId}/authors/{authorId}", bookId, authorId))
+                .andExpect(status().isOk());
+
+        assertStatements(2, () -> mockMvc.perform(get("/api/books/{id}", bookId))
+                .andExpect(status().isOk()));
+    }
+
+    // strona książek: jeden SELECT strony, ID autorów z podzapytania (listagg) w tym samym SELECT
+    @Test
+    void listBooks_shouldUseSingleStatement() throws Exception {
+        long first = createBook();
+        createBook();
+        // strona zawiera tylko książki z tego testu, niezależnie od danych z innych testów
+        String after = CursorCodec.encode(first - 1);
+
+        assertStatements(1, () -> mockMvc.perform(get("/api/books").param("after", after).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].authorIds").isEmpty()));
+    }
+
+    private long createUser() throws Exception {
+        return id(mockMvc.perform(post("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + UUID.randomUUID() + "@statement-count.test\",\"fullName\":\"Statement Count\"}")));
+    }
+
+    private long createBook() throws Exception {
+        return id(mockMvc.perform(post("/api/books")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Statement Count\",\"isbn\":\"" + UUID.randomUUID() + "\",\"totalCopies\":1000}")));
+    }
+
+    private long createLoan(long userId, long bookId) throws Exception {
+        return id(mockMvc.perform(post("/api/loans")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"userId\":" + userId + ",\"bookId\":" + bookId + "}")));
+    }
+
+    private long id(ResultActions result) throws Exception {
+        String body = result.andExpect(status().is2xxSuccessful()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+}
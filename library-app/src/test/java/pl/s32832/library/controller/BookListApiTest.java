@@ -0,0 +1,110 @@
+package pl.s32832.library.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import pl.s32832.library.util.CursorCodec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /api/books (projekcja BookResponse, ID autorów z listagg) na bazie H2 (profil "test").
+ *
+ * Sprawdzamy dokładne authorIds dla książek z 0, 1 i kilkoma autorami — także względem
+ * GET /api/books/{id}, który buduje odpowiedź z encji.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookListApiTest {
+
+    @Autowired
+    WebApplicationContext context;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    // Sprawdza: authorIds na stronie listy = dokładnie przypisani autorzy, rosnąco po ID, bez duplikatów
+    @Test
+    void listBooks_shouldReturnExactAuthorIds() throws Exception {
+        long first = createAuthor();
+        long second = createAuthor();
+        long third = createAuthor();
+
+        long noAuthors = createBook();
+        long oneAuthor = createBook();
+        long manyAuthors = createBook();
+        addAuthor(oneAuthor, second);
+        // kolejność przypisania inna niż kolejność ID
+        addAuthor(manyAuthors, third);
+        addAuthor(manyAuthors, first);
+        addAuthor(manyAuthors, second);
+
+        JsonNode items = json(mockMvc.perform(get("/api/books")
+                .param("after", CursorCodec.encode(noAuthors - 1))
+                .param("limit", "3"))).get("items");
+
+        assertEquals(3, items.size());
+        assertEquals(List.of(noAuthors, oneAuthor, manyAuthors), List.of(
+                items.get(0).get("id").asLong(), items.get(1).get("id").asLong(), items.get(2).get("id").asLong()));
+        assertEquals(List.of(), ids(items.get(0).get("authorIds")));
+        assertEquals(List.of(second), ids(items.get(1).get("authorIds")));
+        assertEquals(List.of(first, second, third), ids(items.get(2).get("authorIds")));
+
+        for (JsonNode item : items) {
+            JsonNode single = json(mockMvc.perform(get("/api/books/{id}", item.get("id").asLong())));
+            assertEquals(ids(item.get("authorIds")), ids(single.get("authorIds")).stream().sorted().toList());
+        }
+    }
+
+    private long createAuthor() throws Exception {
+        return json(mockMvc.perform(post("/api/authors")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Book List\"}"))).get("id").asLong();
+    }
+
+    private long createBook() throws Exception {
+        return json(mockMvc.perform(post("/api/books")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Book List\",\"isbn\":\"" + UUID.randomUUID() + "\",\"totalCopies\":1}")))
+                .get("id").asLong();
+    }
+
+    private void addAuthor(long bookId, long authorId) throws Exception {
+        mockMvc.perform(post("/api/books/{bookId}/authors/{authorId}", bookId, authorId))
+                .andExpect(status().isOk());
+    }
+
+    private JsonNode json(ResultActions result) throws Exception {
+        String body = result.andExpect(status().is2xxSuccessful()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private static List<Long> ids(JsonNode array) {
+        List<Long> ids = new ArrayList<>();
+        array.forEach(id -> ids.add(id.asLong()));
+        return ids;
+    }
+}
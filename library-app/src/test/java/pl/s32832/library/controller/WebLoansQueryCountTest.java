@@ -0,0 +1,117 @@
+package pl.s32832.library.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import pl.s32832.library.dto.request.CreateBookRequest;
+import pl.s32832.library.dto.request.CreateLoanRequest;
+import pl.s32832.library.dto.request.CreateUserRequest;
+import pl.s32832.library.entity.Book;
+import pl.s32832.library.entity.Loan;
+import pl.s32832.library.entity.User;
+import pl.s32832.library.service.BookService;
+import pl.s32832.library.service.LoanService;
+import pl.s32832.library.service.UserService;
+import pl.s32832.library.util.CursorCodec;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Test liczby zapytań SQL dla strony /web/loans (H2, profil "test").
+ *
+ * Strona z 2 i z 40 wypożyczeniami (różni użytkownicy i książki) musi wykonać
+ * tyle samo instrukcji SQL — brak N+1 przy wyświetlaniu użytkownika i książki.
+ * Liczymy instrukcje przygotowane przez Hibernate (Statistics, generate_statistics=true).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class WebLoansQueryCountTest {
+
+    @Autowired
+    WebApplicationContext context;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    LoanService loanService;
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    UserService userService;
+
+    MockMvc mockMvc;
+    Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // MockMvc bez @AutoConfigureMockMvc — ten sam kontekst (i ta sama baza H2) co pozostałe testy
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void loansPage_shouldUseConstantNumberOfStatements() throws Exception {
+        Loan first = createLoan();
+        createLoan();
+        // strona zaczyna się od naszych wypożyczeń, niezależnie od danych z innych testów
+        String after = CursorCodec.encode(first.getId() - 1);
+
+        long smallPage = statementsFor(after);
+
+        for (int i = 0; i < 38; i++) {
+            createLoan();
+        }
+        long largePage = statementsFor(after);
+
+        assertEquals(1, smallPage);
+        assertEquals(smallPage, largePage);
+    }
+
+    private long statementsFor(String after) throws Exception {
+        long before = statistics.getPrepareStatementCount();
+
+        mockMvc.perform(get("/web/loans").param("after", after))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/html"));
+
+        return statistics.getPrepareStatementCount() - before;
+    }
+
+    /**
+     * Każde wypożyczenie ma własnego użytkownika i własną książkę —
+     * przy N+1 liczba zapytań rosłaby razem z liczbą wierszy.
+     */
+    private Loan createLoan() throws Exception {
+        CreateUserRequest userReq = new CreateUserRequest();
+        userReq.setEmail(UUID.randomUUID() + "@query-count.test");
+        userReq.setFullName("Query Count");
+        User user = userService.create(userReq);
+
+        CreateBookRequest bookReq = new CreateBookRequest();
+        bookReq.setTitle("Query Count");
+        bookReq.setIsbn(UUID.randomUUID().toString());
+        bookReq.setTotalCopies(1);
+        Book book = bookService.create(bookReq);
+
+        CreateLoanRequest loanReq = new CreateLoanRequest();
+        loanReq.setUserId(user.getId());
+        loanReq.setBookId(book.getId());
+        return loanService.create(loanReq);
+    }
+}
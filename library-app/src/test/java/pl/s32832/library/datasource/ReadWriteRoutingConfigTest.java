@@ -0,0 +1,62 @@
+package pl.s32832.library.datasource;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routing na dwóch bazach H2 w pamięci: "routing" (główna, schemat z Hibernate) i "replica".
+ * Replika nie ma schematu, dlatego podpowiedzi (budowane przy starcie z transakcji readOnly) są wyłączone.
+ * Własna baza główna — create-drop tego kontekstu nie może skasować bazy "library" współdzielonej przez inne testy.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "library.datasource.replica.enabled=true",
+        "library.datasource.replica.url=jdbc:h2:mem:replica;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "library.datasource.replica.username=sa",
+        "library.search.autocomplete.enabled=false"
+})
+@ActiveProfiles("test")
+class ReadWriteRoutingConfigTest {
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    // Sprawdza, czy transakcje JPA readOnly czytają z repliki, a transakcje zapisu z bazy głównej
+    @Test
+    void jpaTransactions_shouldBeRoutedByReadOnlyFlag() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate write = new TransactionTemplate(transactionManager);
+
+        assertEquals("REPLICA", readOnly.execute(status -> catalog()));
+        assertEquals("ROUTING", write.execute(status -> catalog()));
+    }
+
+    // Sprawdza, czy główny DataSource bez transakcji (Flyway, Hibernate przy starcie) używa bazy głównej
+    @Test
+    void withoutTransaction_shouldUsePrimary() throws Exception {
+        try (var connection = dataSource.getConnection()) {
+            assertEquals("ROUTING", connection.getCatalog());
+        }
+    }
+
+    private String catalog() {
+        return (String) entityManager.createNativeQuery("SELECT CURRENT_CATALOG").getSingleResult();
+    }
+}
@@ -0,0 +1,140 @@
+package pl.s32832.library.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.servlet.http.Cookie;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final Clock clock = Clock.fixed(Instant.ofEpochMilli(1_000_000), ZoneOffset.UTC);
+
+    private ReadWriteRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        routing = new ReadWriteRoutingDataSource(primary, replica, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    // Sprawdza, czy transakcja readOnly dostaje połączenie z repliki
+    @Test
+    void readOnlyTransaction_shouldUseReplica() throws Exception {
+        transaction(true);
+
+        assertSame(replicaConnection, routing.getConnection());
+        assertEquals(1.0, count("replica", "read-only"));
+    }
+
+    // Sprawdza, czy transakcja zapisu i praca bez transakcji idą do bazy głównej
+    @Test
+    void writeTransactionAndNoTransaction_shouldUsePrimary() throws Exception {
+        transaction(false);
+        assertSame(primaryConnection, routing.getConnection());
+
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        assertSame(primaryConnection, routing.getConnection());
+
+        assertEquals(2.0, count("primary", "write"));
+        verifyNoInteractions(replica);
+    }
+
+    // Sprawdza, czy zapis w żądaniu ustawia ciasteczko z końcem okna read-your-writes
+    @Test
+    void writeInRequest_shouldSetReadYourWritesCookie() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter().doFilter(new MockHttpServletRequest("POST", "/api/loans"), response,
+                (req, res) -> {
+                    transaction(false);
+                    connect();
+                    connect();
+                });
+
+        Cookie cookie = response.getCookie(ReadYourWritesFilter.COOKIE);
+        assertNotNull(cookie);
+        assertEquals(Long.toString(clock.millis() + 5_000), cookie.getValue());
+        assertEquals(5, cookie.getMaxAge());
+    }
+
+    // Sprawdza, czy w oknie read-your-writes odczyty klienta idą do bazy głównej, a po oknie do repliki
+    @Test
+    void readAfterOwnWrite_shouldUsePrimaryUntilWindowEnds() throws Exception {
+        Connection[] used = new Connection[2];
+
+        MockHttpServletRequest recent = new MockHttpServletRequest("GET", "/api/loans/1");
+        recent.setCookies(new Cookie(ReadYourWritesFilter.COOKIE, Long.toString(clock.millis() + 1)));
+        filter().doFilter(recent, new MockHttpServletResponse(), (req, res) -> {
+            transaction(true);
+            used[0] = connect();
+        });
+
+        MockHttpServletRequest expired = new MockHttpServletRequest("GET", "/api/loans/1");
+        expired.setCookies(new Cookie(ReadYourWritesFilter.COOKIE, Long.toString(clock.millis())));
+        filter().doFilter(expired, new MockHttpServletResponse(), (req, res) -> {
+            transaction(true);
+            used[1] = connect();
+        });
+
+        assertSame(primaryConnection, used[0]);
+        assertSame(replicaConnection, used[1]);
+        assertEquals(1.0, count("primary", "read-your-writes"));
+    }
+
+    // Sprawdza, czy poza żądaniem HTTP (brak filtra) odczyt readOnly zawsze idzie do repliki
+    @Test
+    void readOnlyOutsideRequest_shouldNotBePinned() throws Exception {
+        transaction(true);
+
+        assertSame(replicaConnection, routing.getConnection());
+        assertEquals(0.0, count("primary", "read-your-writes"));
+    }
+
+    private ReadYourWritesFilter filter() {
+        return new ReadYourWritesFilter(Duration.ofSeconds(5), clock);
+    }
+
+    private static void transaction(boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private double count(String pool, String reason) {
+        return registry.get("library.datasource.route").tag("pool", pool).tag("reason", reason).counter().count();
+    }
+
+    private Connection connect() {
+        try {
+            return routing.getConnection();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
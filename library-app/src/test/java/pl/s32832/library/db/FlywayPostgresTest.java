@@ -0,0 +1,75 @@
+package pl.s32832.library.db;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationInfoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Migracje Flyway (V1..) i ddl-auto=validate na prawdziwym PostgreSQL.
+ *
+ * W profilu "test" (H2) Flyway jest wyłączony, więc tylko ten test sprawdza, że migracje
+ * wykonują się w PostgreSQL i że wynikowy schemat zgadza się z mapowaniem encji
+ * (sekwencje, kolumny version, indeksy text_pattern_ops i GIN, triggery wyszukiwania).
+ * Uruchomienie:
+ *   mvn test -Dtest=FlywayPostgresTest -Dlibrary.pg.url=jdbc:postgresql://localhost:5432/library
+ */
+@EnabledIfSystemProperty(named = PostgresSchema.URL_PROPERTY, matches = ".+")
+class FlywayPostgresTest {
+
+    private final PostgresSchema schema = new PostgresSchema("library_flyway_test");
+
+    @BeforeEach
+    void setUp() throws Exception {
+        schema.recreate();
+    }
+
+    // Sprawdza: pusta baza -> wszystkie migracje wykonane, start z validate; drugi start nic nie migruje
+    @Test
+    void emptySchema_shouldMigrateAndValidate() {
+        try (ConfigurableApplicationContext app = schema.start()) {
+            MigrationInfoService info = app.getBean(Flyway.class).info();
+            assertEquals(0, info.pending().length);
+            assertEquals(info.all().length, info.applied().length);
+            assertSequencesMatchAllocationSize(app);
+        }
+
+        try (ConfigurableApplicationContext app = schema.start()) {
+            assertEquals(0, app.getBean(Flyway.class).info().pending().length);
+        }
+    }
+
+    // Sprawdza przejęcie bazy utworzonej wcześniej przez ddl-auto=update: baseline 0, idempotentny V1, validate
+    @Test
+    void schemaFromHibernateUpdate_shouldBeBaselinedAndValidate() {
+        try (ConfigurableApplicationContext ignored = schema.start(
+                "spring.flyway.enabled=false", "spring.jpa.hibernate.ddl-auto=update")) {
+            // schemat jak przed wprowadzeniem migracji
+        }
+
+        try (ConfigurableApplicationContext app = schema.start()) {
+            MigrationInfo[] applied = app.getBean(Flyway.class).info().applied();
+            List<String> versions = Arrays.stream(applied).map(m -> m.getVersion().getVersion()).toList();
+            assertEquals("0", versions.get(0));
+            assertTrue(versions.contains("1"));
+            assertEquals(0, app.getBean(Flyway.class).info().pending().length);
+            assertSequencesMatchAllocationSize(app);
+        }
+    }
+
+    private static void assertSequencesMatchAllocationSize(ConfigurableApplicationContext app) {
+        List<Long> increments = app.getBean(JdbcTemplate.class).queryForList(
+                "select increment_by from pg_sequences where schemaname = current_schema()", Long.class);
+        assertEquals(5, increments.size());
+        increments.forEach(increment -> assertEquals(50L, increment));
+    }
+}
@@ -0,0 +1,85 @@
+package pl.s32832.library.db;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import pl.s32832.library.dto.request.CreateBookRequest;
+import pl.s32832.library.dto.request.CreateUserRequest;
+import pl.s32832.library.dto.response.BookLookupResponse;
+import pl.s32832.library.dto.response.UserResponse;
+import pl.s32832.library.service.BookService;
+import pl.s32832.library.service.UserService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Natywne zapytania podpowiedzi (BookRepository.lookup, UserRepository.lookup) na prawdziwym PostgreSQL.
+ *
+ * Składnia order by ... using ~<~ nie działa w H2, dlatego tylko ten test wykonuje te zapytania.
+ * Uruchomienie:
+ *   mvn test -Dtest=LookupPostgresTest -Dlibrary.pg.url=jdbc:postgresql://localhost:5432/library
+ */
+@EnabledIfSystemProperty(named = PostgresSchema.URL_PROPERTY, matches = ".+")
+class LookupPostgresTest {
+
+    private final PostgresSchema schema = new PostgresSchema("library_lookup_test");
+
+    @BeforeEach
+    void setUp() throws Exception {
+        schema.recreate();
+    }
+
+    // Sprawdza: najpierw trafienia po tytule (kolejność indeksu), potem tylko po ISBN; limit obcina całość
+    @Test
+    void bookLookup_shouldListTitleMatchesBeforeIsbnMatches() throws Exception {
+        try (ConfigurableApplicationContext app = schema.start()) {
+            BookService books = app.getBean(BookService.class);
+            createBook(books, "Lalka", "111");
+            createBook(books, "Zemsta", "LA-999");
+            createBook(books, "Las", "la-001");
+            createBook(books, "Solaris", "222");
+            createBook(books, "50% rabatu", "333");
+
+            assertEquals(List.of("Lalka", "Las", "Zemsta"), titles(books.lookup("La", 10)));
+            assertEquals(List.of("Lalka", "Las"), titles(books.lookup("la", 2)));
+            assertEquals(List.of("50% rabatu"), titles(books.lookup("50%", 10)));
+            assertTrue(books.lookup("5_", 10).isEmpty());
+        }
+    }
+
+    // Sprawdza: najpierw trafienia po imieniu i nazwisku, potem tylko po emailu
+    @Test
+    void userLookup_shouldListNameMatchesBeforeEmailMatches() throws Exception {
+        try (ConfigurableApplicationContext app = schema.start()) {
+            UserService users = app.getBean(UserService.class);
+            createUser(users, "Anna Nowak", "nowak@x.pl");
+            createUser(users, "Jan Kowalski", "an.kowalski@x.pl");
+            createUser(users, "Andrzej Zieliński", "andrzej@x.pl");
+
+            List<String> names = users.lookup("an", 10).stream().map(UserResponse::fullName).toList();
+            assertEquals(List.of("Andrzej Zieliński", "Anna Nowak", "Jan Kowalski"), names);
+        }
+    }
+
+    private static void createBook(BookService books, String title, String isbn) throws Exception {
+        CreateBookRequest req = new CreateBookRequest();
+        req.setTitle(title);
+        req.setIsbn(isbn);
+        req.setTotalCopies(1);
+        books.create(req);
+    }
+
+    private static void createUser(UserService users, String fullName, String email) throws Exception {
+        CreateUserRequest req = new CreateUserRequest();
+        req.setFullName(fullName);
+        req.setEmail(email);
+        users.create(req);
+    }
+
+    private static List<String> titles(List<BookLookupResponse> hits) {
+        return hits.stream().map(BookLookupResponse::title).toList();
+    }
+}
@@ -0,0 +1,78 @@
+package pl.s32832.library.db;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import pl.s32832.library.LibraryApplication;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Osobny schemat w bazie PostgreSQL dla testów opt-in (-Dlibrary.pg.url=jdbc:postgresql://...).
+ *
+ * Schemat jest tworzony od zera przed testem (drop ... cascade), aplikacja łączy się z nim
+ * przez currentSchema w URL — Flyway i Hibernate widzą go jako schemat domyślny.
+ * Użytkownik i hasło: library.pg.username / library.pg.password (domyślnie postgres / postgres).
+ */
+final class PostgresSchema {
+
+    static final String URL_PROPERTY = "library.pg.url";
+
+    private final String name;
+
+    PostgresSchema(String name) {
+        this.name = name;
+    }
+
+    /** Usuwa schemat razem z zawartością i tworzy pusty. */
+    void recreate() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(baseUrl(), username(), password());
+             Statement statement = connection.createStatement()) {
+            statement.execute("drop schema if exists " + name + " cascade");
+            statement.execute("create schema " + name);
+        }
+    }
+
+    String url() {
+        String base = baseUrl();
+        return base + (base.contains("?") ? "&" : "?") + "currentSchema=" + name;
+    }
+
+    /**
+     * Startuje aplikację bez serwera HTTP z profilem domyślnym (Flyway + ddl-auto=validate)
+     * na tym schemacie; properties nadpisują ustawienia z application.yml.
+     */
+    ConfigurableApplicationContext start(String... properties) {
+        // argumenty wiersza poleceń, bo domyślne właściwości (builder.properties) przegrywają z application.yml
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + url(),
+                "--spring.datasource.username=" + username(),
+                "--spring.datasource.password=" + password(),
+                // własny CacheManager JCache (ta sama konfiguracja) — zamknięcie tej aplikacji nie może
+                // zamknąć wspólnego CacheManagera kontekstów @SpringBootTest z tej samej JVM
+                "--spring.jpa.properties.hibernate.javax.cache.uri=application.conf",
+                "--logging.level.root=WARN"));
+        Arrays.stream(properties).map(p -> "--" + p).forEach(args::add);
+        return new SpringApplicationBuilder(LibraryApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+    }
+
+    private static String baseUrl() {
+        return System.getProperty(URL_PROPERTY);
+    }
+
+    private static String username() {
+        return System.getProperty("library.pg.username", "postgres");
+    }
+
+    private static String password() {
+        return System.getProperty("library.pg.password", "postgres");
+    }
+}
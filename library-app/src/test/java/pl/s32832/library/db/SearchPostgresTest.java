@@ -0,0 +1,202 @@
+package pl.s32832.library.db;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import pl.s32832.library.dto.request.CreateAuthorRequest;
+import pl.s32832.library.dto.request.CreateBookRequest;
+import pl.s32832.library.dto.request.UpdateAuthorRequest;
+import pl.s32832.library.dto.request.UpdateBookRequest;
+import pl.s32832.library.dto.response.BookSearchHit;
+import pl.s32832.library.dto.response.BookSearchResponse;
+import pl.s32832.library.entity.Author;
+import pl.s32832.library.entity.Book;
+import pl.s32832.library.repository.BookRepository;
+import pl.s32832.library.service.AuthorService;
+import pl.s32832.library.service.BookSearchService;
+import pl.s32832.library.service.BookService;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Wyszukiwanie pełnotekstowe (BookRepository.search) i triggery search_vector z V5 na prawdziwym PostgreSQL.
+ *
+ * - searchVector_shouldFollowBookAndAuthorChanges: zmiany przez serwisy -> triggery -> wyniki wyszukiwania,
+ * - search_shouldRankAllMatchesUpToCandidateLimit: granica SEARCH_CANDIDATES i flaga truncated,
+ * - searchLatency: benchmark (domyślnie 100 000 książek, 10 000 autorów), raportuje p50 / p99 / max
+ *   dla szerokich i wąskich zapytań przez BookSearchService.
+ *
+ * Uruchomienie:
+ *   mvn test -Dtest=SearchPostgresTest -Dlibrary.pg.url=jdbc:postgresql://localhost:5432/library
+ *   benchmark dodatkowo: -Dlibrary.benchmark=true [-Dlibrary.benchmark.books=100000]
+ */
+@EnabledIfSystemProperty(named = PostgresSchema.URL_PROPERTY, matches = ".+")
+class SearchPostgresTest {
+
+    private static final String[] COMMON_WORDS = {
+            "dom", "las", "noc", "wojna", "pokoj", "miasto", "morze", "czas", "droga", "serce"};
+    private static final String[] QUERIES = {"jan", "dom", "mia", "wa", "noc wa", "nowak12", "wojna w3"};
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 300;
+
+    private final PostgresSchema schema = new PostgresSchema("library_search_test");
+
+    @BeforeEach
+    void setUp() throws Exception {
+        schema.recreate();
+    }
+
+    // Sprawdza triggery V5: nowa książka, zmiana tytułu, dodanie / usunięcie autora, zmiana nazwiska autora
+    @Test
+    void searchVector_shouldFollowBookAndAuthorChanges() throws Exception {
+        try (ConfigurableApplicationContext app = schema.start()) {
+            BookService books = app.getBean(BookService.class);
+            AuthorService authors = app.getBean(AuthorService.class);
+            BookSearchService search = app.getBean(BookSearchService.class);
+
+            Book lalka = createBook(books, "Lalka", "978-83-240-0001-5");
+            createBook(books, "Latarnik", "978-83-240-0002-2");
+            assertEquals(List.of("Lalka", "Latarnik"), titles(search, "la"));
+            assertEquals(List.of("Lalka"), titles(search, "9788324000015"));
+
+            UpdateBookRequest rename = new UpdateBookRequest();
+            rename.setTitle("Emancypantki");
+            rename.setTotalCopies(1);
+            books.update(lalka.getId(), rename);
+            assertTrue(titles(search, "lalka").isEmpty());
+            assertEquals(List.of("Emancypantki"), titles(search, "emancyp"));
+
+            CreateAuthorRequest createAuthor = new CreateAuthorRequest();
+            createAuthor.setName("Bolesław Prus");
+            Author prus = authors.create(createAuthor);
+            books.addAuthor(lalka.getId(), prus.getId());
+            assertEquals(List.of("Emancypantki"), titles(search, "prus"));
+
+            UpdateAuthorRequest renameAuthor = new UpdateAuthorRequest();
+            renameAuthor.setName("Aleksander Głowacki");
+            authors.update(prus.getId(), renameAuthor);
+            assertTrue(titles(search, "prus").isEmpty());
+            assertEquals(List.of("Emancypantki"), titles(search, "głowacki"));
+
+            books.removeAuthor(lalka.getId(), prus.getId());
+            assertTrue(titles(search, "głowacki").isEmpty());
+
+            // wypożyczenie zmienia tylko licznik — trigger UPDATE (title, isbn) się nie wykonuje
+            books.checkoutCopy(lalka.getId());
+            assertEquals(List.of("Emancypantki"), titles(search, "emancyp"));
+        }
+    }
+
+    // Sprawdza: do SEARCH_CANDIDATES trafień oceniane są wszystkie (najlepsze jest pierwsze),
+    // powyżej odpowiedź ma truncated = true
+    @Test
+    void search_shouldRankAllMatchesUpToCandidateLimit() throws Exception {
+        try (ConfigurableApplicationContext app = schema.start()) {
+            JdbcTemplate jdbc = app.getBean(JdbcTemplate.class);
+            BookSearchService search = app.getBean(BookSearchService.class);
+            int candidates = BookRepository.SEARCH_CANDIDATES;
+
+            insertBooks(jdbc, 1, 1, "Ogród ogród ogród");
+            insertBooks(jdbc, 2, candidates, "Ogród");
+            BookSearchResponse all = search.search("ogród", 0, BookSearchService.DEFAULT_SIZE);
+            assertEquals(1L, all.items().get(0).id());
+            assertFalse(all.truncated());
+
+            insertBooks(jdbc, candidates + 1, candidates + 1, "Ogród");
+            BookSearchResponse truncated = search.search("ogród", 0, BookSearchService.DEFAULT_SIZE);
+            assertTrue(truncated.truncated());
+            assertEquals(BookSearchService.DEFAULT_SIZE, truncated.items().size());
+        }
+    }
+
+    // Benchmark: opóźnienie BookSearchService.search na syntetycznym katalogu (szerokie i wąskie zapytania)
+    @Test
+    @EnabledIfSystemProperty(named = "library.benchmark", matches = "true")
+    void searchLatency() throws Exception {
+        int bookCount = Integer.getInteger("library.benchmark.books", 100_000);
+        int authorCount = Math.max(1, bookCount / 10);
+
+        try (ConfigurableApplicationContext app = schema.start()) {
+            long seedStart = System.nanoTime();
+            seed(app.getBean(JdbcTemplate.class), bookCount, authorCount);
+            long seedMillis = (System.nanoTime() - seedStart) / 1_000_000;
+
+            BookSearchService search = app.getBean(BookSearchService.class);
+            System.out.printf("%n=== PostgreSQL full-text search: %d books, %d authors (seed %d ms) ===%n",
+                    bookCount, authorCount, seedMillis);
+            for (String query : QUERIES) {
+                for (int i = 0; i < WARMUP; i++) {
+                    search.search(query, 0, BookSearchService.DEFAULT_SIZE);
+                }
+                long[] latencies = new long[ITERATIONS];
+                BookSearchResponse page = null;
+                for (int i = 0; i < ITERATIONS; i++) {
+                    long start = System.nanoTime();
+                    page = search.search(query, 0, BookSearchService.DEFAULT_SIZE);
+                    latencies[i] = System.nanoTime() - start;
+                }
+                Arrays.sort(latencies);
+                System.out.printf("%-10s p50 %7.2f ms, p99 %7.2f ms, max %7.2f ms (%d hits on page 0%s)%n",
+                        '"' + query + '"', percentile(latencies, 0.50) / 1e6, percentile(latencies, 0.99) / 1e6,
+                        latencies[latencies.length - 1] / 1e6, page.items().size(),
+                        page.truncated() ? ", truncated" : "");
+                assertFalse(page.items().isEmpty(), query);
+            }
+            System.out.println();
+        }
+    }
+
+    /**
+     * Katalog wstawiany wprost SQL-em; wektory liczy funkcja book_search_vector z V5.
+     * Tytuł = częste słowo + rzadkie słowo z md5 (prefiksy "w0".."wf" pasują do ~1/16 katalogu).
+     *
+     * Trigger book_authors przeliczałby wektor książki osobnym UPDATE dla każdego wiersza, dlatego na czas
+     * wstawiania jest wyłączony, a wektory przelicza jeden UPDATE.
+     */
+    private static void seed(JdbcTemplate jdbc, int bookCount, int authorCount) {
+        jdbc.update("insert into authors (id, name) "
+                + "select g, 'Jan Nowak' || g from generate_series(1, ?) g", authorCount);
+        jdbc.update("insert into books (id, title, isbn, total_copies, available_copies, version) "
+                + "select g, (?::text[])[1 + g % 10] || ' w' || substr(md5(g::text), 1, 6), "
+                + "'978-' || (10000000 + g), 1, 1, 0 from generate_series(1, ?) g",
+                "{" + String.join(",", COMMON_WORDS) + "}", bookCount);
+        jdbc.execute("alter table book_authors disable trigger trg_book_authors_search_vector");
+        jdbc.update("insert into book_authors (book_id, author_id) "
+                + "select g, 1 + g % ? from generate_series(1, ?) g", authorCount, bookCount);
+        jdbc.execute("alter table book_authors enable trigger trg_book_authors_search_vector");
+        // bez statystyk podzapytanie book_search_vector czytałoby całe book_authors dla każdej książki
+        jdbc.execute("analyze authors, book_authors");
+        jdbc.update("update books set search_vector = book_search_vector(id, title, isbn)");
+        // UPDATE przepisał każdy wiersz books — vacuum usuwa martwe wersje przed pomiarem
+        jdbc.execute("vacuum analyze books");
+    }
+
+    private static void insertBooks(JdbcTemplate jdbc, int fromId, int toId, String title) {
+        jdbc.update("insert into books (id, title, isbn, total_copies, available_copies, version) "
+                + "select g, ?, 'OGR-' || g, 1, 1, 0 from generate_series(?, ?) g", title, fromId, toId);
+    }
+
+    private static Book createBook(BookService books, String title, String isbn) throws Exception {
+        CreateBookRequest req = new CreateBookRequest();
+        req.setTitle(title);
+        req.setIsbn(isbn);
+        req.setTotalCopies(1);
+        return books.create(req);
+    }
+
+    private static List<String> titles(BookSearchService search, String query) throws Exception {
+        return search.search(query, 0, BookSearchService.DEFAULT_SIZE).items().stream()
+                .map(BookSearchHit::title)
+                .sorted()
+                .toList();
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+}
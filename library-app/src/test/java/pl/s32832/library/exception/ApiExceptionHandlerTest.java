@@ -0,0 +1,39 @@
+package pl.s32832.library.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiExceptionHandlerTest {
+
+    private final ApiExceptionHandler handler = new ApiExceptionHandler();
+
+    // Sprawdza, czy brak połączenia w puli (timeout Hikari, także opakowany przez Springa) daje 503 z Retry-After
+    @Test
+    void poolExhausted_shouldReturnServiceUnavailable() {
+        Exception ex = new CannotCreateTransactionException("Could not open JPA EntityManager",
+                new SQLTransientConnectionException("primary - Connection is not available, request timed out"));
+
+        ResponseEntity<ErrorResponse> response = handler.handleOther(ex, new MockHttpServletRequest("GET", "/api/books"));
+
+        assertEquals(503, response.getStatusCode().value());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals("/api/books", response.getBody().path());
+    }
+
+    // Sprawdza, czy pozostałe wyjątki nadal dają 500
+    @Test
+    void otherException_shouldReturnInternalServerError() {
+        ResponseEntity<ErrorResponse> response =
+                handler.handleOther(new IllegalStateException("boom"), new MockHttpServletRequest("GET", "/api/books"));
+
+        assertEquals(500, response.getStatusCode().value());
+        assertEquals("boom", response.getBody().message());
+    }
+}
@@ -0,0 +1,52 @@
+package pl.s32832.library.load;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test obciążeniowy REST API: mix wypożyczeń/zwrotów, odczytów książek i użytkowników.
+ *
+ * Bez library.load.base-url aplikacja startuje w teście na losowym porcie (profil "test", H2).
+ * Z base-url test uderza w już działającą instancję (np. z PostgreSQL: mvn spring-boot:run).
+ *
+ * Test kończy się błędem, gdy p99 któregoś żądania przekroczy cel albo odsetek błędów
+ * przekroczy library.load.max-error-rate. Histogramy (.hgrm) trafiają do target/load/.
+ * Uruchomienie:
+ *   mvn test -Dtest=HttpLoadTest -Dlibrary.load=true [-Dlibrary.load.rate=500 -Dlibrary.load.p99=100 ...]
+ * Wszystkie ustawienia: LoadOptions.
+ */
+@EnabledIfSystemProperty(named = "library.load", matches = "true")
+class HttpLoadTest {
+
+    @Test
+    void restApiMeetsLatencyTargets() throws Exception {
+        LoadOptions options = LoadOptions.fromSystemProperties();
+        ConfigurableApplicationContext app = null;
+        URI baseUrl = options.baseUrl();
+        if (baseUrl == null) {
+            app = LoadRun.startApplication();
+            baseUrl = LoadRun.baseUrl(app);
+        }
+
+        try {
+            LoadReport report = LoadRun.execute(baseUrl, options);
+
+            report.print(System.out);
+            report.writeHistograms(Path.of("target", "load"));
+
+            List<String> violations = report.violations();
+            assertTrue(violations.isEmpty(), "Load targets missed:\n" + String.join("\n", violations));
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+        }
+    }
+}
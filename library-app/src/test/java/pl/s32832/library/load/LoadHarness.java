@@ -0,0 +1,231 @@
+package pl.s32832.library.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import pl.s32832.library.load.LoadOptions.Metric;
+import pl.s32832.library.load.LoadOptions.Operation;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Generator obciążenia HTTP dla REST API (otwarta pętla, stałe tempo).
+ *
+ * - Operacje są wysyłane w zaplanowanych chwilach (co 1/rate sekundy), niezależnie
+ *   od tego, czy poprzednie już wróciły — jak prawdziwi klienci.
+ * - Opóźnienie liczymy od zaplanowanej chwili wysłania, nie od faktycznej: jeśli aplikacja
+ *   (albo limit maxInFlight) spowalnia wysyłanie, czas oczekiwania trafia do histogramu
+ *   (korekta "coordinated omission").
+ * - Żądania idą asynchronicznie przez java.net.http.HttpClient, równoległość ogranicza Semaphore.
+ * - Każde żądanie ma własny histogram HdrHistogram (mikrosekundy, 3 cyfry znaczące).
+ *
+ * Operacja "loan" to wypożyczenie i zaraz po nim zwrot tej samej książki,
+ * więc liczba dostępnych egzemplarzy się nie wyczerpuje.
+ */
+final class LoadHarness {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private final HttpClient client;
+    private final URI baseUrl;
+    private final LoadOptions options;
+
+    private final List<Long> bookIds = new ArrayList<>();
+    private final List<Long> userIds = new ArrayList<>();
+
+    private final Map<Metric, Histogram> histograms = new EnumMap<>(Metric.class);
+    private final Map<Metric, LongAdder> errors = new EnumMap<>(Metric.class);
+    private volatile boolean recording;
+
+    LoadHarness(HttpClient client, URI baseUrl, LoadOptions options) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.options = options;
+        for (Metric metric : Metric.values()) {
+            histograms.put(metric, new ConcurrentHistogram(MAX_LATENCY_MICROS, 3));
+            errors.put(metric, new LongAdder());
+        }
+    }
+
+    /**
+     * Tworzy dane testowe przez API: użytkowników i książki z dużą liczbą egzemplarzy.
+     * Adresy email i ISBN dostają znacznik czasu, żeby można było powtarzać test na tej samej bazie.
+     */
+    void prepareData() throws IOException, InterruptedException {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        for (int i = 0; i < options.users(); i++) {
+            userIds.add(createAndGetId("/api/users",
+                    "{\"email\":\"load-" + runId + "-" + i + "@example.com\",\"fullName\":\"Load User " + i + "\"}"));
+        }
+        for (int i = 0; i < options.books(); i++) {
+            bookIds.add(createAndGetId("/api/books",
+                    "{\"title\":\"Load Book " + i + "\",\"isbn\":\"LOAD-" + runId + "-" + i + "\",\"totalCopies\":1000000}"));
+        }
+    }
+
+    /**
+     * Rozgrzewka (bez zapisu wyników), potem pomiar. Zwraca raport z fazy pomiaru.
+     */
+    LoadReport run() throws InterruptedException {
+        recording = false;
+        drive(options.warmup(), new SplittableRandom(1));
+
+        recording = true;
+        long start = System.nanoTime();
+        drive(options.duration(), new SplittableRandom(2));
+        long elapsed = System.nanoTime() - start;
+        recording = false;
+
+        Map<Metric, Long> errorCounts = new EnumMap<>(Metric.class);
+        errors.forEach((metric, count) -> errorCounts.put(metric, count.sum()));
+        return new LoadReport(options, Duration.ofNanos(elapsed), histograms, errorCounts);
+    }
+
+    // --- pętla generatora ---
+
+    private void drive(Duration duration, SplittableRandom random) throws InterruptedException {
+        if (duration.isZero() || duration.isNegative()) {
+            return;
+        }
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+        long interval = TimeUnit.SECONDS.toNanos(1) / Math.max(1, options.rate());
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        for (long n = 0; ; n++) {
+            long intended = start + n * interval;
+            if (intended - end >= 0) {
+                break;
+            }
+            parkUntil(intended);
+            inFlight.acquire();
+            execute(pick(random), intended, random)
+                    .whenComplete((ignored, failure) -> inFlight.release());
+        }
+
+        // czekamy, aż wrócą wszystkie wysłane żądania
+        inFlight.acquire(options.maxInFlight());
+        inFlight.release(options.maxInFlight());
+    }
+
+    private CompletableFuture<Void> execute(Operation op, long intended, SplittableRandom random) {
+        return switch (op) {
+            case LOAN -> {
+                long userId = userIds.get(random.nextInt(userIds.size()));
+                long bookId = bookIds.get(random.nextInt(bookIds.size()));
+                yield send(Metric.CREATE_LOAN, intended,
+                        post("/api/loans", "{\"userId\":" + userId + ",\"bookId\":" + bookId + "}"))
+                        .thenCompose(body -> {
+                            if (body == null) {
+                                return CompletableFuture.completedFuture(null);
+                            }
+                            long loanId = parseId(body);
+                            return send(Metric.RETURN_LOAN, System.nanoTime(),
+                                    request("/api/loans/" + loanId + "/return")
+                                            .PUT(HttpRequest.BodyPublishers.noBody())
+                                            .build());
+                        })
+                        .thenAccept(body -> { });
+            }
+            case GET_BOOK -> send(Metric.GET_BOOK, intended,
+                    get("/api/books/" + bookIds.get(random.nextInt(bookIds.size()))))
+                    .thenAccept(body -> { });
+            case LIST_BOOKS -> send(Metric.LIST_BOOKS, intended, get("/api/books?limit=20"))
+                    .thenAccept(body -> { });
+            case GET_USER -> send(Metric.GET_USER, intended,
+                    get("/api/users/" + userIds.get(random.nextInt(userIds.size()))))
+                    .thenAccept(body -> { });
+        };
+    }
+
+    /**
+     * Wysyła żądanie i zapisuje opóźnienie od chwili startNanos.
+     * Zwraca treść odpowiedzi 2xx albo null przy błędzie (błąd jest liczony, nie przerywa testu).
+     */
+    private CompletableFuture<String> send(Metric metric, long startNanos, HttpRequest request) {
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, failure) -> {
+                    boolean ok = failure == null && response.statusCode() / 100 == 2;
+                    if (recording) {
+                        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+                        histograms.get(metric).recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+                        if (!ok) {
+                            errors.get(metric).increment();
+                        }
+                    }
+                    return ok ? response.body() : null;
+                });
+    }
+
+    private Operation pick(SplittableRandom random) {
+        int total = options.mix().values().stream().mapToInt(Integer::intValue).sum();
+        int roll = random.nextInt(total);
+        for (Map.Entry<Operation, Integer> e : options.mix().entrySet()) {
+            roll -= e.getValue();
+            if (roll < 0) {
+                return e.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty load mix");
+    }
+
+    // --- HTTP ---
+
+    private long createAndGetId(String path, String json) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(post(path, json), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 201) {
+            throw new IllegalStateException("POST " + path + " -> " + response.statusCode() + ": " + response.body());
+        }
+        return parseId(response.body());
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return request(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(baseUrl.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json");
+    }
+
+    private static long parseId(String json) {
+        Matcher m = ID.matcher(json);
+        if (!m.find()) {
+            throw new IllegalStateException("No id in response: " + json);
+        }
+        return Long.parseLong(m.group(1));
+    }
+
+    private static void parkUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
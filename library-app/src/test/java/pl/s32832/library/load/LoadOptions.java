@@ -0,0 +1,116 @@
+package pl.s32832.library.load;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Ustawienia testu obciążeniowego z właściwości systemowych (-Dlibrary.load.*).
+ *
+ * library.load.base-url      -> adres działającej aplikacji; brak = aplikacja startuje w teście (H2)
+ * library.load.rate          -> docelowa liczba operacji na sekundę (otwarta pętla)
+ * library.load.max-in-flight -> maksymalna liczba równoległych żądań
+ * library.load.warmup / duration -> czas rozgrzewki / pomiaru (np. 10s, 1m)
+ * library.load.mix           -> udziały operacji, np. "loan=30,getBook=40,listBooks=20,getUser=10"
+ * library.load.p99           -> domyślny cel p99 w ms dla każdej metryki
+ * library.load.p99.<metryka> -> cel p99 w ms dla jednej metryki (np. library.load.p99.createLoan=50)
+ * library.load.max-error-rate -> dopuszczalny odsetek błędów (0.01 = 1%)
+ * library.load.books / users -> liczba książek / użytkowników tworzonych przed testem
+ * library.load.profiles      -> profile aplikacji startowanej w teście (domyślnie "test" = H2)
+ */
+record LoadOptions(
+        URI baseUrl,
+        int rate,
+        int maxInFlight,
+        Duration warmup,
+        Duration duration,
+        Map<Operation, Integer> mix,
+        Map<Metric, Duration> p99Targets,
+        double maxErrorRate,
+        int books,
+        int users
+) {
+
+    /** Operacja losowana z mixu; LOAN = wypożyczenie i od razu zwrot (dwa żądania, dwie metryki). */
+    enum Operation {
+        LOAN("loan"), GET_BOOK("getBook"), LIST_BOOKS("listBooks"), GET_USER("getUser");
+
+        final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+    }
+
+    /** Mierzone żądanie HTTP (osobny histogram). */
+    enum Metric {
+        CREATE_LOAN("createLoan"), RETURN_LOAN("returnLoan"), GET_BOOK("getBook"),
+        LIST_BOOKS("listBooks"), GET_USER("getUser");
+
+        final String key;
+
+        Metric(String key) {
+            this.key = key;
+        }
+    }
+
+    static LoadOptions fromSystemProperties() {
+        return fromSystemProperties("loan=30,getBook=40,listBooks=20,getUser=10");
+    }
+
+    /** Jak fromSystemProperties(), z innym domyślnym mixem (library.load.mix nadal ma pierwszeństwo). */
+    static LoadOptions fromSystemProperties(String defaultMix) {
+        String baseUrl = System.getProperty("library.load.base-url");
+
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        String mixSpec = System.getProperty("library.load.mix", defaultMix);
+        for (String part : mixSpec.split(",")) {
+            String[] kv = part.trim().split("=");
+            mix.put(operation(kv[0].trim()), Integer.parseInt(kv[1].trim()));
+        }
+
+        long defaultP99 = Long.getLong("library.load.p99", 250);
+        Map<Metric, Duration> targets = new EnumMap<>(Metric.class);
+        for (Metric metric : Metric.values()) {
+            targets.put(metric, Duration.ofMillis(Long.getLong("library.load.p99." + metric.key, defaultP99)));
+        }
+
+        return new LoadOptions(
+                baseUrl == null || baseUrl.isBlank() ? null : URI.create(baseUrl),
+                Integer.getInteger("library.load.rate", 200),
+                Integer.getInteger("library.load.max-in-flight", 64),
+                duration(System.getProperty("library.load.warmup", "10s")),
+                duration(System.getProperty("library.load.duration", "30s")),
+                mix,
+                targets,
+                Double.parseDouble(System.getProperty("library.load.max-error-rate", "0.01")),
+                Integer.getInteger("library.load.books", 200),
+                Integer.getInteger("library.load.users", 100)
+        );
+    }
+
+    private static Operation operation(String key) {
+        for (Operation op : Operation.values()) {
+            if (op.key.equals(key)) {
+                return op;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation in library.load.mix: " + key);
+    }
+
+    /** "500ms", "30s", "2m" -> Duration. */
+    static Duration duration(String value) {
+        String v = value.trim();
+        if (v.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        }
+        if (v.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        if (v.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(v));
+    }
+}
@@ -0,0 +1,115 @@
+package pl.s32832.library.load;
+
+import org.HdrHistogram.Histogram;
+import pl.s32832.library.load.LoadOptions.Metric;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wynik fazy pomiaru: histogramy opóźnień i liczba błędów dla każdego rodzaju żądania.
+ */
+record LoadReport(LoadOptions options, Duration elapsed, Map<Metric, Histogram> histograms,
+                  Map<Metric, Long> errors) {
+
+    /** Tabela: liczba żądań, przepustowość, błędy i percentyle (ms). */
+    void print(PrintStream out) {
+        double seconds = elapsed.toNanos() / 1e9;
+        out.printf("%n=== HTTP load: %d ops/s target, %d max in flight, %.1fs ===%n",
+                options.rate(), options.maxInFlight(), seconds);
+        out.printf("%-11s %8s %9s %7s %8s %8s %8s %8s %8s %9s%n",
+                "request", "count", "req/s", "errors", "p50", "p90", "p99", "p99.9", "max", "p99 goal");
+        for (Metric metric : Metric.values()) {
+            Histogram h = histograms.get(metric);
+            if (h.getTotalCount() == 0) {
+                continue;
+            }
+            out.printf("%-11s %8d %9.1f %7d %8.2f %8.2f %8.2f %8.2f %8.2f %9d%n",
+                    metric.key, h.getTotalCount(), h.getTotalCount() / seconds, errors.get(metric),
+                    millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(90)),
+                    millis(h.getValueAtPercentile(99)), millis(h.getValueAtPercentile(99.9)),
+                    millis(h.getMaxValue()), options.p99Targets().get(metric).toMillis());
+        }
+    }
+
+    /**
+     * Porównanie przebiegów (np. wątki platformowe / wirtualne): przepustowość całości
+     * i ogon rozkładu (p99, p99.9, max) dla każdego żądania. Kolumna "ok/s" pomija błędy.
+     */
+    static void printComparison(PrintStream out, Map<String, LoadReport> runs) {
+        out.printf("%n=== Comparison ===%n");
+        out.printf("%-10s %-11s %9s %7s %8s %8s %8s %8s%n",
+                "mode", "request", "ok/s", "errors", "p50", "p99", "p99.9", "max");
+        runs.forEach((mode, report) -> {
+            double seconds = report.elapsed().toNanos() / 1e9;
+            for (Metric metric : Metric.values()) {
+                Histogram h = report.histograms().get(metric);
+                if (h.getTotalCount() == 0) {
+                    continue;
+                }
+                long errors = report.errors().get(metric);
+                out.printf("%-10s %-11s %9.1f %7d %8.2f %8.2f %8.2f %8.2f%n",
+                        mode, metric.key, (h.getTotalCount() - errors) / seconds, errors,
+                        millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(99)),
+                        millis(h.getValueAtPercentile(99.9)), millis(h.getMaxValue()));
+            }
+        });
+    }
+
+    /** Zapisuje pełne rozkłady w formacie .hgrm (do wykresu np. w HdrHistogram Plotter). */
+    void writeHistograms(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Metric metric : Metric.values()) {
+            Histogram h = histograms.get(metric);
+            if (h.getTotalCount() == 0) {
+                continue;
+            }
+            try (PrintStream out = new PrintStream(
+                    Files.newOutputStream(directory.resolve(metric.key + ".hgrm")), true, "UTF-8")) {
+                // wartości w µs, skala 1000 -> percentyle w pliku w milisekundach
+                h.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    /**
+     * Naruszone cele: p99 powyżej progu albo odsetek błędów powyżej maxErrorRate.
+     * Pusta lista = test zaliczony.
+     */
+    List<String> violations() {
+        List<String> result = new ArrayList<>();
+        long total = 0;
+        long failed = 0;
+        for (Metric metric : Metric.values()) {
+            Histogram h = histograms.get(metric);
+            total += h.getTotalCount();
+            failed += errors.get(metric);
+            if (h.getTotalCount() == 0) {
+                continue;
+            }
+            long p99Micros = h.getValueAtPercentile(99);
+            long targetMicros = options.p99Targets().get(metric).toNanos() / 1000;
+            if (p99Micros > targetMicros) {
+                result.add(String.format("%s p99 %.2f ms > %d ms", metric.key, millis(p99Micros),
+                        options.p99Targets().get(metric).toMillis()));
+            }
+        }
+        if (total == 0) {
+            result.add("no requests were measured");
+        } else if ((double) failed / total > options.maxErrorRate()) {
+            result.add(String.format("error rate %.2f%% > %.2f%% (%d of %d)",
+                    100.0 * failed / total, 100.0 * options.maxErrorRate(), failed, total));
+        }
+        return result;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
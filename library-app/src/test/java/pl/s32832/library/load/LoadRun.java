@@ -0,0 +1,63 @@
+package pl.s32832.library.load;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import pl.s32832.library.LibraryApplication;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Wspólne kroki testów obciążeniowych: start aplikacji w teście i jeden przebieg generatora.
+ */
+final class LoadRun {
+
+    private LoadRun() {
+    }
+
+    /**
+     * Startuje aplikację na losowym porcie. Profile: library.load.profiles (domyślnie "test", czyli H2);
+     * pusta wartość = profil domyślny (PostgreSQL z application.yml).
+     */
+    static ConfigurableApplicationContext startApplication(String... properties) {
+        List<String> all = new ArrayList<>(List.of("server.port=0", "logging.level.root=WARN"));
+        all.addAll(Arrays.asList(properties));
+        String profiles = System.getProperty("library.load.profiles", "test");
+        return new SpringApplicationBuilder(LibraryApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .profiles(profiles.isBlank() ? new String[0] : profiles.split(","))
+                .properties(all.toArray(String[]::new))
+                .run();
+    }
+
+    static URI baseUrl(ConfigurableApplicationContext app) {
+        return URI.create("http://localhost:" + app.getEnvironment().getProperty("local.server.port"));
+    }
+
+    /** Tworzy dane, robi rozgrzewkę i pomiar; zwraca raport z pomiaru. */
+    static LoadReport execute(URI baseUrl, LoadOptions options) throws IOException, InterruptedException {
+        // wątki klienta tylko obsługują odpowiedzi — wysyłanie nie blokuje pętli generatora
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        try {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(executor)
+                    .build();
+
+            LoadHarness harness = new LoadHarness(client, baseUrl, options);
+            harness.prepareData();
+            return harness.run();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
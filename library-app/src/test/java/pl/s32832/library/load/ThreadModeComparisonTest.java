@@ -0,0 +1,61 @@
+package pl.s32832.library.load;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Porównanie trybów obsługi żądań: pula wątków platformowych Tomcata
+ * i wątki wirtualne (spring.threads.virtual.enabled, wymaga JDK 21+).
+ *
+ * Aplikacja startuje dwa razy z tymi samymi ustawieniami; generator wysyła ten sam mix
+ * wypożyczeń (POST /api/loans + zwrot) i list książek (GET /api/books) w tym samym tempie.
+ * Na wyjściu: tabela każdego przebiegu i zestawienie przepustowości oraz p99 / p99.9 / max.
+ * Histogramy: target/load/platform/ i target/load/virtual/.
+ *
+ * Wynik ma sens na PostgreSQL (opóźnienia JDBC), np.:
+ *   mvn test -Pjdk21 -Dtest=ThreadModeComparisonTest -Dlibrary.load=true -Dlibrary.load.profiles= \
+ *       -Dlibrary.load.rate=1000 -Dlibrary.load.max-in-flight=1000
+ * Pozostałe ustawienia: LoadOptions (domyślny mix: loan=50,listBooks=50).
+ */
+@EnabledIfSystemProperty(named = "library.load", matches = "true")
+@EnabledForJreRange(min = JRE.JAVA_21)
+class ThreadModeComparisonTest {
+
+    @Test
+    void platformAndVirtualThreadsMeetLatencyTargets() throws Exception {
+        LoadOptions options = LoadOptions.fromSystemProperties("loan=50,listBooks=50");
+
+        Map<String, LoadReport> reports = new LinkedHashMap<>();
+        reports.put("platform", run(options, false));
+        reports.put("virtual", run(options, true));
+
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<String, LoadReport> e : reports.entrySet()) {
+            System.out.printf("%n--- %s threads ---", e.getKey());
+            e.getValue().print(System.out);
+            e.getValue().writeHistograms(Path.of("target", "load", e.getKey()));
+            e.getValue().violations().forEach(v -> violations.add(e.getKey() + ": " + v));
+        }
+        LoadReport.printComparison(System.out, reports);
+
+        assertTrue(violations.isEmpty(), "Load targets missed:\n" + String.join("\n", violations));
+    }
+
+    private static LoadReport run(LoadOptions options, boolean virtual) throws Exception {
+        try (ConfigurableApplicationContext app =
+                     LoadRun.startApplication("spring.threads.virtual.enabled=" + virtual)) {
+            return LoadRun.execute(LoadRun.baseUrl(app), options);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package pl.s32832.library.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestDbTimeFilterTest {
+
+    // Sprawdza: czas zapytań z wątku żądania trafia do timera z wzorcem ścieżki jako tagiem uri
+    @Test
+    void shouldRecordDbTimePerUriPattern() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RequestDbTimeFilter filter = new RequestDbTimeFilter(registry);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books/7");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/books/{id}");
+            RequestDbTime.add(TimeUnit.MILLISECONDS.toNanos(3));
+            RequestDbTime.add(TimeUnit.MILLISECONDS.toNanos(2));
+        });
+
+        Timer timer = registry.get("library.http.db.time")
+                .tag("uri", "/api/books/{id}")
+                .tag("method", "GET")
+                .timer();
+        assertEquals(1, timer.count());
+        assertEquals(5.0, timer.totalTime(TimeUnit.MILLISECONDS), 0.001);
+    }
+
+    // Sprawdza: poza żądaniem (brak begin) czas nie jest zbierany
+    @Test
+    void shouldIgnoreQueriesOutsideRequest() {
+        RequestDbTime.add(1_000);
+        assertEquals(0, RequestDbTime.end());
+    }
+}
@@ -0,0 +1,43 @@
+package pl.s32832.library.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowQueryLogTest {
+
+    // Sprawdza: bufor nadpisuje najstarsze wpisy, odczyt sortuje po czasie malejąco
+    @Test
+    void shouldKeepLatestEntriesSortedByDuration() {
+        SlowQueryLog log = new SlowQueryLog(new SqlProfileProperties(true, Duration.ZERO, 3));
+
+        for (long ms = 1; ms <= 5; ms++) {
+            log.add(query(ms * 10));
+        }
+
+        List<SlowQuery> slowest = log.slowest(10);
+        assertEquals(List.of(50L, 40L, 30L), slowest.stream().map(SlowQuery::durationMs).toList());
+        assertEquals(2, log.slowest(2).size());
+
+        log.clear();
+        assertTrue(log.slowest(10).isEmpty());
+    }
+
+    // Sprawdza normalizację: białe znaki, literały i listy IN
+    @Test
+    void normalize_shouldReplaceLiteralsAndInLists() {
+        String sql = "select b1_0.id\n  from books b1_0 where b1_0.title = 'O''Reilly' "
+                + "and b1_0.id in (?, ?,?) fetch first 10 rows only";
+
+        assertEquals("select b1_0.id from books b1_0 where b1_0.title = ? and b1_0.id in (?...) fetch first ? rows only",
+                SlowQueryListener.normalize(sql));
+    }
+
+    private static SlowQuery query(long ms) {
+        return new SlowQuery(Instant.now(), ms, "select " + ms, 0, 0, true, null, null);
+    }
+}
@@ -0,0 +1,99 @@
+package pl.s32832.library.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import pl.s32832.library.dto.request.CreateBookRequest;
+import pl.s32832.library.dto.request.CreateLoanRequest;
+import pl.s32832.library.dto.request.CreateUserRequest;
+import pl.s32832.library.entity.Loan;
+import pl.s32832.library.service.BookService;
+import pl.s32832.library.service.LoanService;
+import pl.s32832.library.service.UserService;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * /actuator/sql na bazie H2 (profil "test"); próg 0 ms -> każde zapytanie trafia do dziennika.
+ * Osobny kontekst ma własną bazę — jego create-drop nie kasuje bazy "library" z innych testów.
+ */
+@SpringBootTest(properties = {
+        "library.sql.profile.slow-threshold=0ms",
+        "spring.datasource.url=jdbc:h2:mem:sqlprofile;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000"
+})
+@ActiveProfiles("test")
+class SqlProfileEndpointTest {
+
+    @Autowired
+    SqlProfileEndpoint endpoint;
+
+    @Autowired
+    WebApplicationContext context;
+
+    @Autowired
+    LoanService loanService;
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    UserService userService;
+
+    @Test
+    void profile_shouldShowQueriesWithServiceAndRepositoryTimes() throws Exception {
+        Loan loan = createLoan();
+        endpoint.reset();
+
+        loanService.getById(loan.getId());
+
+        SqlProfileEndpoint.SqlProfile profile = endpoint.profile();
+        SlowQuery query = profile.slowest().stream()
+                .filter(q -> "LoanService.getById".equals(q.service()))
+                .findFirst()
+                .orElseThrow();
+        assertTrue(query.query().contains("from loans"), query.query());
+        assertEquals(1, query.binds());
+
+        RepositoryProfiler.RepositoryTime findById = profile.repositories().stream()
+                .filter(t -> t.method().equals("LoanRepository.findById"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(1, findById.calls());
+        assertEquals(1, findById.statements());
+    }
+
+    // Sprawdza: GET /actuator/sql/{limit} zwraca co najwyżej limit zapytań
+    @Test
+    void slowest_shouldLimitNumberOfQueries() throws Exception {
+        createLoan();
+
+        MockMvcBuilders.webAppContextSetup(context).build()
+                .perform(get("/actuator/sql/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.slowest.length()").value(1));
+    }
+
+    private Loan createLoan() throws Exception {
+        CreateUserRequest userReq = new CreateUserRequest();
+        userReq.setEmail(UUID.randomUUID() + "@sql-profile.test");
+        userReq.setFullName("Sql Profile");
+
+        CreateBookRequest bookReq = new CreateBookRequest();
+        bookReq.setTitle("Sql Profile");
+        bookReq.setIsbn(UUID.randomUUID().toString());
+        bookReq.setTotalCopies(1);
+
+        CreateLoanRequest loanReq = new CreateLoanRequest();
+        loanReq.setUserId(userService.create(userReq).getId());
+        loanReq.setBookId(bookService.create(bookReq).getId());
+        return loanService.create(loanReq);
+    }
+}
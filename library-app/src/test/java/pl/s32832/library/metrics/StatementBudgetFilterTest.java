@@ -0,0 +1,61 @@
+package pl.s32832.library.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementBudgetFilterTest {
+
+    // Sprawdza: żądanie ponad budżet jest zliczane z metodą i wzorcem ścieżki
+    @Test
+    void shouldFlagRequestOverBudget() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StatementBudgetFilter filter = new StatementBudgetFilter(new StatementBudgetProperties(true, 2, 10), registry);
+
+        filter.doFilter(new MockHttpServletRequest("PUT", "/api/loans/5/return"), new MockHttpServletResponse(),
+                (req, res) -> {
+                    req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/loans/{id}/return");
+                    StatementCounter.record();
+                    StatementCounter.record();
+                    StatementCounter.record();
+                });
+
+        Counter exceeded = registry.get("library.sql.budget.exceeded")
+                .tag("scope", "request")
+                .tag("name", "PUT /api/loans/{id}/return")
+                .counter();
+        assertEquals(1, exceeded.count());
+    }
+
+    // Sprawdza: żądanie w budżecie nie jest zgłaszane
+    @Test
+    void shouldIgnoreRequestWithinBudget() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StatementBudgetFilter filter = new StatementBudgetFilter(new StatementBudgetProperties(true, 2, 10), registry);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/books/1"), new MockHttpServletResponse(),
+                (req, res) -> StatementCounter.record());
+
+        assertNull(registry.find("library.sql.budget.exceeded").counter());
+    }
+
+    // Sprawdza: zagnieżdżone zakresy — zewnętrzny liczy też instrukcje wewnętrznego
+    @Test
+    void nestedScopes_shouldAccumulateIntoOuterScope() {
+        try (StatementCounter.Scope outer = StatementCounter.open("outer")) {
+            StatementCounter.record();
+            try (StatementCounter.Scope inner = StatementCounter.open("inner")) {
+                StatementCounter.record();
+                StatementCounter.record();
+                assertEquals(2, inner.count());
+            }
+            assertEquals(3, outer.count());
+        }
+        StatementCounter.record(); // bez otwartego zakresu — nic się nie dzieje
+    }
+}
@@ -0,0 +1,36 @@
+package pl.s32832.library.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pomocnicze asercje liczby instrukcji SQL w testach integracyjnych.
+ *
+ * Liczy wszystko, co przejdzie przez DataSource w bieżącym wątku (Hibernate, JdbcTemplate),
+ * także instrukcje wysłane przy commit. MockMvc wykonuje żądanie w wątku testu, więc
+ * można owinąć nim wywołanie endpointu:
+ *
+ *   assertStatements(2, () -> mockMvc.perform(get("/api/books/{id}", id)).andExpect(status().isOk()));
+ */
+public final class StatementCounts {
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    private StatementCounts() {
+    }
+
+    /** Liczba instrukcji SQL wykonanych przez action. */
+    public static long count(Action action) throws Exception {
+        try (StatementCounter.Scope scope = StatementCounter.open("test")) {
+            action.run();
+            return scope.count();
+        }
+    }
+
+    /** Sprawdza, że action wykonuje dokładnie expected instrukcji SQL. */
+    public static void assertStatements(long expected, Action action) throws Exception {
+        assertEquals(expected, count(action), "SQL statements");
+    }
+}
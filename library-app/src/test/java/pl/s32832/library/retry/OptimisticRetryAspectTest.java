@@ -0,0 +1,87 @@
+package pl.s32832.library.retry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import pl.s32832.library.entity.Book;
+import pl.s32832.library.exception.BusinessRuleException;
+import pl.s32832.library.service.LoanService;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OptimisticRetryAspectTest {
+
+    @Mock
+    ProceedingJoinPoint pjp;
+
+    @Mock
+    Signature signature;
+
+    SimpleMeterRegistry meterRegistry;
+    OptimisticRetryAspect aspect;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        aspect = new OptimisticRetryAspect(
+                new RetryProperties(3, Duration.ZERO, Duration.ZERO), meterRegistry);
+
+        when(pjp.getSignature()).thenReturn(signature);
+        when(signature.getDeclaringType()).thenReturn(LoanService.class);
+        when(signature.getName()).thenReturn("returnLoan");
+    }
+
+    // Sprawdza: po konflikcie wersji metoda jest wywołana ponownie i zwraca wynik drugiej próby
+    @Test
+    void retry_shouldProceedAgainAfterConflict() throws Throwable {
+        when(pjp.proceed())
+                .thenThrow(conflict())
+                .thenReturn("ok");
+
+        assertEquals("ok", aspect.retry(pjp));
+
+        verify(pjp, times(2)).proceed();
+        assertEquals(1.0, count("library.optimistic.lock.conflicts"));
+        assertEquals(1.0, count("library.optimistic.lock.retries"));
+    }
+
+    // Sprawdza: po wyczerpaniu limitu prób wyjątek konfliktu trafia do wywołującego
+    @Test
+    void retry_shouldGiveUpAfterMaxAttempts() throws Throwable {
+        when(pjp.proceed()).thenThrow(conflict());
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> aspect.retry(pjp));
+
+        verify(pjp, times(3)).proceed();
+        assertEquals(3.0, count("library.optimistic.lock.conflicts"));
+        assertEquals(2.0, count("library.optimistic.lock.retries"));
+    }
+
+    // Sprawdza: wyjątki biznesowe nie są ponawiane
+    @Test
+    void retry_shouldNotRetryBusinessErrors() throws Throwable {
+        when(pjp.proceed()).thenThrow(new BusinessRuleException("Loan already returned"));
+
+        assertThrows(BusinessRuleException.class, () -> aspect.retry(pjp));
+
+        verify(pjp, times(1)).proceed();
+    }
+
+    private static ObjectOptimisticLockingFailureException conflict() {
+        return new ObjectOptimisticLockingFailureException(Book.class, 1L);
+    }
+
+    private double count(String name) {
+        return meterRegistry.get(name).tag("method", "LoanService.returnLoan").counter().count();
+    }
+}
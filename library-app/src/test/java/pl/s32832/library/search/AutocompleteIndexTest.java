@@ -0,0 +1,88 @@
+package pl.s32832.library.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.s32832.library.dto.response.Completion;
+import pl.s32832.library.search.AutocompleteIndex.Type;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy AutocompleteIndex (i CompletionTrie pod spodem).
+ *
+ * Sprawdzamy:
+ * - dopasowanie od początku każdego słowa i ISBN bez myślników,
+ * - ranking po liczbie wypożyczeń (autor = suma wypożyczeń jego książek),
+ * - aktualizacje bez przebudowy: zmiana tytułu, usunięcie książki, nowe wypożyczenia.
+ */
+class AutocompleteIndexTest {
+
+    AutocompleteIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = AutocompleteIndex.build(i -> {
+            i.putAuthor(10L, "J.R.R. Tolkien");
+            i.putAuthor(11L, "Stanisław Lem");
+            i.putBook(1L, "The Hobbit", "978-83-240-1", Set.of(10L));
+            i.putBook(2L, "The Lord of the Rings", "978-83-240-2", Set.of(10L));
+            i.putBook(3L, "Solaris", "978-83-08-3", Set.of(11L));
+            i.recordLoans(1L, 5);
+            i.recordLoans(2L, 9);
+            i.recordLoans(3L, 1);
+        });
+    }
+
+    // Sprawdza: prefiks dowolnego słowa tytułu, kolejność po liczbie wypożyczeń
+    @Test
+    void complete_shouldRankTitlesByLoans() {
+        assertEquals(List.of(2L, 1L), ids(index.complete("the", Type.TITLE, 10)));
+        assertEquals(List.of(1L), ids(index.complete("Hob", Type.TITLE, 10)));
+        assertEquals(List.of(2L), ids(index.complete("lord of", Type.TITLE, 10)));
+        assertEquals(List.of(2L), ids(index.complete("the", Type.TITLE, 1)));
+    }
+
+    // Sprawdza: ISBN z myślnikami i bez, autor z sumą wypożyczeń książek
+    @Test
+    void complete_shouldMatchIsbnAndAuthors() {
+        assertEquals(List.of(2L, 1L), ids(index.complete("97883240", Type.ISBN, 10)));
+        assertEquals(List.of(3L), ids(index.complete("978-83-08", Type.ISBN, 10)));
+
+        Completion tolkien = index.complete("tolk", Type.AUTHOR, 10).get(0);
+        assertEquals(10L, tolkien.id());
+        assertEquals(14, tolkien.loans());
+    }
+
+    // Sprawdza: bez typu — wszystkie typy razem, najpierw najczęściej wypożyczane
+    @Test
+    void complete_withoutType_shouldMergeTypes() {
+        List<Completion> hits = index.complete("s", null, 10);
+
+        assertEquals(List.of("title", "author"), hits.stream().map(Completion::type).toList());
+        assertTrue(index.complete(" ", null, 10).isEmpty());
+    }
+
+    // Sprawdza aktualizacje przyrostowe: wypożyczenia zmieniają kolejność, zmiana tytułu i usunięcie
+    @Test
+    void updates_shouldKeepRankingWithoutRebuild() {
+        index.recordLoans(1L, 10);
+        assertEquals(List.of(1L, 2L), ids(index.complete("the", Type.TITLE, 10)));
+
+        index.putBook(1L, "There and Back Again", "978-83-240-1", Set.of(11L));
+        assertTrue(index.complete("hobbit", Type.TITLE, 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.complete("back", Type.TITLE, 10)));
+        assertEquals(16, index.complete("lem", Type.AUTHOR, 10).get(0).loans());
+        assertEquals(9, index.complete("tolkien", Type.AUTHOR, 10).get(0).loans());
+
+        index.removeBook(2L);
+        assertTrue(index.complete("lord", Type.TITLE, 10).isEmpty());
+        assertEquals(0, index.complete("tolkien", Type.AUTHOR, 10).get(0).loans());
+    }
+
+    private static List<Long> ids(List<Completion> hits) {
+        return hits.stream().map(Completion::id).toList();
+    }
+}
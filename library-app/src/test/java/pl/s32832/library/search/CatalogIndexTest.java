@@ -0,0 +1,102 @@
+package pl.s32832.library.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.s32832.library.dto.response.CatalogHit;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy CatalogIndex.
+ *
+ * Sprawdzamy:
+ * - dopasowanie prefiksów w tytule, ISBN i nazwiskach autorów,
+ * - kolejność wyników (tytuł waży więcej niż autor),
+ * - aktualizacje przyrostowe: zmiana tytułu, zmiana nazwiska, usunięcie książki i autora,
+ * - ponowne użycie numeru usuniętego autora.
+ */
+class CatalogIndexTest {
+
+    CatalogIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CatalogIndex();
+        index.putAuthor(10L, "J.R.R. Tolkien");
+        index.putAuthor(11L, "Stanisław Lem");
+        index.putBook(1L, "The Hobbit", "978-83-240-1", Set.of(10L));
+        index.putBook(2L, "Solaris", "978-83-08-2", Set.of(11L));
+        index.putBook(3L, "Tolkien: A Biography", "111-1", Set.of());
+    }
+
+    // Sprawdza: prefiks słowa, wiele słów (AND), ISBN z myślnikami i bez
+    @Test
+    void search_shouldMatchPrefixesOfAllWords() {
+        assertEquals(List.of(1L), ids(index.search("hob", 10)));
+        assertEquals(List.of(1L), ids(index.search("tolk hobbit", 10)));
+        assertEquals(List.of(2L), ids(index.search("9788308", 10)));
+        assertEquals(List.of(2L), ids(index.search("LEM", 10)));
+        assertTrue(index.search("hobbit lem", 10).isEmpty());
+        assertTrue(index.search("  --  ", 10).isEmpty());
+    }
+
+    // Sprawdza: słowo w tytule (2 pkt) wyprzedza słowo w nazwisku autora (1 pkt), limit obcina wyniki
+    @Test
+    void search_shouldRankTitleMatchesFirst() {
+        List<CatalogHit> hits = index.search("tolkien", 10);
+
+        assertEquals(List.of(3L, 1L), ids(hits));
+        assertEquals(2, hits.get(0).score());
+        assertEquals(List.of("J.R.R. Tolkien"), hits.get(1).authors());
+        assertEquals(List.of(3L), ids(index.search("tolkien", 1)));
+    }
+
+    // Sprawdza: zmiana tytułu usuwa stare termy, zmiana nazwiska działa bez ponownego dodawania książek
+    @Test
+    void updates_shouldReplacePreviousTerms() {
+        index.putBook(1L, "There and Back Again", "978-83-240-1", Set.of(10L));
+        index.putAuthor(10L, "John Ronald Reuel Tolkien");
+
+        assertTrue(index.search("hobbit", 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.search("back ronald", 10)));
+        assertEquals(3, index.stats().books());
+    }
+
+    // Sprawdza: usunięcie książki i autora znika z wyników i ze statystyk
+    @Test
+    void remove_shouldDropBookAndAuthor() {
+        index.removeBook(2L);
+        index.removeAuthor(10L);
+
+        assertTrue(index.search("solaris", 10).isEmpty());
+        assertEquals(List.of(3L), ids(index.search("tolkien", 10)));
+        assertEquals(List.of(), index.search("hobbit", 10).get(0).authors());
+        assertEquals(2, index.stats().books());
+        assertEquals(1, index.stats().authors());
+    }
+
+    // Sprawdza: numer usuniętego autora dostaje nowy autor — bez jego książek i bez starego nazwiska
+    @Test
+    void removeAuthor_shouldReuseOrdinalForNewAuthor() {
+        index.removeAuthor(10L);
+        index.putAuthor(12L, "Ursula Le Guin");
+        index.putBook(4L, "Earthsea", "222-2", Set.of(12L));
+
+        assertEquals(List.of(), index.search("hobbit", 10).get(0).authors());
+        assertEquals(List.of(4L), ids(index.search("guin", 10)));
+        assertEquals(List.of("Ursula Le Guin"), index.search("earthsea", 10).get(0).authors());
+        assertEquals(List.of(3L), ids(index.search("tolkien", 10)));
+        assertEquals(2, index.stats().authors());
+
+        index.putBook(1L, "The Hobbit", "978-83-240-1", Set.of(10L));
+        assertEquals(List.of(1L), ids(index.search("hobbit", 10)));
+        assertEquals(List.of(4L), ids(index.search("guin", 10)));
+    }
+
+    private static List<Long> ids(List<CatalogHit> hits) {
+        return hits.stream().map(CatalogHit::id).toList();
+    }
+}
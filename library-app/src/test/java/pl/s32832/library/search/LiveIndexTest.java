@@ -0,0 +1,67 @@
+package pl.s32832.library.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy LiveIndex: zmiany w trakcie budowy nie czekają na jej koniec i trafiają do nowego indeksu.
+ */
+class LiveIndexTest {
+
+    // Sprawdza: zmiana z czasu budowy trafia od razu do starego indeksu, a po podmianie także do nowego
+    @Test
+    void apply_duringRebuild_shouldNotWaitAndShouldBeReplayed() throws Exception {
+        LiveIndex<List<String>> index = new LiveIndex<>(new ArrayList<>(List.of("old")));
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Void> rebuild = CompletableFuture.runAsync(() -> index.rebuild(() -> {
+            building.countDown();
+            await(release);
+            return new ArrayList<>(List.of("fresh"));
+        }));
+        assertTrue(building.await(5, TimeUnit.SECONDS));
+
+        // budowa stoi — zmiana musi przejść bez czekania
+        CompletableFuture.runAsync(() -> index.apply(list -> list.add("change"))).get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("old", "change"), index.get());
+
+        release.countDown();
+        rebuild.get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("fresh", "change"), index.get());
+        index.apply(list -> list.add("after"));
+        assertEquals(List.of("fresh", "change", "after"), index.get());
+    }
+
+    // Sprawdza: nieudana budowa zostawia poprzedni indeks i przestaje zapamiętywać zmiany
+    @Test
+    void rebuild_whenBuildFails_shouldKeepPreviousIndex() {
+        List<String> old = new ArrayList<>(List.of("old"));
+        LiveIndex<List<String>> index = new LiveIndex<>(old);
+
+        assertThrows(IllegalStateException.class, () -> index.rebuild(() -> {
+            throw new IllegalStateException("database down");
+        }));
+        index.apply(list -> list.add("change"));
+
+        assertSame(old, index.get());
+        assertEquals(List.of("old", "change"), index.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
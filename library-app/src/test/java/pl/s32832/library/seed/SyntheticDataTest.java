@@ -0,0 +1,107 @@
+package pl.s32832.library.seed;
+
+import org.junit.jupiter.api.Test;
+import pl.s32832.library.seed.SyntheticData.LoanRow;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy SyntheticData.
+ *
+ * Sprawdzamy:
+ * - powtarzalność (to samo ziarno -> te same wiersze),
+ * - proporcje wypożyczeń i spójność dat,
+ * - limit aktywnych wypożyczeń na liczbę egzemplarzy,
+ * - skośny rozkład autorów.
+ */
+class SyntheticDataTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 1);
+
+    // Sprawdza: dwa generatory z tym samym ziarnem dają identyczne dane, inne ziarno — inne
+    @Test
+    void sameSeed_shouldProduceSameRows() {
+        assertEquals(generate(7), generate(7));
+        assertNotEquals(generate(7), generate(8));
+    }
+
+    // Sprawdza: ~80/15/5 oddane/aktywne/przeterminowane, daty względem daty odniesienia
+    @Test
+    void loans_shouldHaveRealisticStatusesAndDates() {
+        SyntheticData data = withBooks(1, 20_000);
+        int returned = 0;
+        int overdue = 0;
+        int loans = 100_000;
+        for (int i = 0; i < loans; i++) {
+            LoanRow loan = data.loan(500);
+            assertEquals(loan.loanDate().plusDays(SyntheticData.LOAN_DAYS), loan.dueDate());
+            if (loan.returnDate() != null) {
+                returned++;
+                assertTrue(loan.returnDate().isBefore(TODAY));
+                assertTrue(loan.returnDate().isAfter(loan.loanDate()));
+            } else if (loan.dueDate().isBefore(TODAY)) {
+                overdue++;
+            }
+        }
+        int active = loans - returned - overdue;
+
+        assertEquals(0.80, returned / (double) loans, 0.02);
+        assertEquals(0.15, active / (double) loans, 0.02);
+        assertEquals(0.05, overdue / (double) loans, 0.02);
+    }
+
+    // Sprawdza: aktywnych wypożyczeń książki nigdy nie jest więcej niż egzemplarzy
+    @Test
+    void activeLoans_shouldNotExceedCopies() {
+        SyntheticData data = withBooks(3, 50);
+        for (int i = 0; i < 10_000; i++) {
+            data.loan(10);
+        }
+        for (int b = 0; b < 50; b++) {
+            assertTrue(data.activeLoans(b) <= data.copies(b));
+        }
+    }
+
+    // Sprawdza: 10% najczęstszych autorów ma większość książek
+    @Test
+    void books_shouldHaveSkewedAuthorDistribution() {
+        SyntheticData data = new SyntheticData(5, TODAY, 1_000, 10_000);
+        int topTen = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (data.book(i, i + 1).firstAuthor() < 100) {
+                topTen++;
+            }
+        }
+        assertTrue(topTen > 4_000, "top 10% authors wrote " + topTen + " books");
+    }
+
+    private static List<Object> generate(long seed) {
+        SyntheticData data = new SyntheticData(seed, TODAY, 20, 100);
+        List<Object> rows = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            rows.add(data.author());
+        }
+        for (int i = 0; i < 100; i++) {
+            rows.add(data.book(i, i + 1));
+        }
+        for (int i = 0; i < 50; i++) {
+            rows.add(data.user(i + 1));
+        }
+        for (int i = 0; i < 1_000; i++) {
+            rows.add(data.loan(50));
+        }
+        return rows;
+    }
+
+    private static SyntheticData withBooks(long seed, int books) {
+        SyntheticData data = new SyntheticData(seed, TODAY, 100, books);
+        for (int i = 0; i < books; i++) {
+            data.book(i, i + 1);
+        }
+        return data;
+    }
+}
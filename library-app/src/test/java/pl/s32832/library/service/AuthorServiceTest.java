@@ -5,11 +5,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import pl.s32832.library.cache.SecondLevelCacheEvictor;
 import pl.s32832.library.dto.request.CreateAuthorRequest;
 import pl.s32832.library.dto.request.UpdateAuthorRequest;
+import pl.s32832.library.dto.response.CursorPage;
 import pl.s32832.library.entity.Author;
+import pl.s32832.library.event.AuthorDeletedEvent;
 import pl.s32832.library.exception.NotFoundException;
 import pl.s32832.library.repository.AuthorRepository;
+import pl.s32832.library.util.CursorCodec;
 
 import java.util.List;
 import java.util.Optional;
@@ -25,7 +32,8 @@ import static org.mockito.Mockito.*;
  * - czy pobieranie po ID rzuca NotFoundException gdy brak encji,
  * - czy update zmienia dane i zapisuje encję,
  * - czy delete usuwa encję,
- * - czy getAll zwraca listę autorów.
+ * - czy getAll zwraca listę autorów,
+ * - czy getPage zwraca stronę z kursorem następnej strony.
 
  */
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +42,12 @@ class AuthorServiceTest {
     @Mock
     AuthorRepository authorRepository;
 
+    @Mock
+    SecondLevelCacheEvictor cacheEvictor;
+
+    @Mock
+    ApplicationEventPublisher events;
+
     @InjectMocks
     AuthorService authorService;
 
@@ -70,6 +84,7 @@ class AuthorServiceTest {
 
         assertEquals("New", updated.getName());
         verify(authorRepository).save(a);
+        verify(cacheEvictor).evictAuthor(1L);
     }
 
     @Test
@@ -80,6 +95,7 @@ class AuthorServiceTest {
         authorService.delete(1L);
 
         verify(authorRepository).delete(a);
+        verify(events).publishEvent(new AuthorDeletedEvent(1L));
     }
 
     @Test
@@ -94,4 +110,34 @@ class AuthorServiceTest {
         assertEquals(2, authors.size());
         verify(authorRepository).findAll();
     }
+
+    // Sprawdza: repozytorium zwraca limit + 1 wierszy -> strona ma limit elementów i kursor na ostatni
+    @Test
+    void getPage_shouldReturnNextCursorWhenMoreRows() {
+        when(authorRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), argThat(l -> l.max() == 3)))
+                .thenReturn(List.of(author(1L, "A1"), author(2L, "A2"), author(3L, "A3")));
+
+        CursorPage<Author> page = authorService.getPage(null, 2);
+
+        assertEquals(2, page.items().size());
+        assertEquals(CursorCodec.encode(2L), page.nextCursor());
+    }
+
+    // Sprawdza: ostatnia strona nie ma kursora
+    @Test
+    void getPage_shouldReturnNoCursorOnLastPage() {
+        when(authorRepository.findByIdGreaterThanOrderByIdAsc(eq(2L), any(Limit.class)))
+                .thenReturn(List.of(author(3L, "A3")));
+
+        CursorPage<Author> page = authorService.getPage(2L, 2);
+
+        assertEquals(1, page.items().size());
+        assertNull(page.nextCursor());
+    }
+
+    private static Author author(Long id, String name) {
+        Author a = new Author(name);
+        ReflectionTestUtils.setField(a, "id", id);
+        return a;
+    }
 }
@@ -0,0 +1,113 @@
+package pl.s32832.library.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import pl.s32832.library.dto.response.BookSearchResponse;
+import pl.s32832.library.exception.ValidationException;
+import pl.s32832.library.repository.BookRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testy jednostkowe BookSearchService.
+ *
+ * Sprawdzamy:
+ * - czy stronicowanie pobiera jeden wiersz więcej i ustawia hasNext,
+ * - czy zapytanie bez słów (albo za krótkie) nie idzie do bazy,
+ * - czy zbyt głęboka strona jest odrzucana.
+ */
+@ExtendWith(MockitoExtension.class)
+class BookSearchServiceTest {
+
+    @Mock
+    BookRepository bookRepository;
+
+    @InjectMocks
+    BookSearchService bookSearchService;
+
+    // Sprawdza: size + 1 wierszy z bazy -> size wyników i hasNext = true, offset = page * size
+    @Test
+    void search_shouldReturnPageWithHasNext() throws Exception {
+        when(bookRepository.search("lalka:*", 3, 4)).thenReturn(List.of(
+                new Hit(1L, 0.9), new Hit(2L, 0.5), new Hit(3L, 0.1)));
+
+        BookSearchResponse res = bookSearchService.search("Lalka", 2, 2);
+
+        assertEquals(2, res.items().size());
+        assertEquals(1L, res.items().get(0).id());
+        assertEquals(0.9, res.items().get(0).rank());
+        assertTrue(res.hasNext());
+        assertFalse(res.truncated());
+    }
+
+    // Sprawdza: więcej trafień niż SEARCH_CANDIDATES (flaga z bazy) -> truncated = true w odpowiedzi
+    @Test
+    void search_shouldReportTruncatedCandidates() throws Exception {
+        when(bookRepository.search("dom:*", 21, 0)).thenReturn(List.of(new Hit(7L, 0.3, true)));
+
+        BookSearchResponse res = bookSearchService.search("dom", 0, 20);
+
+        assertEquals(1, res.items().size());
+        assertFalse(res.hasNext());
+        assertTrue(res.truncated());
+    }
+
+    // Sprawdza: tekst bez liter i cyfr -> pusta strona bez zapytania
+    @Test
+    void search_shouldSkipDatabaseForEmptyQuery() throws Exception {
+        BookSearchResponse res = bookSearchService.search(" !! ", 0, 20);
+
+        assertTrue(res.items().isEmpty());
+        assertFalse(res.hasNext());
+        verify(bookRepository, never()).search(anyString(), anyInt(), anyInt());
+    }
+
+    // Sprawdza: jednoznakowe zapytanie (prefiks pasujący do większości katalogu) -> pusta strona bez zapytania
+    @Test
+    void search_shouldSkipDatabaseForTooShortQuery() throws Exception {
+        assertTrue(bookSearchService.search("a", 0, 20).items().isEmpty());
+        verifyNoInteractions(bookRepository);
+    }
+
+    // Sprawdza: strona poza MAX_RESULT_WINDOW -> ValidationException
+    @Test
+    void search_shouldRejectTooDeepPage() {
+        assertThrows(ValidationException.class, () -> bookSearchService.search("lalka", 100, 20));
+    }
+
+    private record Hit(Long id, double rank, boolean truncated) implements BookRepository.SearchHit {
+
+        Hit(Long id, double rank) {
+            this(id, rank, false);
+        }
+
+        @Override
+        public Long getId() { return id; }
+
+        @Override
+        public String getTitle() { return "Lalka"; }
+
+        @Override
+        public String getIsbn() { return "123"; }
+
+        @Override
+        public int getTotalCopies() { return 1; }
+
+        @Override
+        public int getAvailableCopies() { return 1; }
+
+        @Override
+        public double getRank() { return rank; }
+
+        @Override
+        public boolean getTruncated() { return truncated; }
+    }
+}
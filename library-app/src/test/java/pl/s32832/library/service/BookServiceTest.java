@@ -5,15 +5,24 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import pl.s32832.library.cache.SecondLevelCacheEvictor;
 import pl.s32832.library.dto.request.CreateBookRequest;
 import pl.s32832.library.dto.request.UpdateBookRequest;
+import pl.s32832.library.dto.response.BookLookupResponse;
+import pl.s32832.library.dto.response.BookResponse;
+import pl.s32832.library.dto.response.CursorPage;
 import pl.s32832.library.entity.Author;
 import pl.s32832.library.entity.Book;
+import pl.s32832.library.event.BookChangedEvent;
+import pl.s32832.library.event.BookDeletedEvent;
 import pl.s32832.library.exception.BusinessRuleException;
 import pl.s32832.library.exception.NotFoundException;
 import pl.s32832.library.exception.ValidationException;
 import pl.s32832.library.repository.BookRepository;
+import pl.s32832.library.util.Lookups;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -29,6 +38,12 @@ class BookServiceTest {
     @Mock
     AuthorService authorService;
 
+    @Mock
+    SecondLevelCacheEvictor cacheEvictor;
+
+    @Mock
+    ApplicationEventPublisher events;
+
     @InjectMocks
     BookService bookService;
 
@@ -73,8 +88,8 @@ class BookServiceTest {
         Book b = new Book("T", "123", 2);
         b.setAvailableCopies(0); // borrowed = 2
 
-        // BookService.update() -> getById() -> findWithAuthorsById()
-        when(bookRepository.findWithAuthorsById(1L)).thenReturn(Optional.of(b));
+        // BookService.update() -> getById() -> findById()
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(b));
 
         UpdateBookRequest req = new UpdateBookRequest();
         req.setTitle("T2");
@@ -90,7 +105,7 @@ class BookServiceTest {
         Book b = new Book("Old", "123", 2);
         b.setAvailableCopies(1); // 1 wypożyczona
 
-        when(bookRepository.findWithAuthorsById(1L)).thenReturn(Optional.of(b));
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(b));
         when(bookRepository.save(any(Book.class))).thenAnswer(inv -> inv.getArgument(0));
 
         UpdateBookRequest req = new UpdateBookRequest();
@@ -108,7 +123,7 @@ class BookServiceTest {
     // Sprawdza obsługę wyjątku: brak książki w bazie
     @Test
     void getById_shouldThrow() {
-        when(bookRepository.findWithAuthorsById(1L)).thenReturn(Optional.empty());
+        when(bookRepository.findById(1L)).thenReturn(Optional.empty());
         assertThrows(NotFoundException.class, () -> bookService.getById(1L));
     }
 
@@ -118,7 +133,7 @@ class BookServiceTest {
         Book b = new Book("T", "123", 1);
         Author a = new Author("A");
 
-        when(bookRepository.findWithAuthorsById(1L)).thenReturn(Optional.of(b));
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(b));
         when(authorService.getById(2L)).thenReturn(a);
         when(bookRepository.save(any(Book.class))).thenAnswer(inv -> inv.getArgument(0));
 
@@ -126,6 +141,8 @@ class BookServiceTest {
 
         assertTrue(updated.getAuthors().contains(a));
         assertTrue(a.getBooks().contains(b));
+        verify(cacheEvictor).evictBook(1L);
+        verify(events).publishEvent(any(BookChangedEvent.class));
     }
 
     // Sprawdza relację wiele-do-wielu: usunięcie autora z książki
@@ -137,7 +154,7 @@ class BookServiceTest {
         b.getAuthors().add(a);
         a.getBooks().add(b);
 
-        when(bookRepository.findWithAuthorsById(1L)).thenReturn(Optional.of(b));
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(b));
         when(authorService.getById(2L)).thenReturn(a);
         when(bookRepository.save(any(Book.class))).thenAnswer(inv -> inv.getArgument(0));
 
@@ -152,10 +169,106 @@ class BookServiceTest {
     void delete_shouldDeleteBook() throws Exception {
         Book b = new Book("T", "123", 1);
 
-        when(bookRepository.findWithAuthorsById(1L)).thenReturn(Optional.of(b));
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(b));
 
         bookService.delete(1L);
 
         verify(bookRepository).delete(b);
+        verify(events).publishEvent(new BookDeletedEvent(1L));
+    }
+
+    // Sprawdza atomowe wypożyczenie: UPDATE zmienił wiersz -> zwracamy referencję do książki
+    @Test
+    void checkoutCopy_shouldReturnReferenceWhenCopyReserved() throws Exception {
+        Book b = new Book("T", "123", 1);
+
+        when(bookRepository.decrementAvailableCopies(1L)).thenReturn(1);
+        when(bookRepository.getReferenceById(1L)).thenReturn(b);
+
+        assertSame(b, bookService.checkoutCopy(1L));
+        verify(cacheEvictor).evictBookEntity(1L);
+    }
+
+    // Sprawdza atomowe wypożyczenie: UPDATE nic nie zmienił, a książka istnieje -> brak egzemplarzy
+    @Test
+    void checkoutCopy_shouldThrowWhenNoCopiesLeft() {
+        when(bookRepository.decrementAvailableCopies(1L)).thenReturn(0);
+        when(bookRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(BusinessRuleException.class, () -> bookService.checkoutCopy(1L));
+        verify(bookRepository, never()).getReferenceById(any());
+    }
+
+    // Sprawdza atomowe wypożyczenie: UPDATE nic nie zmienił, bo książki nie ma -> NotFoundException
+    @Test
+    void checkoutCopy_shouldThrowWhenBookMissing() {
+        when(bookRepository.decrementAvailableCopies(1L)).thenReturn(0);
+        when(bookRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> bookService.checkoutCopy(1L));
+    }
+
+    // Sprawdza zwrot egzemplarza: jeden warunkowy UPDATE w repozytorium
+    @Test
+    void returnCopy_shouldIncrementInDatabase() {
+        bookService.returnCopy(1L);
+
+        verify(bookRepository).incrementAvailableCopies(1L);
+        verify(cacheEvictor).evictBookEntity(1L);
+    }
+
+    // Sprawdza: getPage przycina limit do CursorPage.MAX_LIMIT i pobiera jeden wiersz więcej
+    @Test
+    void getPage_shouldClampLimitAndStartAfterCursor() {
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(eq(10L), argThat(l -> l.max() == CursorPage.MAX_LIMIT + 1)))
+                .thenReturn(List.of(new Book("T", "123", 1)));
+
+        CursorPage<Book> page = bookService.getPage(10L, 10_000);
+
+        assertEquals(1, page.items().size());
+        assertNull(page.nextCursor());
+    }
+
+    // Sprawdza: getResponsePage bierze projekcję z repozytorium (bez encji) i wylicza kursor z BookResponse
+    @Test
+    void getResponsePage_shouldUseProjectionAndComputeCursor() {
+        BookResponse first = new BookResponse(11L, "A", "1", 1, 1, "3,5");
+        BookResponse second = new BookResponse(12L, "B", "2", 1, 1, (String) null);
+        BookResponse extra = new BookResponse(13L, "C", "3", 1, 1, (String) null);
+        when(bookRepository.findResponsesAfter(eq(0L), argThat(l -> l.max() == 3)))
+                .thenReturn(List.of(first, second, extra));
+
+        CursorPage<BookResponse> page = bookService.getResponsePage(null, 2);
+
+        assertEquals(List.of(first, second), page.items());
+        assertNotNull(page.nextCursor());
+        verify(bookRepository, never()).findByIdGreaterThanOrderByIdAsc(any(), any());
+    }
+
+    // Sprawdza konstruktor projekcji: ID autorów z listagg (CSV) w kolejności, null -> pusty zbiór
+    @Test
+    void bookResponse_shouldParseAggregatedAuthorIds() {
+        assertEquals(List.of(3L, 5L, 12L), List.copyOf(new BookResponse(1L, "T", "1", 1, 1, "3,5,12").authorIds()));
+        assertTrue(new BookResponse(1L, "T", "1", 1, 1, (String) null).authorIds().isEmpty());
+    }
+
+    // Sprawdza: jednoznakowy prefiks -> pusta lista bez zapytania do bazy (próg po stronie serwera)
+    @Test
+    void lookup_shouldSkipDatabaseForTooShortQuery() {
+        assertTrue(bookService.lookup(" w ", 10).isEmpty());
+        verifyNoInteractions(bookRepository);
+    }
+
+    // Sprawdza: lookup przekazuje escapowany prefiks i przycięty limit, wiersze mapuje na BookLookupResponse
+    @Test
+    void lookup_shouldMapRowsFromRepository() {
+        BookRepository.LookupRow row = mock(BookRepository.LookupRow.class);
+        when(row.getId()).thenReturn(7L);
+        when(row.getTitle()).thenReturn("Wiedźmin");
+        when(row.getIsbn()).thenReturn("978");
+        when(row.getAvailableCopies()).thenReturn(2);
+        when(bookRepository.lookup("wi%", Lookups.MAX_LIMIT)).thenReturn(List.of(row));
+
+        assertEquals(List.of(new BookLookupResponse(7L, "Wiedźmin", "978", 2)), bookService.lookup("Wi", 1_000));
     }
 }
@@ -0,0 +1,119 @@
+package pl.s32832.library.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import pl.s32832.library.dto.response.LoanResponse;
+import pl.s32832.library.repository.BookRepository;
+import pl.s32832.library.repository.BookRepository.ExportRow;
+import pl.s32832.library.repository.LoanRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testy jednostkowe ExportService.
+ *
+ * Sprawdzamy:
+ * - czy wiersze książka-autor są sklejane w jedną linię na książkę,
+ * - czy filtr since wybiera właściwe zapytanie,
+ * - czy każda linia to osobny obiekt JSON zakończony '\n'.
+ */
+@ExtendWith(MockitoExtension.class)
+class ExportServiceTest {
+
+    @Mock
+    BookRepository bookRepository;
+
+    @Mock
+    LoanRepository loanRepository;
+
+    ExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new ExportService(bookRepository, loanRepository, objectMapper);
+    }
+
+    // Sprawdza: książka z dwoma autorami -> jedna linia z oboma ID, książka bez autorów -> pusta lista
+    @Test
+    void exportBooks_shouldGroupAuthorRowsPerBook() throws Exception {
+        when(bookRepository.streamForExport()).thenReturn(Stream.of(
+                new Row(1L, "A", "111", 2, 1, 10L),
+                new Row(1L, "A", "111", 2, 1, 11L),
+                new Row(2L, "B", "222", 1, 1, null)
+        ));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = exportService.exportBooks(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,"));
+        assertTrue(lines[0].contains("\"authorIds\":[10,11]"));
+        assertTrue(lines[1].contains("\"authorIds\":[]"));
+    }
+
+    // Sprawdza: since != null -> zapytanie z filtrem loanDate, wynik zakończony znakiem nowej linii
+    @Test
+    void exportLoans_shouldUseSinceQuery() throws Exception {
+        LocalDate since = LocalDate.of(2025, 1, 1);
+        when(loanRepository.streamForExportSince(since)).thenReturn(Stream.of(
+                new LoanResponse(5L, 1L, 2L, since, since.plusDays(14), null)
+        ));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = exportService.exportLoans(since, out);
+
+        assertEquals(1, count);
+        assertEquals("{\"id\":5,\"userId\":1,\"bookId\":2,\"loanDate\":\"2025-01-01\","
+                + "\"dueDate\":\"2025-01-15\",\"returnDate\":null}\n", out.toString(StandardCharsets.UTF_8));
+        verify(loanRepository, never()).streamForExport();
+    }
+
+    // Sprawdza: pusta tabela -> pusta odpowiedź
+    @Test
+    void exportLoans_shouldWriteNothingForEmptyTable() throws Exception {
+        when(loanRepository.streamForExport()).thenReturn(Stream.empty());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(0, exportService.exportLoans(null, out));
+        assertEquals(0, out.size());
+    }
+
+    private record Row(Long id, String title, String isbn, int totalCopies, int availableCopies, Long authorId)
+            implements ExportRow {
+
+        @Override
+        public Long getId() { return id; }
+
+        @Override
+        public String getTitle() { return title; }
+
+        @Override
+        public String getIsbn() { return isbn; }
+
+        @Override
+        public int getTotalCopies() { return totalCopies; }
+
+        @Override
+        public int getAvailableCopies() { return availableCopies; }
+
+        @Override
+        public Long getAuthorId() { return authorId; }
+    }
+}
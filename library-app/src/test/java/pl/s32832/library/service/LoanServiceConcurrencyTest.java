@@ -0,0 +1,246 @@
+package pl.s32832.library.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import pl.s32832.library.dto.request.BatchReturnRequest;
+import pl.s32832.library.dto.request.CreateBookRequest;
+import pl.s32832.library.dto.request.CreateLoanRequest;
+import pl.s32832.library.dto.request.CreateUserRequest;
+import pl.s32832.library.dto.response.BatchReturnResponse;
+import pl.s32832.library.entity.Book;
+import pl.s32832.library.entity.Loan;
+import pl.s32832.library.entity.User;
+import pl.s32832.library.exception.BusinessRuleException;
+import pl.s32832.library.repository.BookRepository;
+import pl.s32832.library.repository.LoanRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test obciążeniowy ścieżki wypożyczenia na prawdziwej bazie (H2, profil "test").
+ *
+ * Wiele wątków jednocześnie wypożycza (i oddaje) tę samą książkę.
+ * Po zakończeniu musi zachodzić niezmiennik:
+ * availableCopies == totalCopies - liczba aktywnych wypożyczeń
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class LoanServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int ATTEMPTS_PER_THREAD = 25;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    LoanService loanService;
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    LoanRepository loanRepository;
+
+    // Sprawdza: przy równoległych wypożyczeniach nie wypożyczymy więcej egzemplarzy niż istnieje
+    @Test
+    void concurrentCheckouts_shouldNeverOversellCopies() throws Exception {
+        int copies = 10;
+        Book book = createBook(copies);
+        List<User> users = createUsers(THREADS);
+
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(users, user -> {
+            for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                try {
+                    loanService.create(loanRequest(user, book));
+                    succeeded.incrementAndGet();
+                } catch (BusinessRuleException ex) {
+                    rejected.incrementAndGet();
+                }
+            }
+        });
+
+        Book reloaded = bookRepository.findById(book.getId()).orElseThrow();
+
+        assertEquals(copies, succeeded.get());
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD - copies, rejected.get());
+        assertEquals(0, reloaded.getAvailableCopies());
+        assertInvariant(reloaded);
+    }
+
+    // Sprawdza: wymieszane wypożyczenia i zwroty tej samej książki zostawiają spójny licznik
+    @Test
+    void concurrentCheckoutsAndReturns_shouldKeepInvariant() throws Exception {
+        Book book = createBook(3);
+        List<User> users = createUsers(THREADS);
+
+        runConcurrently(users, user -> {
+            for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                try {
+                    Loan loan = loanService.create(loanRequest(user, book));
+                    // co drugie udane wypożyczenie od razu oddajemy
+                    if (i % 2 == 0) {
+                        loanService.returnLoan(loan.getId());
+                    }
+                } catch (BusinessRuleException ex) {
+                    // brak egzemplarzy — oczekiwane przy dużej rywalizacji
+                }
+            }
+        });
+
+        Book reloaded = bookRepository.findById(book.getId()).orElseThrow();
+
+        assertTrue(reloaded.getAvailableCopies() >= 0);
+        assertInvariant(reloaded);
+    }
+
+    // Sprawdza: równoległe zwroty wsadowe tych samych wypożyczeń — każde wypożyczenie jest
+    // raportowane jako oddane dokładnie w jednej odpowiedzi, w pozostałych jako już oddane
+    @Test
+    void concurrentBatchReturns_shouldReportEachLoanReturnedOnce() throws Exception {
+        Book book = createBook(THREADS * 2);
+        List<User> users = createUsers(THREADS);
+        List<Long> loanIds = new ArrayList<>();
+        for (User user : users) {
+            loanIds.add(loanService.create(loanRequest(user, book)).getId());
+        }
+
+        BatchReturnRequest req = new BatchReturnRequest();
+        req.setLoanIds(loanIds);
+        List<BatchReturnResponse> responses = Collections.synchronizedList(new ArrayList<>());
+
+        runConcurrently(users, user -> responses.add(loanService.returnBatch(req)));
+
+        List<Long> returned = new ArrayList<>();
+        for (BatchReturnResponse res : responses) {
+            returned.addAll(res.returnedLoanIds());
+            assertEquals(loanIds.size(), res.returnedLoanIds().size() + res.alreadyReturnedLoanIds().size());
+        }
+        assertEquals(loanIds.size(), returned.size());
+        assertEquals(new HashSet<>(loanIds), new HashSet<>(returned));
+
+        Book reloaded = bookRepository.findById(book.getId()).orElseThrow();
+        assertEquals(book.getTotalCopies(), reloaded.getAvailableCopies());
+        assertInvariant(reloaded);
+    }
+
+    // Sprawdza: dwa zwroty wsadowe tych samych dwóch książek podanych w odwrotnej kolejności
+    // nie zakleszczają się — blokady są brane rosnąco po ID książki, a nie w kolejności z requestu
+    @Test
+    void oppositeOrderBatchReturns_shouldNotDeadlock() throws Exception {
+        List<User> users = createUsers(2);
+        Book first = createBook(ROUNDS * users.size());
+        Book second = createBook(ROUNDS * users.size());
+
+        for (int round = 0; round < ROUNDS; round++) {
+            Map<User, BatchReturnRequest> requests = new HashMap<>();
+            for (int i = 0; i < users.size(); i++) {
+                User user = users.get(i);
+                Long fromFirst = loanService.create(loanRequest(user, first)).getId();
+                Long fromSecond = loanService.create(loanRequest(user, second)).getId();
+                BatchReturnRequest req = new BatchReturnRequest();
+                req.setLoanIds(i == 0 ? List.of(fromFirst, fromSecond) : List.of(fromSecond, fromFirst));
+                requests.put(user, req);
+            }
+
+            runConcurrently(users, user -> {
+                BatchReturnResponse res = loanService.returnBatch(requests.get(user));
+                assertEquals(new HashSet<>(requests.get(user).getLoanIds()), new HashSet<>(res.returnedLoanIds()));
+            });
+        }
+
+        for (Book book : List.of(first, second)) {
+            Book reloaded = bookRepository.findById(book.getId()).orElseThrow();
+            assertEquals(book.getTotalCopies(), reloaded.getAvailableCopies());
+            assertInvariant(reloaded);
+        }
+    }
+
+    private void assertInvariant(Book book) {
+        long activeLoans = loanRepository.countByBookIdAndReturnDateIsNull(book.getId());
+        assertEquals(book.getTotalCopies() - activeLoans, book.getAvailableCopies());
+    }
+
+    /**
+     * Uruchamia zadanie dla każdego użytkownika w osobnym wątku.
+     * Wszystkie wątki startują w tym samym momencie (latch), żeby maksymalizować rywalizację.
+     */
+    private void runConcurrently(List<User> users, UserTask task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(users.size());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        try {
+            for (User user : users) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    task.run(user);
+                    return null;
+                }));
+            }
+
+            start.countDown();
+
+            // get() przerzuci każdy nieoczekiwany wyjątek z wątku roboczego
+            for (Future<?> f : futures) {
+                f.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Book createBook(int copies) throws Exception {
+        CreateBookRequest req = new CreateBookRequest();
+        req.setTitle("Stress test");
+        req.setIsbn(UUID.randomUUID().toString());
+        req.setTotalCopies(copies);
+        return bookService.create(req);
+    }
+
+    private List<User> createUsers(int count) throws Exception {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            CreateUserRequest req = new CreateUserRequest();
+            req.setEmail(UUID.randomUUID() + "@stress.test");
+            req.setFullName("Stress " + i);
+            users.add(userService.create(req));
+        }
+        return users;
+    }
+
+    private static CreateLoanRequest loanRequest(User user, Book book) {
+        CreateLoanRequest req = new CreateLoanRequest();
+        req.setUserId(user.getId());
+        req.setBookId(book.getId());
+        return req;
+    }
+
+    @FunctionalInterface
+    private interface UserTask {
+        void run(User user) throws Exception;
+    }
+}
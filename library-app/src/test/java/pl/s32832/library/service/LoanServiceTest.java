@@ -2,24 +2,41 @@ package pl.s32832.library.service;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import pl.s32832.library.dto.request.BatchLoanRequest;
+import pl.s32832.library.dto.request.BatchReturnRequest;
 import pl.s32832.library.dto.request.CreateLoanRequest;
+import pl.s32832.library.dto.response.BatchLoanItemResponse;
+import pl.s32832.library.dto.response.BatchLoanResponse;
+import pl.s32832.library.dto.response.BatchReturnResponse;
+import pl.s32832.library.dto.response.LoanResponse;
 import pl.s32832.library.entity.Book;
 import pl.s32832.library.entity.Loan;
 import pl.s32832.library.entity.User;
+import pl.s32832.library.event.BookBorrowedEvent;
 import pl.s32832.library.exception.BusinessRuleException;
 import pl.s32832.library.exception.NotFoundException;
 import pl.s32832.library.exception.ValidationException;
+import pl.s32832.library.metrics.LibraryMetrics;
+import pl.s32832.library.metrics.LibraryMetrics.RejectionReason;
 import pl.s32832.library.repository.LoanRepository;
 import pl.s32832.library.util.DateTimeProvider;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +54,12 @@ class LoanServiceTest {
     @Mock
     DateTimeProvider dateTimeProvider;
 
+    @Mock
+    ApplicationEventPublisher events;
+
+    @Mock
+    LibraryMetrics metrics;
+
     @InjectMocks
     LoanService loanService;
 
@@ -48,17 +71,16 @@ class LoanServiceTest {
         req.setBookId(2L);
 
         User u = new User("a@b.com", "X");
-        Book b = new Book("T", "123", 1);
-        b.setAvailableCopies(0);
 
         when(userService.getById(1L)).thenReturn(u);
-        when(bookService.getById(2L)).thenReturn(b);
+        when(bookService.checkoutCopy(2L)).thenThrow(new BusinessRuleException("Book is not available for loan"));
 
         assertThrows(BusinessRuleException.class, () -> loanService.create(req));
         verify(loanRepository, never()).save(any());
+        verify(metrics).checkoutRejected(RejectionReason.NO_COPIES);
     }
 
-    // Sprawdza: wypożyczenie tworzy Loan, ustawia daty i zmniejsza dostępne egzemplarze
+    // Sprawdza: wypożyczenie tworzy Loan, ustawia daty i rezerwuje egzemplarz w BookService
     @Test
     void create_shouldCreateLoanWhenBookAvailable() throws Exception {
         CreateLoanRequest req = new CreateLoanRequest();
@@ -67,10 +89,9 @@ class LoanServiceTest {
 
         User u = new User("a@b.com", "X");
         Book b = new Book("T", "123", 1);
-        b.setAvailableCopies(1);
 
         when(userService.getById(1L)).thenReturn(u);
-        when(bookService.getById(2L)).thenReturn(b);
+        when(bookService.checkoutCopy(2L)).thenReturn(b);
         when(dateTimeProvider.today()).thenReturn(LocalDate.of(2025, 1, 1));
 
         when(loanRepository.save(any(Loan.class))).thenAnswer(inv -> inv.getArgument(0));
@@ -78,14 +99,16 @@ class LoanServiceTest {
         Loan loan = loanService.create(req);
 
         assertNotNull(loan);
+        assertSame(b, loan.getBook());
         assertEquals(LocalDate.of(2025, 1, 1), loan.getLoanDate());
         assertEquals(LocalDate.of(2025, 1, 15), loan.getDueDate()); // 14 dni
-        assertEquals(0, b.getAvailableCopies()); // jedna sztuka wypożyczona
 
+        verify(bookService).checkoutCopy(2L); // jedna sztuka wypożyczona (atomowo w bazie)
         verify(loanRepository).save(any(Loan.class));
+        verify(events).publishEvent(new BookBorrowedEvent(2L));
     }
 
-    // Sprawdza walidację: jeśli user ma pusty email -> ValidationException
+    // Sprawdza walidację: jeśli user ma pusty email -> ValidationException (egzemplarz nie jest rezerwowany)
     @Test
     void create_shouldThrowWhenUserEmailInvalid() throws Exception {
         CreateLoanRequest req = new CreateLoanRequest();
@@ -93,14 +116,13 @@ class LoanServiceTest {
         req.setBookId(2L);
 
         User u = new User(" ", "X"); // blank email
-        Book b = new Book("T", "123", 1);
-        b.setAvailableCopies(1);
 
         when(userService.getById(1L)).thenReturn(u);
-        when(bookService.getById(2L)).thenReturn(b);
 
         assertThrows(ValidationException.class, () -> loanService.create(req));
+        verify(bookService, never()).checkoutCopy(any());
         verify(loanRepository, never()).save(any());
+        verify(metrics).checkoutRejected(RejectionReason.VALIDATION);
     }
 
     // Sprawdza obsługę wyjątku: brak wypożyczenia w bazie
@@ -110,6 +132,23 @@ class LoanServiceTest {
         assertThrows(NotFoundException.class, () -> loanService.getById(1L));
     }
 
+    // Sprawdza: getResponseById zwraca projekcję z repozytorium, bez ładowania encji
+    @Test
+    void getResponseById_shouldReturnProjection() throws Exception {
+        LoanResponse response = new LoanResponse(1L, 2L, 3L, LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 15), null);
+        when(loanRepository.findResponseById(1L)).thenReturn(Optional.of(response));
+
+        assertEquals(response, loanService.getResponseById(1L));
+        verify(loanRepository, never()).findById(any());
+    }
+
+    // Sprawdza obsługę wyjątku: brak wypożyczenia w projekcji
+    @Test
+    void getResponseById_shouldThrowWhenNotFound() {
+        when(loanRepository.findResponseById(1L)).thenReturn(Optional.empty());
+        assertThrows(NotFoundException.class, () -> loanService.getResponseById(1L));
+    }
+
     // Sprawdza oddanie: ustawienie returnDate i zwiększenie availableCopies
     @Test
     void returnLoan_shouldSetReturnDate() throws Exception {
@@ -126,7 +165,7 @@ class LoanServiceTest {
         Loan returned = loanService.returnLoan(1L);
 
         assertEquals(LocalDate.of(2025, 1, 1), returned.getReturnDate());
-        assertEquals(1, b.getAvailableCopies());
+        verify(bookService).returnCopy(b.getId());
 
         verify(loanRepository).save(loan);
     }
@@ -144,6 +183,7 @@ class LoanServiceTest {
 
         assertThrows(BusinessRuleException.class, () -> loanService.returnLoan(1L));
         verify(loanRepository, never()).save(any());
+        verify(bookService, never()).returnCopy(any());
     }
 
     // Sprawdza delete: jeśli wypożyczenie nie było oddane, to dostępność książki wraca
@@ -160,7 +200,7 @@ class LoanServiceTest {
 
         loanService.delete(1L);
 
-        assertEquals(1, b.getAvailableCopies());
+        verify(bookService).returnCopy(b.getId());
         verify(loanRepository).delete(loan);
     }
 
@@ -178,7 +218,188 @@ class LoanServiceTest {
 
         loanService.delete(1L);
 
-        assertEquals(0, b.getAvailableCopies());
+        verify(bookService, never()).returnCopy(any());
         verify(loanRepository).delete(loan);
     }
+
+    // Sprawdza batch: każda pozycja ma swój wynik, a brak egzemplarzy/książki nie przerywa reszty
+    @Test
+    void createBatch_shouldReportResultPerItem() throws Exception {
+        BatchLoanRequest req = new BatchLoanRequest();
+        req.setUserId(1L);
+        req.setBookIds(List.of(2L, 3L, 4L));
+
+        User u = new User("a@b.com", "X");
+        Book available = new Book("T", "123", 1);
+        Book unavailable = new Book("U", "456", 1);
+        unavailable.setAvailableCopies(0);
+
+        when(userService.getById(1L)).thenReturn(u);
+        when(bookService.lockForCheckout(any())).thenReturn(Map.of(2L, available, 3L, unavailable));
+        when(dateTimeProvider.today()).thenReturn(LocalDate.of(2025, 1, 1));
+
+        BatchLoanResponse res = loanService.createBatch(req);
+
+        List<BatchLoanItemResponse> items = res.items();
+        assertEquals(3, items.size());
+        assertTrue(items.get(0).success());
+        assertFalse(items.get(1).success());
+        assertEquals("Book is not available for loan", items.get(1).error());
+        assertFalse(items.get(2).success());
+        assertEquals("Book not found: 4", items.get(2).error());
+
+        assertEquals(0, available.getAvailableCopies()); // wiersz zablokowany -> zmiana w pamięci
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Loan>> saved = ArgumentCaptor.forClass(List.class);
+        verify(loanRepository).saveAll(saved.capture());
+        assertEquals(1, saved.getValue().size());
+        verify(events).publishEvent(new BookBorrowedEvent(2L));
+        verifyNoMoreInteractions(events);
+        verify(metrics).checkoutRejected(RejectionReason.NO_COPIES);
+        verify(metrics).checkoutRejected(RejectionReason.NOT_FOUND);
+    }
+
+    // Sprawdza batch: niepoprawny użytkownik odrzuca cały batch zanim zablokujemy książki
+    @Test
+    void createBatch_shouldThrowWhenUserEmailInvalid() throws Exception {
+        BatchLoanRequest req = new BatchLoanRequest();
+        req.setUserId(1L);
+        req.setBookIds(List.of(2L));
+
+        when(userService.getById(1L)).thenReturn(new User(" ", "X"));
+
+        assertThrows(ValidationException.class, () -> loanService.createBatch(req));
+        verify(bookService, never()).lockForCheckout(any());
+        verify(loanRepository, never()).saveAll(anyList());
+    }
+
+    // Sprawdza zwrot wsadowy po ID: grupowanie po książce, raport oddanych/już oddanych/nieistniejących
+    @Test
+    void returnBatch_shouldGroupByBookAndReportStatuses() throws Exception {
+        BatchReturnRequest req = new BatchReturnRequest();
+        req.setLoanIds(List.of(1L, 2L, 3L, 4L));
+
+        LocalDate today = LocalDate.of(2025, 1, 1);
+        when(dateTimeProvider.today()).thenReturn(today);
+        when(loanRepository.findReturnCandidatesByIdIn(List.of(1L, 2L, 3L, 4L))).thenReturn(List.of(
+                new Candidate(1L, 10L, "111", null),
+                new Candidate(2L, 10L, "111", null),
+                new Candidate(3L, 20L, "222", LocalDate.of(2024, 12, 1))));
+        when(loanRepository.lockActiveIds(List.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        when(loanRepository.markReturned(List.of(1L, 2L), today)).thenReturn(2);
+
+        BatchReturnResponse res = loanService.returnBatch(req);
+
+        assertEquals(List.of(1L, 2L), res.returnedLoanIds());
+        assertEquals(List.of(3L), res.alreadyReturnedLoanIds());
+        assertEquals(List.of(4L), res.notFoundLoanIds());
+
+        // jeden UPDATE na książkę, o liczbę faktycznie oddanych wypożyczeń
+        verify(bookService).returnCopies(10L, 2);
+        verify(bookService, never()).returnCopies(eq(20L), anyInt());
+    }
+
+    // Sprawdza zwrot wsadowy po ISBN: ten sam ISBN dwa razy = dwa najstarsze aktywne wypożyczenia
+    @Test
+    void returnBatch_shouldMatchOldestActiveLoansByIsbn() throws Exception {
+        BatchReturnRequest req = new BatchReturnRequest();
+        req.setIsbns(List.of("111", "111", "999"));
+
+        LocalDate today = LocalDate.of(2025, 1, 1);
+        when(dateTimeProvider.today()).thenReturn(today);
+        when(loanRepository.findActiveReturnCandidatesByIsbnIn(any())).thenReturn(List.of(
+                new Candidate(5L, 10L, "111", null),
+                new Candidate(6L, 10L, "111", null),
+                new Candidate(7L, 10L, "111", null)));
+        when(loanRepository.lockActiveIds(List.of(5L, 6L))).thenReturn(List.of(5L, 6L));
+        when(loanRepository.markReturned(List.of(5L, 6L), today)).thenReturn(2);
+
+        BatchReturnResponse res = loanService.returnBatch(req);
+
+        assertEquals(List.of(5L, 6L), res.returnedLoanIds());
+        assertEquals(List.of("999"), res.unmatchedIsbns());
+        verify(bookService).returnCopies(10L, 2);
+    }
+
+    // Sprawdza zwrot wsadowy po ID i ISBN naraz: ISBN nie wskazuje wypożyczenia oddawanego już po ID,
+    // a książki są oddawane rosnąco po ID niezależnie od kolejności w requeście
+    @Test
+    void returnBatch_shouldReturnBooksInAscendingIdOrder() throws Exception {
+        BatchReturnRequest req = new BatchReturnRequest();
+        req.setLoanIds(List.of(8L, 5L));
+        req.setIsbns(List.of("111"));
+
+        LocalDate today = LocalDate.of(2025, 1, 1);
+        when(dateTimeProvider.today()).thenReturn(today);
+        when(loanRepository.findReturnCandidatesByIdIn(List.of(8L, 5L))).thenReturn(List.of(
+                new Candidate(8L, 20L, "222", null),
+                new Candidate(5L, 10L, "111", null)));
+        when(loanRepository.findActiveReturnCandidatesByIsbnIn(any())).thenReturn(List.of(
+                new Candidate(5L, 10L, "111", null),
+                new Candidate(6L, 10L, "111", null)));
+        when(loanRepository.lockActiveIds(List.of(5L, 6L))).thenReturn(List.of(5L, 6L));
+        when(loanRepository.markReturned(List.of(5L, 6L), today)).thenReturn(2);
+        when(loanRepository.lockActiveIds(List.of(8L))).thenReturn(List.of(8L));
+        when(loanRepository.markReturned(List.of(8L), today)).thenReturn(1);
+
+        BatchReturnResponse res = loanService.returnBatch(req);
+
+        assertEquals(List.of(5L, 6L, 8L), res.returnedLoanIds());
+        assertTrue(res.unmatchedIsbns().isEmpty());
+
+        InOrder order = inOrder(loanRepository, bookService);
+        order.verify(loanRepository).lockActiveIds(List.of(5L, 6L));
+        order.verify(bookService).returnCopies(10L, 2);
+        order.verify(loanRepository).lockActiveIds(List.of(8L));
+        order.verify(bookService).returnCopies(20L, 1);
+    }
+
+    // Sprawdza zwrot wsadowy przy równoległym zwrocie: wypożyczenie oddane przez kogoś innego
+    // po odczycie kandydatów nie jest raportowane jako oddane przez ten request
+    @Test
+    void returnBatch_shouldReportConcurrentlyReturnedLoansAsAlreadyReturned() throws Exception {
+        BatchReturnRequest req = new BatchReturnRequest();
+        req.setLoanIds(List.of(1L, 2L, 3L));
+
+        LocalDate today = LocalDate.of(2025, 1, 1);
+        when(dateTimeProvider.today()).thenReturn(today);
+        when(loanRepository.findReturnCandidatesByIdIn(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                new Candidate(1L, 10L, "111", null),
+                new Candidate(2L, 10L, "111", null),
+                new Candidate(3L, 10L, "111", null)));
+        // 2 oddał równoległy zwrot — blokada obejmuje już tylko 1 i 3
+        when(loanRepository.lockActiveIds(List.of(1L, 2L, 3L))).thenReturn(List.of(1L, 3L));
+        when(loanRepository.markReturned(List.of(1L, 3L), today)).thenReturn(2);
+
+        BatchReturnResponse res = loanService.returnBatch(req);
+
+        assertEquals(List.of(1L, 3L), res.returnedLoanIds());
+        assertEquals(List.of(2L), res.alreadyReturnedLoanIds());
+        verify(bookService).returnCopies(10L, 2);
+    }
+
+    // Sprawdza walidację: pusty request -> ValidationException
+    @Test
+    void returnBatch_shouldThrowWhenNothingToReturn() {
+        assertThrows(ValidationException.class, () -> loanService.returnBatch(new BatchReturnRequest()));
+    }
+
+    /**
+     * Prosta implementacja projekcji LoanRepository.ReturnCandidate do testów.
+     */
+    private record Candidate(Long id, Long bookId, String isbn, LocalDate returnDate)
+            implements LoanRepository.ReturnCandidate {
+
+        @Override
+        public Long getId() { return id; }
+
+        @Override
+        public Long getBookId() { return bookId; }
+
+        @Override
+        public String getIsbn() { return isbn; }
+
+        @Override
+        public LocalDate getReturnDate() { return returnDate; }
+    }
 }
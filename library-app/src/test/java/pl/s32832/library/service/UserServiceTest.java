@@ -7,11 +7,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import pl.s32832.library.dto.request.CreateUserRequest;
 import pl.s32832.library.dto.request.UpdateUserRequest;
+import pl.s32832.library.dto.response.CursorPage;
+import pl.s32832.library.dto.response.UserResponse;
 import pl.s32832.library.entity.User;
 import pl.s32832.library.exception.NotFoundException;
 import pl.s32832.library.exception.ValidationException;
 import pl.s32832.library.repository.UserRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -130,4 +133,44 @@ class UserServiceTest {
         assertThrows(NotFoundException.class, () -> userService.delete(1L));
         verify(userRepository, never()).delete(any());
     }
+
+    // Lookup: pusty albo jednoznakowy tekst -> pusta lista bez zapytania do bazy
+    @Test
+    void lookup_shouldReturnEmptyForTooShortQuery() {
+        assertTrue(userService.lookup("  ", 10).isEmpty());
+        assertTrue(userService.lookup(" j ", 10).isEmpty());
+        verifyNoInteractions(userRepository);
+    }
+
+    // Lookup: prefiks w małych literach z escapowanymi znakami LIKE, limit przycięty do maksimum
+    @Test
+    void lookup_shouldQueryByEscapedPrefix() {
+        UserRepository.LookupRow row = mock(UserRepository.LookupRow.class);
+        when(row.getId()).thenReturn(1L);
+        when(row.getEmail()).thenReturn("jan@x.pl");
+        when(row.getFullName()).thenReturn("Jan Kowalski");
+        when(userRepository.lookup("ja!_n%", 50)).thenReturn(List.of(row));
+
+        assertEquals(List.of(new UserResponse(1L, "jan@x.pl", "Jan Kowalski")), userService.lookup(" Ja_N ", 1_000));
+    }
+
+    // Strona REST: projekcja UserResponse, limit + 1 wierszy, kursor z ostatniej pozycji strony
+    @Test
+    void getResponsePage_shouldUseProjection() {
+        UserResponse first = new UserResponse(5L, "a@x.pl", "A");
+        when(userRepository.findResponsesAfter(eq(4L), argThat(l -> l.max() == 2))).thenReturn(List.of(first));
+
+        CursorPage<UserResponse> page = userService.getResponsePage(4L, 1);
+
+        assertEquals(List.of(first), page.items());
+        assertNull(page.nextCursor());
+    }
+
+    // Get REST: brak użytkownika w projekcji -> NotFoundException
+    @Test
+    void getResponseById_shouldThrowWhenNotFound() {
+        when(userRepository.findResponseById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> userService.getResponseById(1L));
+    }
 }
@@ -0,0 +1,192 @@
+package pl.s32832.library.startup;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Czas do pierwszej odpowiedzi (time-to-first-request) spakowanej aplikacji w kilku wariantach startu.
+ *
+ * Każdy przebieg to osobny proces java: od uruchomienia procesu do pierwszej odpowiedzi 2xx
+ * na library.startup.path. Pierwszy przebieg wariantu jest rozgrzewką (cache plików systemu) i nie jest liczony.
+ * Obok podajemy czas startu raportowany przez Springa ("Started LibraryApplication in X seconds").
+ *
+ * Warianty (library.startup.variants):
+ *   jar          -> java -jar target/library-app-1.0.0.jar
+ *   lazy         -> jak jar, z profilem "lazy"
+ *   aot          -> rozpakowany jar z -Dspring.aot.enabled=true        (wymaga mvn -Pstartup package)
+ *   aot-cds      -> jak aot, z archiwum CDS target/application/application.jsa
+ *   aot-cds-lazy -> jak aot-cds, z profilem "lazy"
+ * Wariant bez potrzebnych plików jest pomijany (z komunikatem).
+ *
+ * Uruchomienie (aplikacja potrzebuje bazy jak przy zwykłym starcie):
+ *   mvn -Pstartup -DskipTests package
+ *   mvn test -Dtest=StartupBenchmarkTest -Dlibrary.startup=true [-Dlibrary.startup.runs=10 -Dlibrary.startup.max-ms=1000]
+ * Pozostałe ustawienia:
+ *   library.startup.path    -> żądanie mierzone jako pierwsze (domyślnie /api/books?limit=1)
+ *   library.startup.args    -> dodatkowe argumenty aplikacji, rozdzielone spacjami (np. --spring.datasource.url=...)
+ *   library.startup.timeout -> limit czasu jednego startu w sekundach (domyślnie 60)
+ *   library.startup.max-ms  -> test kończy się błędem, gdy mediana któregoś wariantu jest większa (0 = bez progu)
+ * Logi przebiegów: target/startup/.
+ */
+@EnabledIfSystemProperty(named = "library.startup", matches = "true")
+class StartupBenchmarkTest {
+
+    private static final Pattern STARTED = Pattern.compile("Started \\w+ in ([0-9.]+) seconds");
+    private static final Path TARGET = Path.of("target");
+    private static final Path EXTRACTED = TARGET.resolve("application");
+    private static final Path LOGS = TARGET.resolve("startup");
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+    @Test
+    void timeToFirstRequest() throws Exception {
+        int runs = Integer.getInteger("library.startup.runs", 5);
+        long maxMillis = Long.getLong("library.startup.max-ms", 0);
+        String jarName = System.getProperty("library.startup.jar", "library-app-1.0.0.jar");
+        List<String> variants = List.of(
+                System.getProperty("library.startup.variants", "jar,lazy,aot,aot-cds,aot-cds-lazy").split(","));
+        Files.createDirectories(LOGS);
+
+        List<String> violations = new ArrayList<>();
+        System.out.printf("%n=== Startup: %d runs per variant, first request %s ===%n", runs, path());
+        System.out.printf("%-13s %8s %8s %8s %12s%n", "variant", "min", "median", "max", "spring (med)");
+        for (String name : variants) {
+            Variant variant = variant(name.trim(), jarName);
+            List<String> missing = variant.files().stream()
+                    .filter(f -> !Files.exists(f))
+                    .map(Path::toString)
+                    .toList();
+            if (!missing.isEmpty()) {
+                System.out.printf("%-13s skipped, missing: %s%n", variant.name(), String.join(", ", missing));
+                continue;
+            }
+
+            measure(variant, 0); // rozgrzewka
+            long[] firstRequest = new long[runs];
+            double[] springStart = new double[runs];
+            for (int i = 0; i < runs; i++) {
+                Result result = measure(variant, i + 1);
+                firstRequest[i] = result.firstRequestMillis();
+                springStart[i] = result.springSeconds();
+            }
+            Arrays.sort(firstRequest);
+            Arrays.sort(springStart);
+            long median = firstRequest[runs / 2];
+            System.out.printf("%-13s %6d ms %6d ms %6d ms %10.3f s%n", variant.name(),
+                    firstRequest[0], median, firstRequest[runs - 1], springStart[runs / 2]);
+            if (maxMillis > 0 && median > maxMillis) {
+                violations.add(variant.name() + " median " + median + " ms > " + maxMillis + " ms");
+            }
+        }
+
+        assertTrue(violations.isEmpty(), "Startup targets missed:\n" + String.join("\n", violations));
+    }
+
+    private Result measure(Variant variant, int run) throws IOException, InterruptedException {
+        int port = freePort();
+        Path log = LOGS.resolve(variant.name() + "-" + run + ".log");
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(variant.jvmArgs());
+        command.add("-jar");
+        command.add(variant.jar().toString());
+        command.add("--server.port=" + port);
+        command.addAll(variant.appArgs());
+        String extra = System.getProperty("library.startup.args", "");
+        if (!extra.isBlank()) {
+            command.addAll(List.of(extra.trim().split("\\s+")));
+        }
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long firstRequest = awaitFirstResponse(process, URI.create("http://localhost:" + port + path()), start, log);
+            return new Result(TimeUnit.NANOSECONDS.toMillis(firstRequest - start), springSeconds(log));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    /** Odpytuje adres co 5 ms; zwraca chwilę (nanoTime) pierwszej odpowiedzi 2xx. */
+    private long awaitFirstResponse(Process process, URI uri, long start, Path log)
+            throws IOException, InterruptedException {
+        long deadline = start + TimeUnit.SECONDS.toNanos(Long.getLong("library.startup.timeout", 60));
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(5)).GET().build();
+        while (System.nanoTime() - deadline < 0) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue() + ", log: " + log);
+            }
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() / 100 == 2) {
+                    return System.nanoTime();
+                }
+            } catch (IOException e) {
+                // serwer jeszcze nie nasłuchuje
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("No 2xx response from " + uri + " before timeout, log: " + log);
+    }
+
+    private static Variant variant(String name, String jarName) {
+        Path jar = TARGET.resolve(jarName);
+        Path extracted = EXTRACTED.resolve(jarName);
+        Path archive = EXTRACTED.resolve("application.jsa");
+        List<String> lazy = List.of("--spring.profiles.active=lazy");
+        List<String> aot = List.of("-Dspring.aot.enabled=true");
+        List<String> aotCds = List.of("-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=" + archive);
+        return switch (name) {
+            case "jar" -> new Variant(name, List.of(), jar, List.of(), List.of(jar));
+            case "lazy" -> new Variant(name, List.of(), jar, lazy, List.of(jar));
+            case "aot" -> new Variant(name, aot, extracted, List.of(), List.of(extracted));
+            case "aot-cds" -> new Variant(name, aotCds, extracted, List.of(), List.of(extracted, archive));
+            case "aot-cds-lazy" -> new Variant(name, aotCds, extracted, lazy, List.of(extracted, archive));
+            default -> throw new IllegalArgumentException("Unknown startup variant: " + name);
+        };
+    }
+
+    private static String path() {
+        return System.getProperty("library.startup.path", "/api/books?limit=1");
+    }
+
+    private static double springSeconds(Path log) throws IOException {
+        Matcher m = STARTED.matcher(Files.readString(log));
+        return m.find() ? Double.parseDouble(m.group(1)) : Double.NaN;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private record Variant(String name, List<String> jvmArgs, Path jar, List<String> appArgs, List<Path> files) {}
+
+    private record Result(long firstRequestMillis, double springSeconds) {}
+}
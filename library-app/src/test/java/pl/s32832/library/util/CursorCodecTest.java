@@ -0,0 +1,35 @@
+package pl.s32832.library.util;
+
+import org.junit.jupiter.api.Test;
+import pl.s32832.library.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorCodecTest {
+
+    @Test
+    void encodeDecode_shouldRoundTrip() throws Exception {
+        String cursor = CursorCodec.encode(400_123L);
+        assertEquals(400_123L, CursorCodec.decode(cursor));
+    }
+
+    @Test
+    void decode_shouldReturnNullForMissingCursor() throws Exception {
+        assertNull(CursorCodec.decode(null));
+        assertNull(CursorCodec.decode(" "));
+    }
+
+    @Test
+    void decode_shouldRejectGarbage() {
+        assertThrows(ValidationException.class, () -> CursorCodec.decode("%%%"));
+        assertThrows(ValidationException.class, () -> CursorCodec.decode(encodeRaw("id:abc")));
+        assertThrows(ValidationException.class, () -> CursorCodec.decode(encodeRaw("42")));
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,32 @@
+package pl.s32832.library.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LookupsTest {
+
+    @Test
+    void likePrefix_shouldLowercaseAndAppendWildcard() {
+        assertEquals("kowal%", Lookups.likePrefix("  Kowal "));
+    }
+
+    @Test
+    void likePrefix_shouldEscapeLikeSpecialCharacters() {
+        assertEquals("50!%!_a!!%", Lookups.likePrefix("50%_a!"));
+    }
+
+    @Test
+    void clampLimit_shouldKeepLimitInRange() {
+        assertEquals(1, Lookups.clampLimit(0));
+        assertEquals(10, Lookups.clampLimit(10));
+        assertEquals(Lookups.MAX_LIMIT, Lookups.clampLimit(1_000));
+    }
+
+    @Test
+    void tooShort_shouldRequireMinimumTrimmedLength() {
+        assertTrue(Lookups.tooShort(null));
+        assertTrue(Lookups.tooShort(" k "));
+        assertFalse(Lookups.tooShort(" ko "));
+    }
+}
@@ -0,0 +1,41 @@
+package pl.s32832.library.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchQueriesTest {
+
+    @Test
+    void prefixTsQuery_shouldJoinTermsAsPrefixes() {
+        assertEquals("pan:* & tadeusz:*", SearchQueries.prefixTsQuery("Pan  Tadeusz"));
+    }
+
+    @Test
+    void prefixTsQuery_shouldDropTsQueryOperators() {
+        assertEquals("978:* & 83:* & żółw:*", SearchQueries.prefixTsQuery("978-83 & !(Żółw:*)"));
+    }
+
+    @Test
+    void prefixTsQuery_shouldReturnEmptyWithoutWords() {
+        assertEquals("", SearchQueries.prefixTsQuery(" &|! "));
+        assertEquals("", SearchQueries.prefixTsQuery(null));
+    }
+
+    @Test
+    void prefixTsQuery_shouldLimitNumberOfTerms() {
+        String query = SearchQueries.prefixTsQuery("aa bb cc dd ee ff gg hh ii jj");
+        assertEquals(SearchQueries.MAX_TERMS, query.split(" & ").length);
+    }
+
+    @Test
+    void prefixTsQuery_shouldMatchShortTermsAsWholeWords() {
+        assertEquals("harry:* & potter:* & 2", SearchQueries.prefixTsQuery("Harry Potter 2"));
+    }
+
+    @Test
+    void prefixTsQuery_shouldReturnEmptyWithoutTermLongEnoughForPrefix() {
+        assertEquals("", SearchQueries.prefixTsQuery("a"));
+        assertEquals("", SearchQueries.prefixTsQuery("a 1 b"));
+    }
+}